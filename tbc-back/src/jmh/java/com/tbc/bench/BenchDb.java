@@ -0,0 +1,39 @@
+package com.tbc.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 벤치마크용 JDBC 연결.
+ * 기본은 H2 메모리 DB(MySQL 모드). 커밋에 fsync 가 없으므로 커밋 비용 차이는 실제보다 작게 나온다.
+ * 실제 수치는 BENCH_JDBC_URL / BENCH_JDBC_USER / BENCH_JDBC_PASSWORD 로 MySQL 을 지정해서 본다.
+ */
+public final class BenchDb {
+
+    private BenchDb() {
+    }
+
+    public static Connection open(String name) throws SQLException {
+        String url = env("BENCH_JDBC_URL",
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1");
+        Connection c = DriverManager.getConnection(url, env("BENCH_JDBC_USER", "sa"), env("BENCH_JDBC_PASSWORD", ""));
+        c.setAutoCommit(false);
+        return c;
+    }
+
+    public static void exec(Connection c, String... sqls) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            for (String sql : sqls) {
+                st.execute(sql);
+            }
+        }
+        c.commit();
+    }
+
+    private static String env(String key, String def) {
+        String v = System.getenv(key);
+        return (v == null || v.isBlank()) ? def : v;
+    }
+}
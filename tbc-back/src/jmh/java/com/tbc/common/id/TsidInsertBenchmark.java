@@ -0,0 +1,95 @@
+package com.tbc.common.id;
+
+import com.tbc.bench.BenchDb;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 원장 INSERT 처리량: IDENTITY(행마다 INSERT 후 생성 키 조회) vs TSID(앱 발급 id, JDBC 배치).
+ * 한 번의 호출 = ROWS 행 + 커밋 1번, 결과 ops/s 는 초당 행 수.
+ * MySQL 로 볼 때는 BENCH_JDBC_URL 에 rewriteBatchedStatements=true 를 붙인다 (운영 설정과 같게).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class TsidInsertBenchmark {
+
+    private static final int ROWS = 50; // hibernate.jdbc.batch_size
+
+    private Connection c;
+    private PreparedStatement identityInsert;
+    private PreparedStatement tsidInsert;
+    private long seq;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        c = BenchDb.open("tsid");
+        BenchDb.exec(c,
+                "DROP TABLE IF EXISTS bench_identity_ledger",
+                "DROP TABLE IF EXISTS bench_tsid_ledger",
+                "CREATE TABLE bench_identity_ledger (id BIGINT AUTO_INCREMENT PRIMARY KEY, wallet_id BIGINT NOT NULL, "
+                        + "amount BIGINT NOT NULL, idempotency_key VARCHAR(64) NOT NULL UNIQUE)",
+                "CREATE TABLE bench_tsid_ledger (id BIGINT PRIMARY KEY, wallet_id BIGINT NOT NULL, "
+                        + "amount BIGINT NOT NULL, idempotency_key VARCHAR(64) NOT NULL UNIQUE)");
+        identityInsert = c.prepareStatement(
+                "INSERT INTO bench_identity_ledger (wallet_id, amount, idempotency_key) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        tsidInsert = c.prepareStatement(
+                "INSERT INTO bench_tsid_ledger (id, wallet_id, amount, idempotency_key) VALUES (?, ?, ?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        c.close();
+    }
+
+    /** 기존: IDENTITY 라 Hibernate 가 행마다 INSERT 를 보내고 생성 키를 읽는다 */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityRowByRow() throws SQLException {
+        long lastId = 0;
+        for (int i = 0; i < ROWS; i++) {
+            identityInsert.setLong(1, i % 100);
+            identityInsert.setLong(2, 100);
+            identityInsert.setString(3, "IDENTITY:" + (++seq));
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                lastId = keys.getLong(1);
+            }
+        }
+        c.commit();
+        return lastId;
+    }
+
+    /** 변경: id 를 미리 정하므로 ROWS 행을 배치 한 번으로 */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] tsidBatched() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            tsidInsert.setLong(1, TsidGenerator.next());
+            tsidInsert.setLong(2, i % 100);
+            tsidInsert.setLong(3, 100);
+            tsidInsert.setString(4, "TSID:" + (++seq));
+            tsidInsert.addBatch();
+        }
+        int[] counts = tsidInsert.executeBatch();
+        c.commit();
+        return counts;
+    }
+
+    /** 발급 자체 비용 (CAS 한 번) */
+    @Benchmark
+    public long nextId() {
+        return TsidGenerator.next();
+    }
+}
@@ -0,0 +1,143 @@
+package com.tbc.payments.bench;
+
+import com.tbc.bench.BenchDb;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 정산 처리량: 단일 플랫폼 지갑(shards=1, 기존) vs 샤딩(shards=8).
+ * 정산 요청(원장 포트 post, group-commit 꺼짐)과 같은 모양의 트랜잭션 (샤드 FOR UPDATE → 호스트 FOR UPDATE → 원장 2건 → 잔액 2건 → 커밋).
+ * 결과 ops/s = 초당 정산 수, 호출자 1/8/64 명.
+ *
+ * ./gradlew jmh
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PlatformShardSettlementBenchmark {
+
+    private static final int HOSTS = 1000;
+    private static final long AMOUNT = 100;
+
+    @State(Scope.Benchmark)
+    public static class Db {
+
+        @Param({"1", "8"})
+        public int shards;
+
+        final AtomicLong meetings = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            try (Connection c = BenchDb.open("settlement")) {
+                BenchDb.exec(c,
+                        "DROP TABLE IF EXISTS bench_settle_ledger",
+                        "DROP TABLE IF EXISTS bench_settle_wallets",
+                        "CREATE TABLE bench_settle_wallets (user_id BIGINT PRIMARY KEY, balance BIGINT NOT NULL)",
+                        "CREATE TABLE bench_settle_ledger (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                                + "amount BIGINT NOT NULL, idempotency_key VARCHAR(64) NOT NULL UNIQUE)");
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO bench_settle_wallets (user_id, balance) VALUES (?, ?)")) {
+                    for (int i = 0; i < shards; i++) {
+                        ps.setLong(1, -i);
+                        ps.setLong(2, Long.MAX_VALUE / 4);
+                        ps.addBatch();
+                    }
+                    for (int h = 1; h <= HOSTS; h++) {
+                        ps.setLong(1, h);
+                        ps.setLong(2, 0);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                c.commit();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        Connection c;
+        PreparedStatement lock;
+        PreparedStatement ledger;
+        PreparedStatement balance;
+
+        @Setup(Level.Trial)
+        public void open(Db db) throws SQLException { // db 인자: 테이블 생성(Db.setUp) 이후에 실행되도록
+            c = BenchDb.open("settlement");
+            lock = c.prepareStatement("SELECT balance FROM bench_settle_wallets WHERE user_id = ? FOR UPDATE");
+            ledger = c.prepareStatement(
+                    "INSERT INTO bench_settle_ledger (user_id, amount, idempotency_key) VALUES (?, ?, ?)");
+            balance = c.prepareStatement("UPDATE bench_settle_wallets SET balance = balance + ? WHERE user_id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            c.close();
+        }
+
+        void settle(Db db) throws SQLException {
+            long meetingId = db.meetings.incrementAndGet();
+            long shard = -Math.floorMod(meetingId, db.shards);
+            long host = 1 + ThreadLocalRandom.current().nextInt(HOSTS);
+            try {
+                // 샤드(음수) → 호스트(양수) 순서로 잠가 데드락 없음
+                lockRow(shard);
+                lockRow(host);
+                append(shard, -AMOUNT, "SETTLEMENT:DEBIT:" + meetingId);
+                append(host, AMOUNT, "SETTLEMENT:CREDIT:" + meetingId);
+                add(shard, -AMOUNT);
+                add(host, AMOUNT);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+
+        private void lockRow(long userId) throws SQLException {
+            lock.setLong(1, userId);
+            lock.executeQuery().close();
+        }
+
+        private void append(long userId, long amount, String key) throws SQLException {
+            ledger.setLong(1, userId);
+            ledger.setLong(2, amount);
+            ledger.setString(3, key);
+            ledger.executeUpdate();
+        }
+
+        private void add(long userId, long amount) throws SQLException {
+            balance.setLong(1, amount);
+            balance.setLong(2, userId);
+            balance.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void callers1(Db db, Caller caller) throws SQLException {
+        caller.settle(db);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void callers8(Db db, Caller caller) throws SQLException {
+        caller.settle(db);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void callers64(Db db, Caller caller) throws SQLException {
+        caller.settle(db);
+    }
+}
@@ -0,0 +1,149 @@
+package com.tbc.payments.bench;
+
+import com.tbc.bench.BenchDb;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 그룹 커밋: 커밋 수 vs 기록된 원장 줄 수.
+ * 인기 지갑 몇 개(플랫폼/호스트)에 CREDIT 이 몰리는 상황.
+ * - perRequestCallers8: 지금처럼 요청마다 트랜잭션 (FOR UPDATE → 원장 1줄 → UPDATE → 커밋), 호출자 8명
+ * - writer(batch): WalletGroupCommitEngine writer 한 개와 같은 모양 (FOR UPDATE 1번 → 원장 batch 줄 배치 INSERT → 지갑당 UPDATE 1번 → 커밋 1번)
+ * 결과의 commits / entries 가 각각 초당 커밋 수 / 초당 원장 줄 수. batch=1 이면 두 값이 같다.
+ *
+ * ./gradlew jmh -Pjmh.includes=WalletGroupCommitBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class WalletGroupCommitBenchmark {
+
+    private static final int HOT_WALLETS = 4;
+    private static final long AMOUNT = 100;
+
+    @State(Scope.Benchmark)
+    public static class Db {
+
+        final AtomicLong keys = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            try (Connection c = BenchDb.open("group-commit")) {
+                BenchDb.exec(c,
+                        "DROP TABLE IF EXISTS bench_gc_ledger",
+                        "DROP TABLE IF EXISTS bench_gc_wallets",
+                        "CREATE TABLE bench_gc_wallets (user_id BIGINT PRIMARY KEY, balance BIGINT NOT NULL)",
+                        "CREATE TABLE bench_gc_ledger (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                                + "amount BIGINT NOT NULL, idempotency_key VARCHAR(64) NOT NULL UNIQUE)");
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO bench_gc_wallets (user_id, balance) VALUES (?, 0)")) {
+                    for (int i = 1; i <= HOT_WALLETS; i++) {
+                        ps.setLong(1, i);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                c.commit();
+            }
+        }
+    }
+
+    /** JMH 가 public 필드를 초당 값으로 보고한다 */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counts {
+        public long commits;
+        public long entries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            commits = 0;
+            entries = 0;
+        }
+    }
+
+    /** writer 한 번에 묶는 요청 수 (writer 벤치마크만 씀) */
+    @State(Scope.Benchmark)
+    public static class Batch {
+        @Param({"1", "16", "128"})
+        public int size;
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        Connection c;
+        PreparedStatement lock;
+        PreparedStatement ledger;
+        PreparedStatement balance;
+        final long[] deltas = new long[HOT_WALLETS + 1];
+
+        @Setup(Level.Trial)
+        public void open(Db db) throws SQLException { // db 인자: 테이블 생성(Db.setUp) 이후에 실행되도록
+            c = BenchDb.open("group-commit");
+            lock = c.prepareStatement("SELECT balance FROM bench_gc_wallets WHERE user_id = ? FOR UPDATE");
+            ledger = c.prepareStatement(
+                    "INSERT INTO bench_gc_ledger (user_id, amount, idempotency_key) VALUES (?, ?, ?)");
+            balance = c.prepareStatement("UPDATE bench_gc_wallets SET balance = balance + ? WHERE user_id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            c.close();
+        }
+
+        /** 요청 size 개를 한 트랜잭션으로: 지갑 잠금(id 순서) → 원장 배치 INSERT → 지갑당 UPDATE 1번 → 커밋 1번 */
+        void commit(Db db, Counts counts, int size) throws SQLException {
+            Arrays.fill(deltas, 0);
+            try {
+                for (int i = 0; i < size; i++) {
+                    long userId = 1 + ThreadLocalRandom.current().nextInt(HOT_WALLETS);
+                    ledger.setLong(1, userId);
+                    ledger.setLong(2, AMOUNT);
+                    ledger.setString(3, "BENCH:TOPUP:" + db.keys.incrementAndGet());
+                    ledger.addBatch();
+                    deltas[(int) userId] += AMOUNT;
+                }
+                for (int userId = 1; userId <= HOT_WALLETS; userId++) {
+                    if (deltas[userId] == 0) continue;
+                    lock.setLong(1, userId);
+                    lock.executeQuery().close();
+                }
+                ledger.executeBatch();
+                for (int userId = 1; userId <= HOT_WALLETS; userId++) {
+                    if (deltas[userId] == 0) continue;
+                    balance.setLong(1, deltas[userId]);
+                    balance.setLong(2, userId);
+                    balance.executeUpdate();
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+            counts.commits++;
+            counts.entries += size;
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void perRequestCallers8(Db db, Session session, Counts counts) throws SQLException {
+        session.commit(db, counts, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void writer(Db db, Batch batch, Session session, Counts counts) throws SQLException {
+        session.commit(db, counts, batch.size);
+    }
+}
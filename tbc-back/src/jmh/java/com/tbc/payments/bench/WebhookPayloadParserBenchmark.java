@@ -0,0 +1,115 @@
+package com.tbc.payments.bench;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.application.service.WebhookPayloadParser;
+import com.tbc.payments.domain.webhook.WebhookPayload;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 웹훅 본문 파싱: 단일 패스 토큰 파서(WebhookPayloadParser) vs 이전 방식(readTree 2번 + DTO readValue 1번).
+ * 본문은 Toss PAYMENT_STATUS_CHANGED 모양. full 은 결제 객체 전체(카드/영수증/취소 이력 등)가 data 에 실린 경우.
+ * 결과 ns/op. 가비지 비교는 -prof gc (gc.alloc.rate.norm).
+ *
+ * ./gradlew jmh -Pjmh.includes=WebhookPayloadParserBenchmark -Pjmh.profilers=gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebhookPayloadParserBenchmark {
+
+    private static final String MINIMAL = """
+            {"eventId":"evt_01HZX","eventType":"PAYMENT_STATUS_CHANGED","createdAt":"2026-10-17T12:00:00.000000",\
+            "data":{"orderId":"ORD-20261017-0001","status":"DONE","paymentKey":"tgen_20261017120000abcdEF"}}""";
+
+    @Param({"minimal", "full"})
+    public String body;
+
+    private ObjectMapper objectMapper;
+    private WebhookPayloadParser parser;
+    private String raw;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 스프링 부트 기본 ObjectMapper 와 같이 모르는 필드는 무시
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        parser = new WebhookPayloadParser(objectMapper);
+        raw = "full".equals(body) ? full() : MINIMAL;
+    }
+
+    @Benchmark
+    public WebhookPayload singlePass() throws IOException {
+        return parser.parse(raw);
+    }
+
+    /** 이전 PaymentWebhookService: eventId 용 readTree, eventType 용 readTree, 처리용 DTO readValue */
+    @Benchmark
+    public void treeTwiceAndDto(Blackhole bh) throws IOException {
+        JsonNode idRoot = objectMapper.readTree(raw);
+        String eventId = text(idRoot, "eventId");
+        bh.consume(eventId != null ? eventId : text(idRoot, "id"));
+
+        JsonNode typeRoot = objectMapper.readTree(raw);
+        String eventType = text(typeRoot, "eventType");
+        bh.consume(eventType != null ? eventType : text(typeRoot, "type"));
+
+        bh.consume(objectMapper.readValue(raw, LegacyWebhookDto.class));
+    }
+
+    private static String text(JsonNode n, String field) {
+        JsonNode x = n.get(field);
+        return (x != null && !x.isNull()) ? x.asText() : null;
+    }
+
+    /** 이전 WebhookEventDto 와 같은 모양 */
+    public static class LegacyWebhookDto {
+        public String eventId;
+        public String eventType;
+        public Data data;
+
+        public static class Data {
+            public String orderId;
+            public String status;
+            public String paymentKey;
+        }
+    }
+
+    /** 결제 객체 전체가 data 에 실린 본문 (필요한 세 필드는 뒤쪽에 있다) */
+    private static String full() {
+        StringBuilder cancels = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            if (i > 0) cancels.append(',');
+            cancels.append("""
+                    {"transactionKey":"txk_%d","cancelReason":"고객 요청","taxExemptionAmount":0,\
+                    "canceledAt":"2026-10-17T12:0%d:00+09:00","cancelAmount":1000,"refundableAmount":%d,\
+                    "cancelStatus":"DONE","cancelRequestId":null}""".formatted(i, i, 9000 - i * 1000));
+        }
+        return """
+                {"eventType":"PAYMENT_STATUS_CHANGED","createdAt":"2026-10-17T12:00:00.000000","eventId":"evt_01HZX",\
+                "data":{"mId":"tosspayments","lastTransactionKey":"txk_4","version":"2022-11-16",\
+                "type":"NORMAL","orderName":"모임 참가비 충전","requestedAt":"2026-10-17T11:59:00+09:00",\
+                "approvedAt":"2026-10-17T11:59:30+09:00","useEscrow":false,"cultureExpense":false,\
+                "card":{"issuerCode":"71","acquirerCode":"71","number":"12345678****000*","installmentPlanMonths":0,\
+                "isInterestFree":false,"interestPayer":null,"approveNo":"00000000","useCardPoint":false,\
+                "cardType":"신용","ownerType":"개인","acquireStatus":"READY","amount":10000},\
+                "virtualAccount":null,"transfer":null,"mobilePhone":null,"giftCertificate":null,\
+                "cashReceipt":null,"cashReceipts":null,"discount":null,\
+                "cancels":[%s],\
+                "secret":null,"easyPay":{"provider":"토스페이","amount":0,"discountAmount":0},\
+                "country":"KR","failure":null,"isPartialCancelable":true,\
+                "receipt":{"url":"https://dashboard.tosspayments.com/receipt/redirection?transactionId=tgen_20261017120000abcdEF"},\
+                "checkout":{"url":"https://api.tosspayments.com/v1/payments/tgen_20261017120000abcdEF/checkout"},\
+                "currency":"KRW","totalAmount":10000,"balanceAmount":5000,"suppliedAmount":4545,"vat":455,\
+                "taxFreeAmount":0,"taxExemptionAmount":0,"method":"카드",\
+                "orderId":"ORD-20261017-0001","status":"CANCELED","paymentKey":"tgen_20261017120000abcdEF"}}"""
+                .formatted(cancels);
+    }
+}
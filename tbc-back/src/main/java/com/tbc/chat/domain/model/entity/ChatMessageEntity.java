@@ -1,6 +1,7 @@
 package com.tbc.chat.domain.model.entity;
 
 import com.tbc.chat.domain.model.ChatMessageType;
+import com.tbc.common.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,7 +17,7 @@ import java.time.Instant;
 public class ChatMessageEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private Long roomId;
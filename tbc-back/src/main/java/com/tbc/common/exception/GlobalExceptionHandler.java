@@ -1,5 +1,7 @@
 package com.tbc.common.exception;
 
+import com.tbc.payments.application.exception.TossClientException;
+import com.tbc.payments.application.exception.WalletLockTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -45,6 +47,31 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("UNAUTHORIZED", ex.getMessage() != null ? ex.getMessage() : "인증이 필요합니다."));
     }
 
+    @ExceptionHandler(WalletLockTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleWalletLockTimeout(WalletLockTimeoutException ex) {
+        // 같은 지갑에 요청이 몰려 대기 시간 초과 → 재시도 가능한 503
+        log.warn("Wallet lock timeout: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse("WALLET_LOCK_TIMEOUT", "요청이 몰려 처리하지 못했습니다. 잠시 후 다시 시도해 주세요."));
+    }
+
+    @ExceptionHandler(TossClientException.class)
+    public ResponseEntity<ErrorResponse> handleTossClient(TossClientException ex) {
+        log.warn("Toss call failed status={}: {}", ex.getStatus(), ex.getMessage());
+        if (ex.isRejected()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("PG_REJECTED", "결제사가 요청을 거절했습니다."));
+        }
+        if (ex.isNotAttempted()) {
+            // 서킷 OPEN / 동시 호출 한도 초과 → 결제사에 보내지 않았으므로 그대로 재시도 가능
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("PG_BUSY", "결제사 연결이 원활하지 않습니다. 잠시 후 다시 시도해 주세요."));
+        }
+        // 결과를 모르는 상태 → 결제는 CONFIRMING 으로 남고 복구 작업/웹훅이 마무리
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(new ErrorResponse("PG_UNAVAILABLE", "결제 결과를 확인하는 중입니다. 잠시 후 다시 조회해 주세요."));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleUnreadable(HttpMessageNotReadableException ex) {
         // JSON 파싱 실패 등 요청 본문을 읽을 수 없는 경우 → 400
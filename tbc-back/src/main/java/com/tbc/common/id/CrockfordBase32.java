@@ -0,0 +1,31 @@
+package com.tbc.common.id;
+
+/**
+ * TSID 를 Crockford Base32 고정 길이(11자) 문자열로.
+ * 숫자 순서와 문자열 사전순이 같아서 VARCHAR 인덱스에도 순차 삽입되고, 0/O·1/I/L 혼동 문자가 없다.
+ */
+public final class CrockfordBase32 {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    static final int LENGTH = 11; // 55bit ≥ TSID 53bit
+
+    private CrockfordBase32() {
+    }
+
+    public static String encode(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("NEGATIVE_ID: " + value);
+        }
+        char[] out = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /** 다음 TSID 를 인코딩한 시간순 ID (예: 주문번호) */
+    public static String nextId() {
+        return encode(TsidGenerator.next());
+    }
+}
@@ -0,0 +1,20 @@
+package com.tbc.common.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 애플리케이션에서 TSID 를 발급하는 식별자.
+ * IDENTITY 와 달리 INSERT 전에 id 가 정해지므로 Hibernate JDBC 배치 INSERT 가 가능하다.
+ */
+@IdGeneratorType(TsidIdentifierGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TsidId {
+}
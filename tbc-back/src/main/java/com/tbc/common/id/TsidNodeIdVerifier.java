@@ -0,0 +1,18 @@
+package com.tbc.common.id;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * node id 가 없거나 범위를 벗어나면 첫 INSERT 가 아니라 기동 시점에 실패시킨다.
+ */
+@Slf4j
+@Component
+public class TsidNodeIdVerifier {
+
+    @PostConstruct
+    void verify() {
+        log.info("[TSID] node id={}", TsidGenerator.getInstance().nodeId());
+    }
+}
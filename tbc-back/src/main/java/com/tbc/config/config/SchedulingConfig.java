@@ -0,0 +1,17 @@
+package com.tbc.config.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 활성화.
+ * 예전에는 @EnableScheduling 이 없어서 WebhookProcessor(2초 폴링)와 ReconciliationJob(매일 03시 정합성 점검)이
+ * 선언만 되어 있고 실제로는 돌지 않았다. 지금은 이 둘과 결제 모듈의 정리/복구/체크포인트 잡이 모두 돈다.
+ * app.scheduling.enabled=false 로 인스턴스별로 끌 수 있다.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
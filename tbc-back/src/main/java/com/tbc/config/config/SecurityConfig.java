@@ -1,6 +1,7 @@
 package com.tbc.config.config;
 
 import com.tbc.login.adapter.out.security.JwtAuthenticationFilter;
+import com.tbc.payments.adapter.in.webhook.WebhookAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -22,9 +23,12 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final WebhookAuthenticationFilter webhookAuthenticationFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          WebhookAuthenticationFilter webhookAuthenticationFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.webhookAuthenticationFilter = webhookAuthenticationFilter;
     }
 
     @Bean
@@ -100,9 +104,11 @@ public class SecurityConfig {
                         .requestMatchers("/api/events").permitAll()
                         .requestMatchers("/api/events/").permitAll()
                         .requestMatchers("/api/events/*").permitAll()
-                        .requestMatchers("/actuator").permitAll()
-                        .requestMatchers("/actuator/").permitAll()
-                        .requestMatchers("/actuator/*").permitAll()
+                        // actuator 는 health/info 만 공개, metrics/tossclient 등 나머지는 인증 필요
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator", "/actuator/**").authenticated()
+                        // PG 웹훅은 JWT 대신 공유 비밀/허용 IP 로 인증 (WebhookAuthenticationFilter, 속도 제한 포함)
+                        .requestMatchers(HttpMethod.POST, "/payments/webhook").hasRole(WebhookAuthenticationFilter.ROLE)
 
                         // 후기 작성은 인증 필요 (구체적인 패턴 사용)
                         .requestMatchers("/api/events/1/reviews").authenticated()
@@ -129,7 +135,8 @@ public class SecurityConfig {
                             res.setContentType("application/json;charset=UTF-8");
                             res.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden");
                         }))
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(webhookAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
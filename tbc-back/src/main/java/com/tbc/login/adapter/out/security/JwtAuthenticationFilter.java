@@ -23,7 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
 
     private static final List<String> WHITELIST_PREFIXES = List.of(
-            "/api/auth/login", "/api/auth/signup", "/api/auth/register", "/actuator");
+            "/api/auth/login", "/api/auth/signup", "/api/auth/register", "/actuator/health", "/actuator/info");
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
         this.jwtTokenProvider = jwtTokenProvider;
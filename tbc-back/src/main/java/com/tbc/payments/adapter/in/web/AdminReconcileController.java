@@ -1,5 +1,6 @@
 package com.tbc.payments.adapter.in.web;
 
+import com.tbc.payments.adapter.in.web.dto.ReconcileReport;
 import com.tbc.payments.application.service.WalletReconcileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -13,12 +14,12 @@ public class AdminReconcileController {
     private final WalletReconcileService reconcileService;
 
     @PostMapping("/wallets")
-    public ResponseEntity<String> reconcileWallets() {
+    public ResponseEntity<ReconcileReport> reconcileWallets() {
         return ResponseEntity.ok(reconcileService.reconcileAll());
     }
 
     @PostMapping("/wallets/fix")
-    public ResponseEntity<String> reconcileWalletsAndFix() {
+    public ResponseEntity<ReconcileReport> reconcileWalletsAndFix() {
         return ResponseEntity.ok(reconcileService.reconcileAllAndFix());
     }
 }
@@ -0,0 +1,248 @@
+package com.tbc.payments.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.common.exception.GlobalExceptionHandler;
+import com.tbc.payments.application.service.IdempotencyService;
+import com.tbc.payments.domain.idempotency.IdempotentResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 결제/환불/정산 POST 의 Idempotency-Key 처리.
+ * 헤더가 있으면 (사용자, 경로, 키) 로 선점하고, 같은 키 재시도에는 처음 응답을 바이트 그대로 재생한다.
+ * 헤더가 없으면 기존처럼 서비스별 멱등 처리(orderId, 원장 멱등키)에만 맡긴다.
+ * Security 필터 뒤에서 돌기 때문에 인증 사용자로 키 범위를 나눈다.
+ */
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Set<String> paths;
+    private final int maxBodyBytes;
+
+    public IdempotencyKeyFilter(IdempotencyService idempotencyService,
+                                ObjectMapper objectMapper,
+                                @Value("${payments.idempotency.enabled:true}") boolean enabled,
+                                @Value("${payments.idempotency.paths:/payments,/payments/confirm,/refunds,/settlements/close}") List<String> paths,
+                                @Value("${payments.idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.paths = Set.copyOf(paths);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equalsIgnoreCase(request.getMethod())
+                || !paths.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST, "IDEMPOTENCY_KEY_INVALID", "Idempotency-Key 는 1~255자여야 합니다.");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE, "IDEMPOTENCY_BODY_TOO_LARGE", "요청 본문이 너무 큽니다.");
+            return;
+        }
+
+        String keyHash = sha256(principal() + "\n" + path(request) + "\n" + key);
+        String fingerprint = sha256(body);
+
+        switch (idempotencyService.begin(keyHash, fingerprint)) {
+            case IdempotencyService.Replay replay -> replay(response, replay.response());
+            case IdempotencyService.Rejected rejected -> reject(response, rejected.code());
+            case IdempotencyService.Acquired acquired -> execute(request, response, chain, body, keyHash, fingerprint);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         byte[] body, String keyHash, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), captured);
+        } catch (IOException | ServletException | RuntimeException e) {
+            // 처리 중 예외 → 응답을 남기지 않아야 재시도가 다시 실행된다
+            idempotencyService.abandon(keyHash);
+            throw e;
+        }
+        idempotencyService.complete(keyHash, fingerprint,
+                new IdempotentResponse(captured.getStatus(), captured.getContentType(), captured.getContentAsByteArray()));
+        captured.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotentResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void reject(HttpServletResponse response, String code) throws IOException {
+        if (IdempotencyService.KEY_REUSED.equals(code)) {
+            error(response, HttpStatus.UNPROCESSABLE_ENTITY, code, "같은 Idempotency-Key 로 다른 요청을 보냈습니다.");
+        } else {
+            error(response, HttpStatus.CONFLICT, code, "같은 요청을 처리 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String code, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(code, message));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String principal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : "anonymous";
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** 지문 계산에 이미 읽은 본문을 컨트롤러가 다시 읽을 수 있도록 */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new CachedBodyInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+
+    /** 메모리에 다 있는 본문이라 항상 읽을 수 있다: 비동기 리스너는 등록 즉시 onDataAvailable → onAllDataRead */
+    private static final class CachedBodyInputStream extends ServletInputStream {
+
+        private final byte[] body;
+        private int pos;
+
+        CachedBodyInputStream(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public int read() {
+            return pos < body.length ? body[pos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) return 0;
+            if (pos >= body.length) return -1;
+            int n = Math.min(len, body.length - pos);
+            System.arraycopy(body, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return body.length - pos;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return pos >= body.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            Objects.requireNonNull(listener, "listener");
+            try {
+                if (!isFinished()) listener.onDataAvailable();
+                listener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
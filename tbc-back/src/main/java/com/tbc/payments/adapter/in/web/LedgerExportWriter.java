@@ -0,0 +1,80 @@
+package com.tbc.payments.adapter.in.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.domain.wallet.LedgerEntryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/** 거래 내역 내보내기 한 줄 포맷 (CSV / NDJSON). 행 단위로 바로 써서 버퍼 외에는 모아 두지 않는다 */
+@Component
+@RequiredArgsConstructor
+public class LedgerExportWriter {
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        final String contentType;
+        final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,createdAt,type,amount,reason,refType,refId\n";
+
+    private final ObjectMapper objectMapper;
+
+    void header(Format format, Writer out) throws IOException {
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+        }
+    }
+
+    void write(Format format, LedgerEntryView e, Writer out) {
+        try {
+            if (format == Format.NDJSON) {
+                out.write(objectMapper.writeValueAsString(e));
+            } else {
+                out.write(String.valueOf(e.id()));
+                out.write(',');
+                out.write(String.valueOf(e.createdAt()));
+                out.write(',');
+                out.write(e.type().name());
+                out.write(',');
+                out.write(String.valueOf(e.amount()));
+                out.write(',');
+                out.write(csv(e.reason()));
+                out.write(',');
+                out.write(csv(e.refType()));
+                out.write(',');
+                out.write(csv(e.refId()));
+            }
+            out.write('\n');
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("LEDGER_EXPORT_FAILED", ex);
+        } catch (IOException ex) {
+            // 클라이언트가 끊김 → 스트림/트랜잭션 정리되도록 그대로 전파
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String csv(String v) {
+        if (v == null) return "";
+        // 스프레드시트 수식으로 해석되지 않도록
+        if (!v.isEmpty() && "=+-@".indexOf(v.charAt(0)) >= 0) {
+            v = "'" + v;
+        }
+        if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+        return v;
+    }
+}
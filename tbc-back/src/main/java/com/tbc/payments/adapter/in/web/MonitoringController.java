@@ -1,14 +1,19 @@
 package com.tbc.payments.adapter.in.web;
 
 
+import com.tbc.payments.adapter.in.web.dto.ReconcileReport;
 import com.tbc.payments.application.service.MonitoringService;
 import com.tbc.payments.application.service.WebhookRetryService;
+import com.tbc.payments.domain.payment.PaymentStateTransition;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 public class MonitoringController {
@@ -17,11 +22,16 @@ public class MonitoringController {
     private final WebhookRetryService webhookRetryService;
 
     @GetMapping("/monitoring/wallets/consistency")
-    public ResponseEntity<String> checkWallets() {
-        String report = monitoringService.checkConsistency();
+    public ResponseEntity<ReconcileReport> checkWallets() {
+        ReconcileReport report = monitoringService.checkConsistency();
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/monitoring/payments/{orderId}/transitions")
+    public ResponseEntity<List<PaymentStateTransition>> paymentTransitions(@PathVariable String orderId) {
+        return ResponseEntity.ok(monitoringService.paymentTransitions(orderId));
+    }
+
     @PostMapping("/monitoring/webhooks/retry")
     public ResponseEntity<String> retryWebhooks() {
         String report = webhookRetryService.retryFailedEvents();
@@ -2,6 +2,7 @@ package com.tbc.payments.adapter.in.web;
 
 import com.tbc.payments.adapter.in.web.dto.*;
 import com.tbc.payments.application.port.in.PaymentsFacade;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,7 +16,7 @@ public class PaymentController {
 
     // 결제 시작 전 INIT (orderId 예약)
     @PostMapping
-    public CreatePaymentResponse create(@RequestBody CreatePaymentRequest req) {
+    public CreatePaymentResponse create(@RequestBody @Valid CreatePaymentRequest req) {
         return paymentsFacade.create(req);
     }
 
@@ -1,14 +1,16 @@
 package com.tbc.payments.adapter.in.web;
 
 
+import com.tbc.payments.adapter.in.web.dto.BulkRefundRequest;
+import com.tbc.payments.adapter.in.web.dto.BulkRefundResponse;
 import com.tbc.payments.adapter.in.web.dto.RefundRequest;
 import com.tbc.payments.adapter.in.web.dto.RefundResponse;
+import com.tbc.payments.application.port.in.BulkRefundUseCase;
 import com.tbc.payments.application.port.in.PaymentsFacade;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/refunds")
@@ -16,9 +18,27 @@ import org.springframework.web.bind.annotation.RestController;
 public class RefundController {
 
     private final PaymentsFacade paymentsFacade;
+    private final BulkRefundUseCase bulkRefundUseCase;
 
     @PostMapping
     public RefundResponse refund(@RequestBody RefundRequest req) {
         return paymentsFacade.refund(req);
     }
+
+    // 모임 취소 일괄 환불: 작업만 만들고 바로 응답 (진행 상황은 GET 으로)
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRefundResponse> bulkRefund(@RequestBody BulkRefundRequest req) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkRefundUseCase.start(req));
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    public BulkRefundResponse bulkRefundStatus(@PathVariable Long jobId) {
+        return bulkRefundUseCase.get(jobId);
+    }
+
+    // 재시도 가능한 실패 항목(PG 장애 등)만 다시 실행
+    @PostMapping("/bulk/{jobId}/resume")
+    public ResponseEntity<BulkRefundResponse> resumeBulkRefund(@PathVariable Long jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkRefundUseCase.resume(jobId));
+    }
 }
@@ -0,0 +1,55 @@
+package com.tbc.payments.adapter.in.web;
+
+import com.tbc.payments.adapter.in.web.dto.WalletStatementResponse;
+import com.tbc.payments.application.port.in.WalletStatementUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/wallets/{userId}/statement")
+@RequiredArgsConstructor
+public class WalletStatementController {
+
+    private final WalletStatementUseCase walletStatementUseCase;
+    private final LedgerExportWriter exportWriter;
+
+    // 최신순 페이지. 응답의 nextCursor 를 cursor 로 넘기면 다음 페이지
+    @GetMapping
+    public WalletStatementResponse page(@PathVariable Long userId,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size) {
+        return walletStatementUseCase.page(userId, from, to, cursor, size);
+    }
+
+    // 전체 내역 파일 (시간순). 응답을 쓰면서 DB 에서 읽으므로 기간이 길어도 메모리 사용량 일정
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long userId,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(defaultValue = "CSV") LedgerExportWriter.Format format) {
+        StreamingResponseBody body = os -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            exportWriter.header(format, out);
+            walletStatementUseCase.export(userId, from, to, e -> exportWriter.write(format, e, out));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"wallet-" + userId + "-statement." + format.extension + "\"")
+                .body(body);
+    }
+}
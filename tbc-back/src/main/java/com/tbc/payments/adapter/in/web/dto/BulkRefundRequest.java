@@ -0,0 +1,10 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import java.util.List;
+
+/** meetupId 또는 orderIds 중 하나 (둘 다 있으면 meetupId 우선) */
+public record BulkRefundRequest(
+        Long meetupId,
+        List<String> orderIds,
+        String reason
+) {}
@@ -0,0 +1,17 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import java.util.List;
+
+public record BulkRefundResponse(
+        Long jobId,
+        Long meetupId,
+        String status,           // RUNNING / COMPLETED / COMPLETED_WITH_FAILURES
+        int total,
+        int succeeded,
+        int failed,
+        int pending,
+        List<Item> items         // 주문별 결과
+) {
+    public record Item(String orderId, String status, Long amount, int attempts,
+                       boolean retryable, String failureCode, String failureMsg) {}
+}
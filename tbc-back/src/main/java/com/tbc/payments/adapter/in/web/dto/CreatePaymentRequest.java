@@ -1,8 +1,24 @@
 package com.tbc.payments.adapter.in.web.dto;
 
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
 public record CreatePaymentRequest(
+        @NotNull(message = "userId 는 필수입니다")
+        @Positive(message = "userId 가 올바르지 않습니다")
         Long userId,
+
+        // 없으면 서버 발급 (payments.order-id.server-issued). Toss 규칙: 6~64자, 영문/숫자/-/_
+        @Size(min = 6, max = 64, message = "orderId 는 6~64자여야 합니다")
+        @Pattern(regexp = "^[A-Za-z0-9_-]*$", message = "orderId 는 영문, 숫자, -, _ 만 쓸 수 있습니다")
         String orderId,
+
+        @NotNull(message = "결제 금액은 필수입니다")
+        @Positive(message = "결제 금액은 1 이상이어야 합니다")
         Long amount,
+
+        @Size(max = 100, message = "orderName 은 100자 이하여야 합니다")
         String orderName
 ) {}
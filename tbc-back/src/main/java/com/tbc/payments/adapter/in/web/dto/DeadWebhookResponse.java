@@ -0,0 +1,12 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import java.time.LocalDateTime;
+
+public record DeadWebhookResponse(
+        String eventId,
+        String eventType,
+        int attemptCount,
+        String lastError,
+        LocalDateTime receivedAt,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,26 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import com.tbc.payments.domain.wallet.PlatformWalletSummary;
+
+import java.util.List;
+
+public record ReconcileReport(
+        long scanned,            // 점검한 지갑 수 (플랫폼 샤드 포함)
+        long mismatched,         // 불일치 지갑 수 (플랫폼은 1개로 집계)
+        long fixed,              // 보정한 지갑 수 (fix 모드)
+        boolean truncated,       // mismatches 목록이 상한에서 잘렸는지
+        List<Mismatch> mismatches,
+        PlatformWalletSummary platform
+) {
+    public record Mismatch(Long walletId, Long userId, long stored, long expected) {
+        public long diff() {
+            return expected - stored;
+        }
+    }
+
+    public String summary() {
+        return "scanned=" + scanned + " mismatched=" + mismatched + " fixed=" + fixed
+                + " platform=" + (platform.consistent() ? "OK" : "MISMATCH(balance=" + platform.balance()
+                + ", ledgerSum=" + platform.ledgerSum() + ")");
+    }
+}
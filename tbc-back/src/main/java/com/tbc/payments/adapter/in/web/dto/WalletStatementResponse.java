@@ -0,0 +1,12 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import com.tbc.payments.domain.wallet.LedgerEntryView;
+
+import java.util.List;
+
+public record WalletStatementResponse(
+        Long userId,
+        Long walletId,
+        List<LedgerEntryView> entries,   // 최신순
+        String nextCursor                // 다음 페이지 요청에 그대로 전달. 마지막 페이지면 null
+) {}
@@ -0,0 +1,8 @@
+package com.tbc.payments.adapter.in.web.dto;
+
+import java.util.List;
+
+public record WebhookRequeueRequest(
+        List<String> eventIds,   // 지정한 DEAD 이벤트만
+        String eventType         // eventIds 가 없으면 이 타입의 DEAD 전체
+) {}
@@ -1,10 +1,15 @@
 package com.tbc.payments.adapter.in.webhook;
 
+import com.tbc.payments.adapter.in.web.dto.DeadWebhookResponse;
+import com.tbc.payments.adapter.in.web.dto.WebhookRequeueRequest;
 import com.tbc.payments.application.service.WebhookRetryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/admin/webhooks")
@@ -12,9 +17,25 @@ public class WebhookAdminController {
 
     private final WebhookRetryService retryService;
 
+    // 재시도 시각이 된 실패 이벤트를 지금 처리 (스케줄러를 기다리지 않음)
     @PostMapping("/retry")
     public ResponseEntity<String> retryFailed() {
         String result = retryService.retryFailedEvents();
         return ResponseEntity.ok(result);
     }
+
+    // 최대 시도 횟수를 넘겨 멈춘 이벤트 (최근 순)
+    @GetMapping("/dead")
+    public List<DeadWebhookResponse> dead(@RequestParam(defaultValue = "100") int limit) {
+        return retryService.findDead(limit).stream()
+                .map(e -> new DeadWebhookResponse(e.getEventId(), e.getEventType(), e.getAttemptCount(),
+                        e.getLastError(), e.getReceivedAt(), e.getUpdatedAt()))
+                .toList();
+    }
+
+    // 원인 해결 후 골라서 다시 재시도 대상으로
+    @PostMapping("/dead/requeue")
+    public ResponseEntity<Map<String, Object>> requeue(@RequestBody WebhookRequeueRequest req) {
+        return ResponseEntity.ok(Map.of("requeued", retryService.requeueDead(req)));
+    }
 }
@@ -0,0 +1,94 @@
+package com.tbc.payments.adapter.in.webhook;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * PG 웹훅(POST /payments/webhook) 인증 + 속도 제한. 저장(ingest) 전에 걸러서 위조 이벤트가 테이블/PG 조회를 채우지 못하게 한다.
+ * 공유 비밀(X-Webhook-Secret) 이 맞거나 발신 IP 가 허용 목록에 있으면 ROLE_PG_WEBHOOK 으로 인증한다.
+ * 둘 다 설정하지 않으면 모두 거절 (SecurityConfig 가 이 역할만 통과시킨다). 인증된 요청도 초당 한도를 넘으면 429.
+ */
+@Slf4j
+@Component
+public class WebhookAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SECRET_HEADER = "X-Webhook-Secret";
+    public static final String ROLE = "PG_WEBHOOK";
+    private static final String PATH = "/payments/webhook";
+
+    private final byte[] secret;
+    private final Set<String> allowedIps;
+    private final int ratePerSecond;
+
+    // 토큰 버킷 (버스트 = 초당 한도)
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    public WebhookAuthenticationFilter(@Value("${payments.webhook.auth.secret:}") String secret,
+                                       @Value("${payments.webhook.auth.allowed-ips:}") List<String> allowedIps,
+                                       @Value("${payments.webhook.auth.rate-limit-per-second:100}") int ratePerSecond) {
+        this.secret = secret.isBlank() ? null : secret.getBytes(StandardCharsets.UTF_8);
+        this.allowedIps = allowedIps.stream().map(String::trim).filter(ip -> !ip.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.ratePerSecond = Math.max(1, ratePerSecond);
+        this.tokens = this.ratePerSecond;
+        if (this.secret == null && this.allowedIps.isEmpty()) {
+            log.warn("[WH-AUTH] payments.webhook.auth.secret / allowed-ips not set, all webhooks will be rejected");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod()) || !PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!authenticated(request)) {
+            // 인증 없이 넘기면 SecurityConfig 가 401
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!tryAcquire()) {
+            response.sendError(429, "Too Many Requests");
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "pg-webhook", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))));
+        chain.doFilter(request, response);
+    }
+
+    private boolean authenticated(HttpServletRequest request) {
+        if (allowedIps.contains(request.getRemoteAddr())) return true;
+        String header = request.getHeader(SECRET_HEADER);
+        // 내용에 따라 비교 시간이 달라지지 않게
+        return secret != null && header != null
+                && MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(ratePerSecond, tokens + (now - refilledAt) * ratePerSecond / 1e9);
+        refilledAt = now;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+}
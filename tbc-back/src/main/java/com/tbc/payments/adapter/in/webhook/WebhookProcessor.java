@@ -1,41 +1,52 @@
 package com.tbc.payments.adapter.in.webhook;
 
-import com.tbc.payments.domain.webhook.WebhookEvent;
-import com.tbc.payments.domain.webhook.WebhookStatus;
-import com.tbc.payments.application.port.out.WebhookEventPersistencePort;
 import com.tbc.payments.application.service.PaymentWebhookService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * 안전망 폴링: 디스패치 큐가 버렸거나 재기동으로 잃어버린 PENDING 처리.
+ * 인스턴스마다 돌지만 SKIP LOCKED + lease 로 서로 다른 이벤트를 선점하고, 이벤트마다 짧은 트랜잭션으로 처리한다.
+ * 처리 도중 죽은 인스턴스의 선점은 lease 가 지나면 다른 인스턴스가 회수한다.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class WebhookProcessor {
 
-    private final WebhookEventPersistencePort eventRepo;
     private final PaymentWebhookService webhookService;
+    private final Duration pollGrace;
+    private final int batchSize;
 
+    public WebhookProcessor(PaymentWebhookService webhookService,
+                            @Value("${payments.webhook.dispatch.poll-grace:PT30S}") Duration pollGrace,
+                            @Value("${payments.webhook.claim.batch-size:100}") int batchSize) {
+        this.webhookService = webhookService;
+        this.pollGrace = pollGrace;
+        this.batchSize = batchSize;
+    }
+
+    // 최근 건은 디스패치 큐가 처리 중이므로 grace 이후만
     @Scheduled(fixedDelay = 2000) // 2초마다 미처리 이벤트 처리
-    @Transactional
     public void pollAndProcess() {
-        var toProcess = eventRepo.findTop100ByStatusOrderByReceivedAtAsc(WebhookStatus.PENDING);
-        for (WebhookEvent e : toProcess) {
+        List<String> claimed = webhookService.claimBatch(LocalDateTime.now().minus(pollGrace), batchSize);
+        for (String eventId : claimed) {
             try {
-                webhookService.process(e);
-                e.setStatus(WebhookStatus.SUCCESS);
-                e.setProcessedAt(LocalDateTime.now());
-                e.setLastError(null);
+                webhookService.claimAndProcess(eventId, null);
             } catch (Exception ex) {
-                log.error("[WH] process failed eventId={}", e.getEventId(), ex);
-                e.setStatus(WebhookStatus.FAILED);
-                e.setLastError(safeMessage(ex));
+                log.error("[WH] process failed eventId={}", eventId, ex);
+                try {
+                    webhookService.markFailed(eventId, safeMessage(ex));
+                } catch (RuntimeException markEx) {
+                    // 선점 lease 가 끝나면 다시 처리된다
+                    log.warn("[WH] markFailed failed eventId={}: {}", eventId, markEx.toString());
+                }
             }
-            eventRepo.save(e);
         }
     }
 
@@ -43,4 +54,4 @@ public class WebhookProcessor {
         String m = t.getMessage();
         return (m == null || m.isBlank()) ? t.getClass().getSimpleName() : (m.length() > 900 ? m.substring(0, 900) : m);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.tbc.payments.adapter.out.client;
+
+import com.tbc.payments.adapter.out.client.dto.TossCancelReq;
+import com.tbc.payments.adapter.out.client.dto.TossConfirmReq;
+import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
+import com.tbc.payments.application.exception.TossClientException;
+import com.tbc.payments.application.port.out.TossClientPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * TossClientAdapter 앞단 보호막.
+ * - 벌크헤드: 동시에 Toss 를 기다리는 스레드를 maxConcurrent 로 제한
+ * - 서킷 브레이커: PG 장애(응답 없음/5xx/느린 응답)가 누적되면 일정 시간 즉시 실패
+ * - 재시도 예산: Idempotency-Key 가 붙은 호출만, 전체 호출량 대비 비율 안에서 재시도
+ * 응답 대기 시간은 API 별 RestClient(TossClientConfig)에서 제한한다.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientTossClient implements TossClientPort {
+
+    private final TossClientAdapter delegate;
+    private final TossClientProperties props;
+    private final MeterRegistry meterRegistry;
+
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitNanos;
+    private final TossCircuitBreaker circuitBreaker;
+    private final long slowCallNanos;
+
+    private final double budgetRatio;
+    private final double budgetCap;
+    private double retryTokens;
+
+    private final Counter retries;
+    private final Counter retryBudgetExhausted;
+
+    public ResilientTossClient(TossClientAdapter delegate, TossClientProperties props, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+
+        this.bulkhead = new Semaphore(Math.max(1, props.getBulkhead().getMaxConcurrent()));
+        this.bulkheadWaitNanos = props.getBulkhead().getMaxWait().toNanos();
+        this.circuitBreaker = new TossCircuitBreaker(props.getCircuitBreaker());
+        this.slowCallNanos = props.getCircuitBreaker().getSlowCallThreshold().toNanos();
+
+        this.budgetRatio = props.getRetry().getBudgetRatio();
+        this.budgetCap = Math.max(0, props.getRetry().getBudgetCap());
+        this.retryTokens = budgetCap;
+
+        this.retries = Counter.builder("payments.toss.retries")
+                .description("Toss 호출 재시도 수").register(meterRegistry);
+        this.retryBudgetExhausted = Counter.builder("payments.toss.retry_budget_exhausted")
+                .description("예산 부족으로 포기한 재시도 수").register(meterRegistry);
+        Gauge.builder("payments.toss.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("0=CLOSED, 1=OPEN, 2=HALF_OPEN").register(meterRegistry);
+        Gauge.builder("payments.toss.circuit.failure_rate", circuitBreaker, TossCircuitBreaker::failureRatePercent)
+                .description("슬라이딩 윈도우 실패율(%)").register(meterRegistry);
+        Gauge.builder("payments.toss.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("남은 동시 호출 자리").register(meterRegistry);
+        Gauge.builder("payments.toss.retry_budget.tokens", this, ResilientTossClient::retryTokens)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TossPaymentRes confirm(TossConfirmReq req) {
+        return execute("confirm", () -> delegate.confirm(req));
+    }
+
+    @Override
+    public TossPaymentRes cancel(String paymentKey, TossCancelReq req) {
+        return execute("cancel", () -> delegate.cancel(paymentKey, req));
+    }
+
+    @Override
+    public TossPaymentRes getPayment(String paymentKey) {
+        return execute("lookup", () -> delegate.getPayment(paymentKey));
+    }
+
+    /**
+     * 한 번이라도 PG 에 요청을 보냈으면 그 뒤 재시도가 서킷/인터럽트로 막혀도 마지막 실제 실패를 던진다.
+     * notAttempted 는 "보내지 않았음(결과 확정)" 이라 호출 측이 주문을 되돌리므로, 보낸 요청을 그렇게 보고하면 안 된다.
+     */
+    private TossPaymentRes execute(String op, Supplier<TossPaymentRes> call) {
+        acquireBulkhead(op);
+        try {
+            depositRetryToken();
+            int maxAttempts = Math.max(1, props.getRetry().getMaxAttempts());
+            TossClientException lastSent = null;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return attempt(op, call);
+                } catch (TossClientException e) {
+                    if (e.isNotAttempted()) {
+                        if (lastSent == null) throw e;
+                        lastSent.addSuppressed(e);
+                        throw lastSent;
+                    }
+                    lastSent = e;
+                    if (!e.isPgFailure() || attempt >= maxAttempts) throw e;
+                    if (!withdrawRetryToken()) {
+                        retryBudgetExhausted.increment();
+                        throw e;
+                    }
+                    retries.increment();
+                    log.info("[TOSS] retry op={} attempt={} cause={}", op, attempt + 1, e.getMessage());
+                    if (!sleep(props.getRetry().getBackoff().toMillis() * attempt)) throw e;
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private TossPaymentRes attempt(String op, Supplier<TossPaymentRes> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            record(op, "short_circuited", 0);
+            throw TossClientException.notAttempted("TOSS_CIRCUIT_OPEN");
+        }
+        long start = System.nanoTime();
+        boolean recorded = false;
+        try {
+            TossPaymentRes res = call.get();
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onResult(elapsed > slowCallNanos);
+            recorded = true;
+            record(op, "success", elapsed);
+            return res;
+        } catch (TossClientException e) {
+            circuitBreaker.onResult(e.isPgFailure());
+            recorded = true;
+            record(op, e.isRejected() ? "rejected" : "pg_failure", System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onResult(true);
+            recorded = true;
+            record(op, "pg_failure", System.nanoTime() - start);
+            throw new TossClientException("TOSS_CALL_FAILED (" + op + ")", e);
+        } finally {
+            // Error 등으로 결과를 못 남기면 HALF_OPEN 시험 자리를 돌려준다 (안 돌려주면 HALF_OPEN 에 갇힘)
+            if (!recorded) circuitBreaker.release();
+        }
+    }
+
+    private void acquireBulkhead(String op) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            record(op, "bulkhead_full", 0);
+            throw TossClientException.notAttempted("TOSS_BULKHEAD_FULL");
+        }
+    }
+
+    private void record(String op, String outcome, long nanos) {
+        Timer.builder("payments.toss.calls")
+                .description("Toss API 호출 결과/소요 시간")
+                .tag("op", op)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void depositRetryToken() {
+        retryTokens = Math.min(budgetCap, retryTokens + budgetRatio);
+    }
+
+    private synchronized boolean withdrawRetryToken() {
+        if (retryTokens < 1.0) return false;
+        retryTokens -= 1.0;
+        return true;
+    }
+
+    synchronized double retryTokens() {
+        return retryTokens;
+    }
+
+    /** 인터럽트되면 false (인터럽트 플래그는 되살린다) */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** actuator tossclient 엔드포인트용 현재 상태 */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> circuit = new LinkedHashMap<>();
+        circuit.put("state", circuitBreaker.state().name());
+        circuit.put("failureRatePercent", circuitBreaker.failureRatePercent());
+        circuit.put("recordedCalls", circuitBreaker.recordedCalls());
+
+        Map<String, Object> bulkheadState = new LinkedHashMap<>();
+        bulkheadState.put("maxConcurrent", props.getBulkhead().getMaxConcurrent());
+        bulkheadState.put("available", bulkhead.availablePermits());
+        bulkheadState.put("waiting", bulkhead.getQueueLength());
+
+        Map<String, Object> retry = new LinkedHashMap<>();
+        retry.put("tokens", retryTokens());
+        retry.put("retries", retries.count());
+        retry.put("budgetExhausted", retryBudgetExhausted.count());
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("circuitBreaker", circuit);
+        out.put("bulkhead", bulkheadState);
+        out.put("retryBudget", retry);
+        return out;
+    }
+}
@@ -0,0 +1,109 @@
+package com.tbc.payments.adapter.out.client;
+
+/**
+ * 호출 횟수 기반 슬라이딩 윈도우 서킷 브레이커.
+ * CLOSED: 최근 windowSize 건 중 실패율이 임계치 이상이면 OPEN.
+ * OPEN: openDuration 동안 즉시 실패. 지나면 HALF_OPEN.
+ * HALF_OPEN: halfOpenCalls 건만 통과시켜 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN.
+ */
+class TossCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window;      // true = 실패
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int head;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int halfOpenIssued;
+    private int halfOpenSucceeded;
+
+    TossCircuitBreaker(TossClientProperties.CircuitBreaker props) {
+        this.window = new boolean[Math.max(1, props.getWindowSize())];
+        this.minimumCalls = Math.max(1, props.getMinimumCalls());
+        this.failureRateThreshold = props.getFailureRateThreshold();
+        this.openNanos = props.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, props.getHalfOpenCalls());
+    }
+
+    /** 호출해도 되는지 (HALF_OPEN 이면 시험 호출 자리를 하나 가져간다) */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            halfOpenIssued = 0;
+            halfOpenSucceeded = 0;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenIssued >= halfOpenCalls) yield false;
+                halfOpenIssued++;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onResult(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        if (state == State.OPEN) return;
+
+        if (recorded == window.length) {
+            if (window[head]) failures--;
+        } else {
+            recorded++;
+        }
+        window[head] = failed;
+        if (failed) failures++;
+        head = (head + 1) % window.length;
+
+        if (recorded >= minimumCalls && failureRatePercent() >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /** 결과 없이 끝난 시험 호출 자리 반환 (호출이 Error 로 끝나 onResult 를 못 부른 경우) */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenIssued > 0) halfOpenIssued--;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        head = 0;
+        recorded = 0;
+        failures = 0;
+        java.util.Arrays.fill(window, false);
+    }
+
+    synchronized State state() {
+        // OPEN 시간이 지났으면 조회 시점에도 HALF_OPEN 으로 보이게
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) return State.HALF_OPEN;
+        return state;
+    }
+
+    synchronized double failureRatePercent() {
+        return recorded == 0 ? 0.0 : failures * 100.0 / recorded;
+    }
+
+    synchronized int recordedCalls() {
+        return recorded;
+    }
+}
@@ -3,52 +3,84 @@ package com.tbc.payments.adapter.out.client;
 import com.tbc.payments.adapter.out.client.dto.TossCancelReq;
 import com.tbc.payments.adapter.out.client.dto.TossConfirmReq;
 import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
+import com.tbc.payments.application.exception.TossClientException;
 import com.tbc.payments.application.port.out.TossClientPort;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
 
 @Component
-@RequiredArgsConstructor
 public class TossClientAdapter implements TossClientPort {
 
-    private final RestClient tossRestClient;
+    private final RestClient confirmClient;
+    private final RestClient cancelClient;
+    private final RestClient lookupClient;
 
+    public TossClientAdapter(@Qualifier("tossConfirmRestClient") RestClient confirmClient,
+                             @Qualifier("tossCancelRestClient") RestClient cancelClient,
+                             @Qualifier("tossLookupRestClient") RestClient lookupClient) {
+        this.confirmClient = confirmClient;
+        this.cancelClient = cancelClient;
+        this.lookupClient = lookupClient;
+    }
+
+    // Idempotency-Key: 타임아웃 후 재시도해도 PG 가 같은 요청으로 처리 (이중 승인/취소 방지)
     @Override
     public TossPaymentRes confirm(TossConfirmReq req) {
-        return tossRestClient.post()
+        return call("TOSS_CONFIRM_FAILED", () -> confirmClient.post()
                 .uri("/v1/payments/confirm")
+                .header("Idempotency-Key", "confirm-" + req.orderId())
                 .body(req)
                 .retrieve()
-                .onStatus(HttpStatusCode::isError, (reqSpec, resp) -> {
-                    try (var reader = new BufferedReader(new InputStreamReader(resp.getBody(), StandardCharsets.UTF_8))) {
-                        String body = reader.lines().collect(java.util.stream.Collectors.joining("\n"));
-                        throw new IllegalStateException("TOSS_CONFIRM_FAILED: " + body);
-                    } catch (IOException e) {
-                        throw new IllegalStateException("TOSS_CONFIRM_FAILED (no body)", e);
-                    }
-                })
-                .body(TossPaymentRes.class);
+                .onStatus(HttpStatusCode::isError, (reqSpec, resp) -> fail("TOSS_CONFIRM_FAILED", resp))
+                .body(TossPaymentRes.class));
     }
 
     @Override
     public TossPaymentRes cancel(String paymentKey, TossCancelReq req) {
-        return tossRestClient.post()
+        return call("TOSS_REFUND_FAILED", () -> cancelClient.post()
                 .uri("/v1/payments/" + paymentKey + "/cancel")
+                .header("Idempotency-Key", "cancel-" + paymentKey + "-" + req.cancelAmount() + "-" + Integer.toHexString(String.valueOf(req.cancelReason()).hashCode()))
                 .body(req)
                 .retrieve()
-                .onStatus(HttpStatusCode::isError, (reqSpec, resp) -> {
-                    try (var reader = new BufferedReader(new InputStreamReader(resp.getBody(), StandardCharsets.UTF_8))) {
-                        String body = reader.lines().collect(java.util.stream.Collectors.joining("\n"));
-                        throw new IllegalStateException("TOSS_REFUND_FAILED: " + body);
-                    }
-                })
-                .body(TossPaymentRes.class);
+                .onStatus(HttpStatusCode::isError, (reqSpec, resp) -> fail("TOSS_REFUND_FAILED", resp))
+                .body(TossPaymentRes.class));
+    }
+
+    @Override
+    public TossPaymentRes getPayment(String paymentKey) {
+        return call("TOSS_LOOKUP_FAILED", () -> lookupClient.get()
+                .uri("/v1/payments/" + paymentKey)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, (reqSpec, resp) -> fail("TOSS_LOOKUP_FAILED", resp))
+                .body(TossPaymentRes.class));
+    }
+
+    // 응답을 못 받은 경우(연결/타임아웃)도 상태코드 0 으로 통일
+    private TossPaymentRes call(String code, Supplier<TossPaymentRes> request) {
+        try {
+            return request.get();
+        } catch (ResourceAccessException e) {
+            throw new TossClientException(code + " (no response)", e);
+        }
+    }
+
+    private void fail(String code, ClientHttpResponse resp) throws IOException {
+        int status = resp.getStatusCode().value();
+        try (var reader = new BufferedReader(new InputStreamReader(resp.getBody(), StandardCharsets.UTF_8))) {
+            String body = reader.lines().collect(java.util.stream.Collectors.joining("\n"));
+            throw new TossClientException(code + ": " + body, status);
+        } catch (IOException e) {
+            throw new TossClientException(code + " (no body)", status);
+        }
     }
-}
\ No newline at end of file
+}
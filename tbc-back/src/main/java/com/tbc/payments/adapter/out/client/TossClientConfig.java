@@ -4,9 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 
 @Configuration
@@ -18,12 +21,33 @@ public class TossClientConfig {
     @Value("${toss.secret-key}")
     String secretKey;
 
+    // API 별로 응답 대기 시간이 달라서 RestClient 를 나눈다 (연결 타임아웃은 공통)
     @Bean
-    RestClient tossRestClient() {
+    RestClient tossConfirmRestClient(TossClientProperties props) {
+        return build(props.getConnectTimeout(), props.getConfirmReadTimeout());
+    }
+
+    @Bean
+    RestClient tossCancelRestClient(TossClientProperties props) {
+        return build(props.getConnectTimeout(), props.getCancelReadTimeout());
+    }
+
+    @Bean
+    RestClient tossLookupRestClient(TossClientProperties props) {
+        return build(props.getConnectTimeout(), props.getLookupReadTimeout());
+    }
+
+    private RestClient build(Duration connectTimeout, Duration readTimeout) {
         String basic = Base64.getEncoder()
                 .encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
         return RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + basic)
                 .build();
     }
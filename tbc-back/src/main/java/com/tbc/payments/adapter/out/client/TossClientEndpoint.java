@@ -0,0 +1,22 @@
+package com.tbc.payments.adapter.out.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** GET /actuator/tossclient : 서킷/벌크헤드/재시도 예산 상태 */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "tossclient")
+public class TossClientEndpoint {
+
+    private final ResilientTossClient tossClient;
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return tossClient.snapshot();
+    }
+}
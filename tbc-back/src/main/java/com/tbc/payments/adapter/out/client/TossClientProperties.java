@@ -0,0 +1,66 @@
+package com.tbc.payments.adapter.out.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "toss.client")
+public class TossClientProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * API 별 응답 대기 시간 (승인/취소는 PG 처리 시간이 길 수 있어 조회보다 넉넉하게)
+     */
+    private Duration confirmReadTimeout = Duration.ofSeconds(10);
+    private Duration cancelReadTimeout = Duration.ofSeconds(10);
+    private Duration lookupReadTimeout = Duration.ofSeconds(3);
+
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Retry retry = new Retry();
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        /** Toss 호출에 동시에 쓸 수 있는 최대 스레드 수 */
+        private int maxConcurrent = 20;
+        /** 자리가 없을 때 기다리는 시간 (0 이면 즉시 실패) */
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        /** 최근 N 건의 호출 결과로 실패율 계산 */
+        private int windowSize = 50;
+        /** 이보다 적게 호출됐으면 판단 보류 */
+        private int minimumCalls = 20;
+        /** 실패율(%)이 이 이상이면 OPEN */
+        private int failureRateThreshold = 50;
+        /** 이보다 오래 걸린 성공도 실패로 센다 (PG 지연 감지) */
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+        /** OPEN 유지 시간. 지나면 HALF_OPEN 으로 시험 호출 */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /** HALF_OPEN 에서 허용할 시험 호출 수 */
+        private int halfOpenCalls = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /** 첫 호출 포함 최대 시도 횟수 */
+        private int maxAttempts = 2;
+        private Duration backoff = Duration.ofMillis(200);
+        /** 재시도 예산: 일반 호출 1건당 적립되는 토큰 (0.1 → 재시도는 호출량의 10% 이내) */
+        private double budgetRatio = 0.1;
+        /** 적립 토큰 상한 (장애 순간 몰아 쓸 수 있는 재시도 수) */
+        private int budgetCap = 10;
+    }
+}
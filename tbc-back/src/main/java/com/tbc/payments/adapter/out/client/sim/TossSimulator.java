@@ -0,0 +1,369 @@
+package com.tbc.payments.adapter.out.client.sim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 인프로세스 Toss Payments 대역 (JDK HttpServer).
+ * - POST /v1/payments/confirm, POST /v1/payments/{paymentKey}/cancel, GET /v1/payments/{paymentKey}
+ * - 로그정규분포 지연 + 오류/거절/타임아웃/응답 유실 주입
+ * - 처리 결과를 PAYMENT_STATUS_CHANGED 웹훅으로 되돌려 보냄 (중복/순서 뒤바뀜 포함)
+ * - Idempotency-Key 가 같은 요청은 처리된 응답을 그대로 돌려준다
+ * <p>
+ * toss-sim 프로필에서는 TossSimulatorConfig 가 띄우고, 테스트에서는 직접 생성해 start() 후 baseUrl() 을 toss.base-url 로 넘기면 된다.
+ */
+@Slf4j
+public class TossSimulator {
+
+    private static final String EVENT_TYPE = "PAYMENT_STATUS_CHANGED";
+    private static final double Z_99 = 2.326; // 표준정규 99 분위
+
+    private final TossSimulatorProperties props;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, SimPayment> payments = new ConcurrentHashMap<>();
+    private final Map<String, Reply> idempotentReplies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final AtomicLong eventSeq = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService webhookScheduler;
+    private HttpClient webhookClient;
+
+    public TossSimulator(TossSimulatorProperties props, ObjectMapper objectMapper) {
+        this.props = props;
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) return;
+        workers = props.getWorkerThreads() > 0
+                ? Executors.newFixedThreadPool(props.getWorkerThreads())
+                : Executors.newVirtualThreadPerTaskExecutor();
+        webhookScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "toss-sim-webhook");
+            t.setDaemon(true);
+            return t;
+        });
+        webhookClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", props.getPort()), 0);
+        server.createContext("/v1/payments", this::handle);
+        server.setExecutor(workers);
+        server.start();
+        log.info("[TOSS-SIM] listening on {} (webhook → {})", baseUrl(),
+                props.getWebhook().isEnabled() ? props.getWebhook().getUrl() : "off");
+    }
+
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        webhookScheduler.shutdownNow();
+        workers.shutdownNow();
+        server = null;
+        log.info("[TOSS-SIM] stopped {}", stats());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    /** 시나리오 사이에 결제/멱등 응답/카운터 초기화 */
+    public void reset() {
+        payments.clear();
+        idempotentReplies.clear();
+        counters.clear();
+    }
+
+    /** 응답/웹훅 종류별 누적 건수 (confirm.ok, confirm.error, webhook.sent, webhook.duplicate ...) */
+    public Map<String, Long> stats() {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    // ===== HTTP =====
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            String method = ex.getRequestMethod();
+            Reply reply;
+            if ("POST".equals(method) && path.equals("/v1/payments/confirm")) {
+                reply = idempotent(ex, "confirm", () -> confirm(readBody(ex)));
+            } else if ("POST".equals(method) && path.endsWith("/cancel")) {
+                String paymentKey = path.substring("/v1/payments/".length(), path.length() - "/cancel".length());
+                reply = idempotent(ex, "cancel", () -> cancel(paymentKey, readBody(ex)));
+            } else if ("GET".equals(method)) {
+                reply = faulted("lookup", false, () -> lookup(path.substring("/v1/payments/".length())));
+            } else {
+                reply = error(404, "NOT_FOUND", "unknown path " + path);
+            }
+            respond(ex, reply);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("[TOSS-SIM] handler failed", e);
+        } finally {
+            ex.close();
+        }
+    }
+
+    /**
+     * 같은 Idempotency-Key 는 처리된 응답을 재사용 (처리 안 된 500/타임아웃은 저장하지 않아 재시도 가능).
+     * computeIfAbsent 로 같은 키의 동시 요청은 한 번만 처리된다.
+     */
+    private Reply idempotent(HttpExchange ex, String op, Supplier<Reply> body) {
+        String key = ex.getRequestHeaders().getFirst("Idempotency-Key");
+        if (key == null) {
+            return faulted(op, true, body);
+        }
+        Reply[] fresh = new Reply[1];
+        Reply cached = idempotentReplies.computeIfAbsent(op + ":" + key, k -> {
+            fresh[0] = faulted(op, true, body);
+            return fresh[0].processed() ? fresh[0].delivered() : null;
+        });
+        if (fresh[0] == null) {
+            count(op + ".idempotent_replay");
+            return cached;
+        }
+        return fresh[0];
+    }
+
+    /** 장애 주입: 실패 시 처리하지 않음 / 응답 유실 시 처리는 하고 응답만 늦춘다 */
+    private Reply faulted(String op, boolean mutating, Supplier<Reply> body) {
+        TossSimulatorProperties.Failure f = props.getFailure();
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if ((roll -= f.getErrorRate()) < 0) {
+            count(op + ".error");
+            return error(500, "FAILED_INTERNAL_SYSTEM_PROCESSING", "simulated internal error");
+        }
+        if ((roll -= f.getTimeoutRate()) < 0) {
+            count(op + ".timeout");
+            return error(500, "FAILED_INTERNAL_SYSTEM_PROCESSING", "simulated timeout").hung();
+        }
+        if (op.equals("confirm") && (roll -= f.getRejectRate()) < 0) {
+            count(op + ".rejected");
+            return error(400, "REJECT_CARD_PAYMENT", "simulated card rejection").asProcessed();
+        }
+        Reply reply = body.get();
+        count(op + (reply.status() < 400 ? ".ok" : ".client_error"));
+        if (mutating && reply.processed() && (roll -= f.getLostResponseRate()) < 0) {
+            count(op + ".lost_response");
+            return reply.hung();
+        }
+        return reply;
+    }
+
+    private void respond(HttpExchange ex, Reply reply) throws IOException, InterruptedException {
+        Thread.sleep(reply.hang() ? props.getFailure().getHang().toMillis() : sampleLatencyMillis());
+        byte[] bytes = reply.body().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(reply.status(), bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        } catch (IOException e) {
+            // 클라이언트가 이미 타임아웃으로 끊은 경우
+            log.debug("[TOSS-SIM] client gone: {}", e.getMessage());
+        }
+    }
+
+    /** 로그정규분포: median = e^mu, p99 = e^(mu + 2.326 sigma) */
+    private long sampleLatencyMillis() {
+        TossSimulatorProperties.Latency l = props.getLatency();
+        double median = Math.max(1, l.getMedian().toMillis());
+        double p99 = Math.max(median, l.getP99().toMillis());
+        double sigma = Math.log(p99 / median) / Z_99;
+        double ms = median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return (long) Math.min(ms, l.getMax().toMillis());
+    }
+
+    // ===== Toss API =====
+
+    private Reply confirm(JsonNode req) {
+        String paymentKey = text(req, "paymentKey");
+        String orderId = text(req, "orderId");
+        long amount = req.path("amount").asLong(-1);
+        if (paymentKey == null || orderId == null || amount <= 0) {
+            return error(400, "INVALID_REQUEST", "paymentKey/orderId/amount required");
+        }
+        SimPayment created = new SimPayment(paymentKey, orderId, amount, amount, "DONE");
+        SimPayment existing = payments.putIfAbsent(paymentKey, created);
+        if (existing != null) {
+            return error(400, "ALREADY_PROCESSED_PAYMENT", "already processed: " + paymentKey);
+        }
+        scheduleWebhook(created);
+        return ok(created);
+    }
+
+    private Reply cancel(String paymentKey, JsonNode req) {
+        JsonNode amountNode = req.get("cancelAmount");
+        Reply[] result = new Reply[1];
+        SimPayment after = payments.computeIfPresent(paymentKey, (k, p) -> {
+            if (p.balanceAmount() == 0) {
+                result[0] = error(400, "ALREADY_CANCELED_PAYMENT", "already canceled: " + k);
+                return p;
+            }
+            long cancelAmount = (amountNode == null || amountNode.isNull()) ? p.balanceAmount() : amountNode.asLong();
+            if (cancelAmount <= 0 || cancelAmount > p.balanceAmount()) {
+                result[0] = error(400, "NOT_CANCELABLE_AMOUNT", "cancelable=" + p.balanceAmount());
+                return p;
+            }
+            long balance = p.balanceAmount() - cancelAmount;
+            return new SimPayment(k, p.orderId(), p.totalAmount(), balance, balance == 0 ? "CANCELED" : "PARTIAL_CANCELED");
+        });
+        if (after == null) {
+            return error(404, "NOT_FOUND_PAYMENT", "unknown paymentKey: " + paymentKey);
+        }
+        if (result[0] != null) {
+            return result[0];
+        }
+        scheduleWebhook(after);
+        return ok(after);
+    }
+
+    private Reply lookup(String paymentKey) {
+        SimPayment p = payments.get(paymentKey);
+        return p != null ? ok(p) : error(404, "NOT_FOUND_PAYMENT", "unknown paymentKey: " + paymentKey);
+    }
+
+    // ===== Webhook =====
+
+    /** 균등 지연 → 근접 이벤트 순서 섞임, reorderRate → 크게 늦춰 다음 이벤트가 추월, duplicateRate → 같은 eventId 재전송 */
+    private void scheduleWebhook(SimPayment p) {
+        TossSimulatorProperties.Webhook w = props.getWebhook();
+        if (!w.isEnabled()) return;
+
+        ObjectNode event = objectMapper.createObjectNode();
+        event.put("eventId", "sim-evt-" + eventSeq.incrementAndGet());
+        event.put("eventType", EVENT_TYPE);
+        event.put("createdAt", OffsetDateTime.now().toString());
+        ObjectNode data = event.putObject("data");
+        data.put("paymentKey", p.paymentKey());
+        data.put("orderId", p.orderId());
+        data.put("status", p.status());
+        data.put("totalAmount", p.totalAmount());
+        data.put("balanceAmount", p.balanceAmount());
+        String body = event.toString();
+        String eventId = event.get("eventId").asText();
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long delay = randomBetween(w.getMinDelay(), w.getMaxDelay());
+        if (rnd.nextDouble() < w.getReorderRate()) {
+            delay += w.getReorderDelay().toMillis();
+            count("webhook.reordered");
+        }
+        webhookScheduler.schedule(() -> sendWebhook(eventId, body), delay, TimeUnit.MILLISECONDS);
+        if (rnd.nextDouble() < w.getDuplicateRate()) {
+            count("webhook.duplicate");
+            webhookScheduler.schedule(() -> sendWebhook(eventId, body),
+                    delay + randomBetween(w.getMinDelay(), w.getMaxDelay()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendWebhook(String eventId, String body) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(props.getWebhook().getUrl()))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .header("X-Toss-Event-Id", eventId)
+                .header("X-Toss-Event-Type", EVENT_TYPE)
+                .header("X-Webhook-Secret", props.getWebhook().getSecret())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        webhookClient.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((res, e) -> {
+                    if (e == null && res.statusCode() < 300) {
+                        count("webhook.sent");
+                    } else {
+                        count("webhook.failed");
+                        log.debug("[TOSS-SIM] webhook {} failed: {}", eventId, e != null ? e.toString() : res.statusCode());
+                    }
+                });
+    }
+
+    // ===== helpers =====
+
+    private JsonNode readBody(HttpExchange ex) {
+        try {
+            return objectMapper.readTree(ex.getRequestBody().readAllBytes());
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private Reply ok(SimPayment p) {
+        ObjectNode n = objectMapper.createObjectNode();
+        n.put("paymentKey", p.paymentKey());
+        n.put("orderId", p.orderId());
+        n.put("status", p.status());
+        n.put("totalAmount", p.totalAmount());
+        n.put("balanceAmount", p.balanceAmount());
+        n.put("method", "카드");
+        return new Reply(200, n.toString(), true, false);
+    }
+
+    private Reply error(int status, String code, String message) {
+        ObjectNode n = objectMapper.createObjectNode();
+        n.put("code", code);
+        n.put("message", message);
+        return new Reply(status, n.toString(), false, false);
+    }
+
+    private static String text(JsonNode n, String field) {
+        JsonNode x = n.get(field);
+        return (x != null && !x.isNull()) ? x.asText() : null;
+    }
+
+    private static long randomBetween(Duration min, Duration max) {
+        long lo = min.toMillis();
+        long hi = Math.max(lo, max.toMillis());
+        return lo == hi ? lo : ThreadLocalRandom.current().nextLong(lo, hi + 1);
+    }
+
+    private void count(String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    record SimPayment(String paymentKey, String orderId, long totalAmount, long balanceAmount, String status) {}
+
+    /** processed: PG 쪽 상태가 확정된 응답 (멱등 재생 대상), hang: 지연 대신 hang 만큼 붙잡는다 */
+    record Reply(int status, String body, boolean processed, boolean hang) {
+        Reply hung() {
+            return new Reply(status, body, processed, true);
+        }
+
+        Reply asProcessed() {
+            return new Reply(status, body, true, hang);
+        }
+
+        Reply delivered() {
+            return new Reply(status, body, processed, false);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tbc.payments.adapter.out.client.sim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * toss-sim 프로필: 앱 안에 Toss 시뮬레이터를 띄운다.
+ * toss.base-url 은 application-toss-sim.yml 에서 시뮬레이터 포트로 바꿔 둔다 (RestClient 는 요청 시점에 연결하므로 기동 순서 무관).
+ */
+@Configuration
+@Profile("toss-sim")
+public class TossSimulatorConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    TossSimulator tossSimulator(TossSimulatorProperties props, ObjectMapper objectMapper) {
+        return new TossSimulator(props, objectMapper);
+    }
+}
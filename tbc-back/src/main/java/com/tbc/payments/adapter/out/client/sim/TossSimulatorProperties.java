@@ -0,0 +1,68 @@
+package com.tbc.payments.adapter.out.client.sim;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * toss.sim.* : 부하/지연 테스트용 Toss 시뮬레이터 설정 (toss-sim 프로필에서만 기동)
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "toss.sim")
+public class TossSimulatorProperties {
+
+    /** 0 이면 빈 포트 자동 할당 (테스트용) */
+    private int port = 18080;
+    /** 요청 처리 스레드 수 (0 이면 요청마다 가상 스레드) */
+    private int workerThreads = 0;
+
+    private Latency latency = new Latency();
+    private Failure failure = new Failure();
+    private Webhook webhook = new Webhook();
+
+    @Getter
+    @Setter
+    public static class Latency {
+        /** 응답 지연은 로그정규분포: median 과 p99 로 모양을 정한다 */
+        private Duration median = Duration.ofMillis(150);
+        private Duration p99 = Duration.ofMillis(1200);
+        /** 지연 상한 (꼬리 잘라내기) */
+        private Duration max = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Failure {
+        /** 500 FAILED_INTERNAL_SYSTEM_PROCESSING 비율 (처리 안 함) */
+        private double errorRate = 0.0;
+        /** 400 REJECT_CARD_PAYMENT 비율 (승인만 해당) */
+        private double rejectRate = 0.0;
+        /** 처리하지 않고 hang 만큼 응답을 붙잡는 비율 */
+        private double timeoutRate = 0.0;
+        /** 처리(승인/취소)는 끝내고 응답만 hang 만큼 늦추는 비율 → 클라이언트는 타임아웃, 결과는 웹훅/조회로 확인 */
+        private double lostResponseRate = 0.0;
+        private Duration hang = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Webhook {
+        private boolean enabled = true;
+        private String url = "http://localhost:8080/payments/webhook";
+        /** X-Webhook-Secret 로 보내는 공유 비밀 (payments.webhook.auth.secret 과 같아야 받아 준다) */
+        private String secret = "";
+        /** 발송 지연은 [min, max] 균등분포 → 가까운 이벤트끼리는 자연스럽게 순서가 섞인다 */
+        private Duration minDelay = Duration.ofMillis(50);
+        private Duration maxDelay = Duration.ofMillis(500);
+        /** 같은 eventId 로 한 번 더 보내는 비율 (PG 재전송) */
+        private double duplicateRate = 0.05;
+        /** reorderDelay 만큼 더 늦게 보내 다음 이벤트(예: 취소)가 먼저 도착하게 하는 비율 */
+        private double reorderRate = 0.02;
+        private Duration reorderDelay = Duration.ofSeconds(3);
+    }
+}
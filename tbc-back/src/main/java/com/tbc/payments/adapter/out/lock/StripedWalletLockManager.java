@@ -0,0 +1,125 @@
+package com.tbc.payments.adapter.out.lock;
+
+import com.tbc.payments.application.exception.WalletLockTimeoutException;
+import com.tbc.payments.application.port.out.WalletLockPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 지갑 단위 프로세스 내 스트라이프 락.
+ * DB 의 SELECT ... FOR UPDATE 전에 먼저 잡아서, 같은 지갑에 몰린 요청이 DB 행 락이 아니라 메모리에서 줄을 서게 한다.
+ * callWithLock 은 트랜잭션 바깥에서 잡아 트랜잭션이 끝난 뒤 풀므로 대기 중에는 커넥션을 쥐지 않는다.
+ */
+@Slf4j
+@Component
+public class StripedWalletLockManager implements WalletLockPort {
+
+    private final ReentrantLock[] stripes;
+    private final Timer[] waitTimers;
+    private final Counter[] timeoutCounters;
+    private final long acquireTimeoutNanos;
+
+    public StripedWalletLockManager(WalletLockProperties props, MeterRegistry meterRegistry) {
+        int n = Math.max(1, props.getStripes());
+        this.stripes = new ReentrantLock[n];
+        this.waitTimers = new Timer[n];
+        this.timeoutCounters = new Counter[n];
+        this.acquireTimeoutNanos = props.getAcquireTimeout().toNanos();
+
+        for (int i = 0; i < n; i++) {
+            String stripe = String.valueOf(i);
+            stripes[i] = new ReentrantLock(props.isFair());
+            waitTimers[i] = Timer.builder("payments.wallet.lock.wait")
+                    .description("지갑 스트라이프 락 대기 시간")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+            timeoutCounters[i] = Counter.builder("payments.wallet.lock.timeout")
+                    .description("지갑 스트라이프 락 획득 타임아웃 횟수")
+                    .tag("stripe", stripe)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public <T> T callWithLock(Supplier<T> body, Long... userIds) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 이미 트랜잭션 안이면 커넥션을 쥔 채 기다리게 된다
+            throw new IllegalStateException("WALLET_LOCK_INSIDE_TRANSACTION");
+        }
+        int[] order = stripeOrder(userIds);
+        int held = 0;
+        try {
+            for (int idx : order) {
+                acquire(idx);
+                held++;
+            }
+            return body.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[order[i]].unlock();
+            }
+        }
+    }
+
+    @Override
+    public void lockUntilTransactionEnd(Long... userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("WALLET_LOCK_REQUIRES_TRANSACTION");
+        }
+
+        for (int idx : stripeOrder(userIds)) {
+            acquire(idx);
+            // 트랜잭션 종료 시 해제 (재진입한 횟수만큼 각각 등록되므로 hold count 가 맞춰진다)
+            ReentrantLock lock = stripes[idx];
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    /** 스트라이프 번호 오름차순으로 잡아서 여러 지갑을 잠그는 경로끼리 데드락이 나지 않게 한다 */
+    private int[] stripeOrder(Long... userIds) {
+        return Arrays.stream(userIds)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private void acquire(int idx) {
+        ReentrantLock lock = stripes[idx];
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WalletLockTimeoutException("WALLET_LOCK_INTERRUPTED: stripe=" + idx);
+        } finally {
+            waitTimers[idx].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            timeoutCounters[idx].increment();
+            log.warn("[WALLET_LOCK] acquire timeout stripe={} queued={}", idx, lock.getQueueLength());
+            throw new WalletLockTimeoutException("WALLET_LOCK_TIMEOUT: stripe=" + idx);
+        }
+    }
+
+    private int stripeOf(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), stripes.length);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tbc.payments.adapter.out.lock;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "payments.wallet-lock")
+public class WalletLockProperties {
+
+    /**
+     * 락 스트라이프 개수 (지갑 userId 해시로 분배)
+     */
+    private int stripes = 64;
+
+    /**
+     * 공정 락 여부 (true 면 대기 순서대로 획득)
+     */
+    private boolean fair = true;
+
+    /**
+     * 락 획득 최대 대기 시간. 초과하면 WALLET_LOCK_TIMEOUT 으로 즉시 실패
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(3);
+}
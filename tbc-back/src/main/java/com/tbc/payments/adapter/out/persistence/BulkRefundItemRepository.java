@@ -0,0 +1,22 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.refund.BulkRefundItem;
+import com.tbc.payments.domain.refund.BulkRefundItemStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BulkRefundItemRepository extends JpaRepository<BulkRefundItem, Long> {
+    List<BulkRefundItem> findByJobIdOrderByIdAsc(Long jobId);
+
+    List<BulkRefundItem> findByJobIdAndStatusOrderByIdAsc(Long jobId, BulkRefundItemStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BulkRefundItem i set i.status = com.tbc.payments.domain.refund.BulkRefundItemStatus.PENDING, " +
+            "i.failureCode = null, i.failureMsg = null, i.updatedAt = CURRENT_TIMESTAMP " +
+            "where i.jobId = :jobId and i.status = com.tbc.payments.domain.refund.BulkRefundItemStatus.FAILED and i.retryable = true")
+    int requeueRetryable(@Param("jobId") Long jobId);
+}
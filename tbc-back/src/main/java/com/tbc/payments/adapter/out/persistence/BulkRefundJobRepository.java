@@ -0,0 +1,11 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.refund.BulkRefundJob;
+import com.tbc.payments.domain.refund.BulkRefundJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BulkRefundJobRepository extends JpaRepository<BulkRefundJob, Long> {
+    List<BulkRefundJob> findByStatus(BulkRefundJobStatus status);
+}
@@ -0,0 +1,55 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.application.port.out.BulkRefundPersistencePort;
+import com.tbc.payments.domain.refund.BulkRefundItem;
+import com.tbc.payments.domain.refund.BulkRefundItemStatus;
+import com.tbc.payments.domain.refund.BulkRefundJob;
+import com.tbc.payments.domain.refund.BulkRefundJobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class BulkRefundPersistenceAdapter implements BulkRefundPersistencePort {
+
+    private final BulkRefundJobRepository jobRepository;
+    private final BulkRefundItemRepository itemRepository;
+
+    @Override
+    public BulkRefundJob saveJob(BulkRefundJob job) {
+        return jobRepository.save(job);
+    }
+
+    @Override
+    public Optional<BulkRefundJob> findJob(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @Override
+    public List<BulkRefundJob> findJobsByStatus(BulkRefundJobStatus status) {
+        return jobRepository.findByStatus(status);
+    }
+
+    @Override
+    public List<BulkRefundItem> saveItems(List<BulkRefundItem> items) {
+        return itemRepository.saveAll(items);
+    }
+
+    @Override
+    public List<BulkRefundItem> findItems(Long jobId) {
+        return itemRepository.findByJobIdOrderByIdAsc(jobId);
+    }
+
+    @Override
+    public List<BulkRefundItem> findItems(Long jobId, BulkRefundItemStatus status) {
+        return itemRepository.findByJobIdAndStatusOrderByIdAsc(jobId, status);
+    }
+
+    @Override
+    public int requeueRetryable(Long jobId) {
+        return itemRepository.requeueRetryable(jobId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.idempotency.IdempotencyKey;
+import com.tbc.payments.domain.idempotency.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByKeyHash(String keyHash);
+
+    // key_hash UNIQUE 로 선점 (이미 있으면 0 row)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys " +
+            "(id, key_hash, fingerprint, status, expires_at, created_at, updated_at) " +
+            "VALUES (:id, :keyHash, :fingerprint, 'IN_PROGRESS', :expiresAt, NOW(6), NOW(6))",
+            nativeQuery = true)
+    int insertIgnore(@Param("id") Long id,
+                     @Param("keyHash") String keyHash,
+                     @Param("fingerprint") String fingerprint,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.status = :completed, k.httpStatus = :httpStatus, " +
+            "k.contentType = :contentType, k.responseBody = :body, k.expiresAt = :expiresAt, k.updatedAt = CURRENT_TIMESTAMP " +
+            "where k.keyHash = :keyHash and k.status = :inProgress")
+    int complete(@Param("keyHash") String keyHash,
+                 @Param("httpStatus") int httpStatus,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("inProgress") IdempotencyStatus inProgress,
+                 @Param("completed") IdempotencyStatus completed);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.keyHash = :keyHash and k.status = :status")
+    int deleteByKeyHashAndStatus(@Param("keyHash") String keyHash, @Param("status") IdempotencyStatus status);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.keyHash = :keyHash and k.expiresAt < :now")
+    int deleteExpiredByKeyHash(@Param("keyHash") String keyHash, @Param("now") LocalDateTime now);
+
+    // 만료 정리: 한 번에 limit 행씩 (긴 DELETE 로 잠금을 오래 잡지 않도록)
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,58 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.common.id.TsidGenerator;
+import com.tbc.payments.application.port.out.IdempotencyPersistencePort;
+import com.tbc.payments.domain.idempotency.IdempotencyKey;
+import com.tbc.payments.domain.idempotency.IdempotencyStatus;
+import com.tbc.payments.domain.idempotency.IdempotentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/** 필터(트랜잭션 밖)에서 부르므로 메서드마다 짧은 트랜잭션 */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyPersistenceAdapter implements IdempotencyPersistencePort {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Override
+    @Transactional
+    public boolean claim(String keyHash, String fingerprint, LocalDateTime leaseUntil) {
+        return idempotencyKeyRepository.insertIgnore(TsidGenerator.next(), keyHash, fingerprint, leaseUntil) == 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<IdempotencyKey> findByKeyHash(String keyHash) {
+        return idempotencyKeyRepository.findByKeyHash(keyHash);
+    }
+
+    @Override
+    @Transactional
+    public boolean complete(String keyHash, IdempotentResponse response, LocalDateTime expiresAt) {
+        return idempotencyKeyRepository.complete(keyHash, response.status(), response.contentType(), response.body(),
+                expiresAt, IdempotencyStatus.IN_PROGRESS, IdempotencyStatus.COMPLETED) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void release(String keyHash) {
+        idempotencyKeyRepository.deleteByKeyHashAndStatus(keyHash, IdempotencyStatus.IN_PROGRESS);
+    }
+
+    @Override
+    @Transactional
+    public void deleteExpired(String keyHash, LocalDateTime now) {
+        idempotencyKeyRepository.deleteExpiredByKeyHash(keyHash, now);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(LocalDateTime now, int limit) {
+        return idempotencyKeyRepository.deleteExpired(now, limit);
+    }
+}
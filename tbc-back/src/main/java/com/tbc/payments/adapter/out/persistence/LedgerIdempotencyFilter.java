@@ -0,0 +1,133 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 원장 멱등키 선조회 필터: "이미 있음" 이 커밋으로 확정된 키만 작은 LRU 에 기억한다.
+ * - LRU 적중이면 DB 조회/INSERT 를 생략한다 (원장은 지우지 않으므로 한 번 커밋된 키는 계속 있음)
+ * - LRU 에 없으면 항상 DB 로 확인한다. "없음" 은 메모리로 판정하지 않는다 (다른 노드가 쓴 키를 모른다)
+ * - 키는 현재 트랜잭션이 커밋된 뒤에만 기록한다 (같은 트랜잭션의 미커밋 INSERT 가 롤백되면 없는 키가 된다)
+ */
+@Slf4j
+@Component
+public class LedgerIdempotencyFilter {
+
+    private final WalletLedgerRepository ledgerRepository;
+    private final LedgerIdempotencyProperties props;
+    private final Map<String, Boolean> seen;
+
+    private final Counter seenHits;      // LRU 적중 → DB 조회 생략
+    private final Counter dbHits;        // DB 에 있음
+    private final Counter dbMisses;      // DB 에 없음
+
+    public LedgerIdempotencyFilter(WalletLedgerRepository ledgerRepository,
+                                   LedgerIdempotencyProperties props,
+                                   MeterRegistry meterRegistry) {
+        this.ledgerRepository = ledgerRepository;
+        this.props = props;
+
+        int seenSize = Math.max(1, props.getSeenCacheSize());
+        this.seen = new LinkedHashMap<>(Math.min(seenSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > seenSize;
+            }
+        };
+
+        this.seenHits = probeCounter(meterRegistry, "seen_hit");
+        this.dbHits = probeCounter(meterRegistry, "db_hit");
+        this.dbMisses = probeCounter(meterRegistry, "db_miss");
+
+        Gauge.builder("payments.ledger.idempotency.hit_rate", this, LedgerIdempotencyFilter::hitRate)
+                .description("DB 조회 없이 판정한 비율")
+                .register(meterRegistry);
+        Gauge.builder("payments.ledger.idempotency.seen_size", this, LedgerIdempotencyFilter::size)
+                .register(meterRegistry);
+    }
+
+    private static Counter probeCounter(MeterRegistry registry, String result) {
+        return Counter.builder("payments.ledger.idempotency.probe")
+                .description("멱등키 선조회 결과")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** 커밋된 것이 확인된 키인지 (true 면 DB 조회/INSERT 생략 가능, false 는 아무것도 보장하지 않음) */
+    public boolean knownSeen(String key) {
+        if (!props.isEnabled()) return false;
+        boolean hit;
+        synchronized (seen) {
+            hit = seen.get(key) != null;
+        }
+        if (hit) seenHits.increment();
+        return hit;
+    }
+
+    /** DB 조회 결과 반영. 있음이어도 자기 트랜잭션의 미커밋 행일 수 있어 커밋 후에 기록한다 */
+    public void recordProbe(String key, boolean exists) {
+        if (!props.isEnabled()) return;
+        if (exists) {
+            dbHits.increment();
+            markSeen(key);
+        } else {
+            dbMisses.increment();
+        }
+    }
+
+    /** 이번 트랜잭션이 키를 INSERT 했거나 UNIQUE 충돌을 확인함 → 커밋되면 기록 (롤백되면 버림) */
+    public void markSeen(String key) {
+        if (!props.isEnabled()) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(key);
+                }
+            });
+        } else {
+            remember(key);
+        }
+    }
+
+    private void remember(String key) {
+        synchronized (seen) {
+            seen.put(key, Boolean.TRUE);
+        }
+    }
+
+    /** 재시도는 최근 원장에 몰리므로 기동 시 최근 키로 LRU 를 채운다 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!props.isEnabled()) return;
+        List<String> keys = ledgerRepository.findRecentIdempotencyKeys(
+                PageRequest.of(0, Math.max(1, Math.min(props.getWarmKeys(), props.getSeenCacheSize()))));
+        // 최신순으로 읽었으니 오래된 것부터 넣어야 최신 키가 LRU 에서 늦게 밀려난다
+        for (int i = keys.size() - 1; i >= 0; i--) remember(keys.get(i));
+        log.info("[LEDGER-IDEM] seen cache warmed keys={}", keys.size());
+    }
+
+    int size() {
+        synchronized (seen) {
+            return seen.size();
+        }
+    }
+
+    double hitRate() {
+        double hits = seenHits.count();
+        double total = hits + dbHits.count() + dbMisses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "payments.ledger-idempotency")
+public class LedgerIdempotencyProperties {
+
+    /**
+     * 필터를 끄면 항상 DB 로 조회 (기존 동작)
+     */
+    private boolean enabled = true;
+
+    /**
+     * "이미 있음" 이 커밋으로 확정된 키를 기억하는 LRU 크기
+     */
+    private int seenCacheSize = 10_000;
+
+    /**
+     * 기동 시 최근 원장에서 읽어올 키 개수 (seenCacheSize 를 넘지 않는다)
+     */
+    private int warmKeys = 10_000;
+}
@@ -1,10 +1,20 @@
 package com.tbc.payments.adapter.out.persistence;
 
+import com.tbc.common.id.TsidGenerator;
 import com.tbc.payments.application.port.out.PaymentPersistencePort;
 import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentCursorRow;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.payment.PaymentStateTransition;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -12,6 +22,13 @@ import java.util.Optional;
 public class PaymentPersistenceAdapter implements PaymentPersistencePort {
 
     private final PaymentRepository paymentRepository;
+    private final PaymentStateTransitionRepository transitionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 주문 예약을 INSERT 한 번으로. INSERT IGNORE 는 중복 외의 오류(NULL 금액, 긴 orderId)도 경고로 바꿔 0/잘린 값을 저장하므로 쓰지 않는다
+    private static final String INSERT_INIT_SQL = "INSERT INTO payments " +
+            "(id, order_id, user_id, amount, state, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'INIT', 0, NOW(6), NOW(6))";
 
     @Override
     public Optional<Payment> findByOrderId(String orderId) {
@@ -22,4 +39,80 @@ public class PaymentPersistenceAdapter implements PaymentPersistencePort {
     public Payment savePayment(Payment payment) {
         return paymentRepository.save(payment);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean insertInitIfAbsent(String orderId, Long userId, Long amount) {
+        try {
+            // 같은 트랜잭션 커넥션. MySQL 은 중복키 오류에 문장만 되돌리고 트랜잭션은 유지한다
+            return jdbcTemplate.update(INSERT_INIT_SQL, TsidGenerator.next(), orderId, userId, amount) == 1;
+        } catch (DuplicateKeyException e) {
+            return false; // order_id UNIQUE: 이미 있는 주문 → 멱등 경로
+        }
+    }
+
+    @Override
+    public Optional<PaymentState> findStateByOrderId(String orderId) {
+        return paymentRepository.findStateByOrderId(orderId);
+    }
+
+    @Override
+    public Optional<PaymentState> findLatestStateByOrderId(String orderId) {
+        return paymentRepository.findLatestStateByOrderId(orderId).map(PaymentState::valueOf);
+    }
+
+    @Override
+    public boolean compareAndSetState(String orderId, PaymentState expected, PaymentState to, String paymentKey) {
+        return paymentRepository.compareAndSetState(orderId, expected, to, paymentKey) == 1;
+    }
+
+    @Override
+    public int compareAndSetStates(Collection<Long> ids, PaymentState from, PaymentState to, String failureCode) {
+        return paymentRepository.compareAndSetStates(ids, from, to, failureCode);
+    }
+
+    @Override
+    public void appendTransition(PaymentStateTransition transition) {
+        transitionRepository.save(transition);
+    }
+
+    @Override
+    public void appendTransitions(List<PaymentStateTransition> transitions) {
+        transitionRepository.saveAll(transitions); // TSID 라 JDBC 배치 INSERT
+    }
+
+    @Override
+    public List<PaymentCursorRow> lockInitCreatedBefore(LocalDateTime cutoff, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return paymentRepository.lockInitCreatedBefore(cutoff, afterCreatedAt, afterId, limit).stream()
+                .map(r -> new PaymentCursorRow(((Number) r[0]).longValue(), (String) r[1], toLocalDateTime(r[2])))
+                .toList();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object v) {
+        return v instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) v;
+    }
+
+    @Override
+    public List<PaymentStateTransition> findTransitions(String orderId) {
+        return transitionRepository.findByOrderIdOrderByIdAsc(orderId);
+    }
+
+    @Override
+    public void tagMeetup(String orderId, Long meetupId) {
+        paymentRepository.tagMeetup(orderId, meetupId);
+    }
+
+    @Override
+    public List<Payment> findByMeetupId(Long meetupId, Collection<PaymentState> states) {
+        return paymentRepository.findByMeetupIdAndStateIn(meetupId, states);
+    }
+
+    @Override
+    public List<Payment> findByOrderIds(Collection<String> orderIds) {
+        return paymentRepository.findByOrderIdIn(orderIds);
+    }
+
+    @Override
+    public List<Payment> findStale(PaymentState state, LocalDateTime before, int limit) {
+        return paymentRepository.findByStateUpdatedBefore(state, before, PageRequest.of(0, limit));
+    }
+}
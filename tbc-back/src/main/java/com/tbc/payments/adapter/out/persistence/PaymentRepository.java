@@ -1,10 +1,68 @@
 package com.tbc.payments.adapter.out.persistence;
 
 import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(String orderId);
+
+    // 벌크 전이 이후 영속성 컨텍스트의 엔티티는 옛 상태일 수 있어 스칼라로 다시 읽는다
+    @Query("select p.state from Payment p where p.orderId = :orderId")
+    Optional<PaymentState> findStateByOrderId(@Param("orderId") String orderId);
+
+    // 현재 상태가 expected 일 때만 전이 (compare-and-set). 벌크 UPDATE 라 @Version 은 직접 올린다
+    @Modifying(flushAutomatically = true)
+    @Query("update Payment p set p.state = :to, p.version = p.version + 1, " +
+            "p.paymentKey = coalesce(:paymentKey, p.paymentKey), p.updatedAt = CURRENT_TIMESTAMP " +
+            "where p.orderId = :orderId and p.state = :expected")
+    int compareAndSetState(@Param("orderId") String orderId,
+                           @Param("expected") PaymentState expected,
+                           @Param("to") PaymentState to,
+                           @Param("paymentKey") String paymentKey);
+
+    // 잠금 읽기는 스냅샷이 아닌 최신 커밋 값을 본다 (CAS 실패 후 재시도용, REPEATABLE READ 에서 일반 SELECT 는 옛 스냅샷)
+    @Query(value = "select state from payments where order_id = :orderId for share", nativeQuery = true)
+    Optional<String> findLatestStateByOrderId(@Param("orderId") String orderId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Payment p set p.meetupId = :meetupId, p.version = p.version + 1 " +
+            "where p.orderId = :orderId and p.meetupId is null")
+    int tagMeetup(@Param("orderId") String orderId, @Param("meetupId") Long meetupId);
+
+    List<Payment> findByMeetupIdAndStateIn(Long meetupId, Collection<PaymentState> states);
+
+    List<Payment> findByOrderIdIn(Collection<String> orderIds);
+
+    // (created_at, id) 키셋 페이지를 잠그며 가져온다. 다른 인스턴스가 잡은 행은 SKIP LOCKED 로 건너뜀 (인스턴스끼리 겹치지 않음)
+    @Query(value = "select id, order_id, created_at from payments " +
+            "where state = 'INIT' and created_at < :cutoff " +
+            "and (created_at > :afterCreatedAt or (created_at = :afterCreatedAt and id > :afterId)) " +
+            "order by created_at, id limit :limit for update skip locked", nativeQuery = true)
+    List<Object[]> lockInitCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Payment p set p.state = :to, p.failureCode = :failureCode, p.version = p.version + 1, " +
+            "p.updatedAt = CURRENT_TIMESTAMP where p.id in :ids and p.state = :from")
+    int compareAndSetStates(@Param("ids") Collection<Long> ids,
+                            @Param("from") PaymentState from,
+                            @Param("to") PaymentState to,
+                            @Param("failureCode") String failureCode);
+
+    @Query("select p from Payment p where p.state = :state and p.updatedAt < :before order by p.updatedAt")
+    List<Payment> findByStateUpdatedBefore(@Param("state") PaymentState state,
+                                           @Param("before") LocalDateTime before,
+                                           Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.payment.PaymentStateTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PaymentStateTransitionRepository extends JpaRepository<PaymentStateTransition, Long> {
+    List<PaymentStateTransition> findByOrderIdOrderByIdAsc(String orderId);
+}
@@ -0,0 +1,42 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.application.port.out.WalletBalanceCheckpointPort;
+import com.tbc.payments.domain.wallet.WalletBalanceCheckpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class WalletBalanceCheckpointPersistenceAdapter implements WalletBalanceCheckpointPort {
+
+    private final WalletBalanceCheckpointRepository checkpointRepository;
+
+    @Override
+    public Optional<WalletBalanceCheckpoint> findByWalletId(Long walletId) {
+        return checkpointRepository.findById(walletId);
+    }
+
+    @Override
+    public Optional<WalletBalanceCheckpoint> findByWalletIdForUpdate(Long walletId) {
+        return checkpointRepository.findByIdForUpdate(walletId);
+    }
+
+    @Override
+    public List<Long> findWalletIdsAfter(Long afterWalletId, int limit) {
+        return checkpointRepository.findWalletIdsAfter(afterWalletId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public WalletBalanceCheckpoint saveCheckpoint(WalletBalanceCheckpoint checkpoint) {
+        return checkpointRepository.save(checkpoint);
+    }
+
+    @Override
+    public Long findMinLastLedgerId() {
+        return checkpointRepository.findMinLastLedgerId();
+    }
+}
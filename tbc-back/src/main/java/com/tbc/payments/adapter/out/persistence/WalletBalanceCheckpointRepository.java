@@ -0,0 +1,28 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.wallet.WalletBalanceCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletBalanceCheckpointRepository extends JpaRepository<WalletBalanceCheckpoint, Long> {
+
+    // 롤포워드/검증이 여러 인스턴스에서 겹쳐도 서로의 결과를 덮어쓰지 않게
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from WalletBalanceCheckpoint c where c.walletId = :walletId")
+    Optional<WalletBalanceCheckpoint> findByIdForUpdate(@Param("walletId") Long walletId);
+
+    // 검증 순회용 키셋 페이지
+    @Query("select c.walletId from WalletBalanceCheckpoint c where c.walletId > :afterWalletId order by c.walletId")
+    List<Long> findWalletIdsAfter(@Param("afterWalletId") Long afterWalletId, Pageable pageable);
+
+    // 롤포워드 시작 지점: 가장 뒤처진 체크포인트
+    @Query("select min(c.lastLedgerId) from WalletBalanceCheckpoint c")
+    Long findMinLastLedgerId();
+}
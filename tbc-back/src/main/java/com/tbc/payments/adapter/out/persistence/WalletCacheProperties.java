@@ -0,0 +1,41 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "payments.wallet-cache")
+public class WalletCacheProperties {
+
+    public enum Consistency {
+        /** 잔액은 항상 DB 에서 (캐시는 userId → walletId 매핑만 제공) */
+        STRICT,
+        /** 무효화되지 않았고 maxStaleness 이내인 잔액은 캐시에서 그대로 */
+        BOUNDED
+    }
+
+    private boolean enabled = true;
+
+    /**
+     * 캐시할 지갑 수 (초과 시 가장 오래 안 쓴 항목부터 제거)
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * 항목 수명. 다른 노드의 쓰기는 무효화가 오지 않으므로 이 시간이 노드 간 최대 지연이 된다
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private Consistency consistency = Consistency.STRICT;
+
+    /**
+     * BOUNDED 모드에서 허용하는 잔액 지연
+     */
+    private Duration maxStaleness = Duration.ofSeconds(2);
+}
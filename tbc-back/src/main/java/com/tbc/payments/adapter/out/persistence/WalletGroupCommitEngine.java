@@ -0,0 +1,175 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.application.exception.WalletLockTimeoutException;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.WalletMutation;
+import com.tbc.payments.domain.wallet.WalletMutationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 지갑 샤드별 단일 writer 그룹 커밋 엔진 (payments.group-commit.enabled=true 일 때만).
+ * WalletLedgerPersistencePort.post 뒤에 붙는다. 요청(원장 여러 줄, all-or-nothing)을 첫 줄 userId 해시로 큐에 넣으면
+ * writer 가 모아서 한 트랜잭션에서 원장 N줄 INSERT(배치) + 지갑당 UPDATE 1번 + 커밋 1번으로 처리한다.
+ * 멱등키 의미는 기존과 같다: 이미 있는 키는 DUPLICATE(성공 취급), 잔액은 바뀌지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payments.group-commit", name = "enabled", havingValue = "true")
+public class WalletGroupCommitEngine {
+
+    private record Posting(List<WalletMutation> legs, CompletableFuture<List<WalletMutationResult>> future) {}
+
+    private final WalletPostingWriter writer;
+    private final TransactionTemplate tx;
+    private final int maxBatch;
+    private final Duration submitTimeout;
+
+    private final List<BlockingQueue<Posting>> queues;
+    private final List<Thread> writers;
+    private volatile boolean running = true;
+
+    private final Counter commits;
+    private final Counter entries;
+    private final Counter fallbacks;
+    private final DistributionSummary batchSize;
+
+    public WalletGroupCommitEngine(WalletPersistencePort walletRepo,
+                                   WalletLedgerPersistencePort ledgerRepo,
+                                   TransactionTemplate tx,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${payments.group-commit.shards:16}") int shards,
+                                   @Value("${payments.group-commit.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${payments.group-commit.max-batch:256}") int maxBatch,
+                                   @Value("${payments.group-commit.submit-timeout:PT5S}") Duration submitTimeout) {
+        this.writer = new WalletPostingWriter(walletRepo, ledgerRepo);
+        this.tx = tx;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.submitTimeout = submitTimeout;
+
+        this.commits = Counter.builder("payments.wallet.group_commit.commits")
+                .description("그룹 커밋 트랜잭션 수").register(meterRegistry);
+        this.entries = Counter.builder("payments.wallet.group_commit.entries")
+                .description("그룹 커밋으로 기록된 원장 줄 수").register(meterRegistry);
+        this.fallbacks = Counter.builder("payments.wallet.group_commit.fallbacks")
+                .description("배치 실패로 요청 단위 재처리한 횟수").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("payments.wallet.group_commit.batch_size")
+                .description("배치당 요청 수").register(meterRegistry);
+
+        int n = Math.max(1, shards);
+        List<BlockingQueue<Posting>> qs = new ArrayList<>(n);
+        List<Thread> ws = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BlockingQueue<Posting> q = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            qs.add(q);
+            Gauge.builder("payments.wallet.group_commit.queue", q, BlockingQueue::size)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            ws.add(Thread.ofPlatform().name("wallet-group-commit-" + i).daemon().start(() -> drain(q)));
+        }
+        this.queues = qs;
+        this.writers = ws;
+    }
+
+    /** 요청을 큐에 넣고 결과를 기다린다 (호출 스레드는 트랜잭션 밖이어야 커넥션을 잡고 기다리지 않는다) */
+    public List<WalletMutationResult> apply(List<WalletMutation> legs) {
+        try {
+            return submit(legs).get(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new WalletLockTimeoutException("GROUP_COMMIT_TIMEOUT");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WalletLockTimeoutException("GROUP_COMMIT_INTERRUPTED");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("GROUP_COMMIT_FAILED", e.getCause());
+        }
+    }
+
+    public CompletableFuture<List<WalletMutationResult>> submit(List<WalletMutation> legs) {
+        if (legs == null || legs.isEmpty()) {
+            throw new IllegalArgumentException("legs must not be empty");
+        }
+        if (!running) {
+            throw new IllegalStateException("GROUP_COMMIT_SHUTDOWN");
+        }
+        Posting p = new Posting(List.copyOf(legs), new CompletableFuture<>());
+        BlockingQueue<Posting> q = queues.get(Math.floorMod(Long.hashCode(legs.get(0).userId()), queues.size()));
+        if (!q.offer(p)) {
+            throw new WalletLockTimeoutException("GROUP_COMMIT_QUEUE_FULL");
+        }
+        // 확인과 offer 사이에 종료가 끼어들었으면 아무도 꺼내지 않으므로 직접 실패시킨다
+        if (!running && q.remove(p)) {
+            p.future().completeExceptionally(new IllegalStateException("GROUP_COMMIT_SHUTDOWN"));
+        }
+        return p.future();
+    }
+
+    private void drain(BlockingQueue<Posting> q) {
+        List<Posting> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(q.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            q.drainTo(batch, maxBatch - 1);
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    private void process(List<Posting> batch) {
+        batchSize.record(batch.size());
+        try {
+            List<List<WalletMutationResult>> results = tx.execute(s ->
+                    writer.apply(batch.stream().map(Posting::legs).toList(), false, s));
+            commits.increment();
+            entries.increment(WalletPostingWriter.appliedEntries(results));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            // 다른 경로가 같은 멱등키를 먼저 넣음/데드락 등 → 요청 단위로 다시.
+            // 한 줄씩 넣으므로 동시에 들어온 같은 키는 DUPLICATE 가 되고, 문제 요청만 실패한다
+            log.warn("[GROUP-COMMIT] batch of {} failed, retry one by one: {}", batch.size(), batchFailure.toString());
+            fallbacks.increment();
+            for (Posting p : batch) {
+                try {
+                    List<List<WalletMutationResult>> r = tx.execute(s -> writer.apply(List.of(p.legs()), true, s));
+                    commits.increment();
+                    entries.increment(WalletPostingWriter.appliedEntries(r));
+                    p.future().complete(r.get(0));
+                } catch (RuntimeException e) {
+                    p.future().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        writers.forEach(Thread::interrupt);
+        for (BlockingQueue<Posting> q : queues) {
+            Posting p;
+            while ((p = q.poll()) != null) {
+                p.future().completeExceptionally(new IllegalStateException("GROUP_COMMIT_SHUTDOWN"));
+            }
+        }
+    }
+}
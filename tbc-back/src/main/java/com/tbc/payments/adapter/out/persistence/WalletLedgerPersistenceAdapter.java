@@ -1,21 +1,113 @@
 package com.tbc.payments.adapter.out.persistence;
 
+import com.tbc.common.id.TsidGenerator;
 import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletLockPort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.LedgerCursor;
+import com.tbc.payments.domain.wallet.LedgerEntryView;
+import com.tbc.payments.domain.wallet.WalletBalanceCheckpoint;
 import com.tbc.payments.domain.wallet.WalletLedger;
+import com.tbc.payments.domain.wallet.WalletMutation;
+import com.tbc.payments.domain.wallet.WalletMutationResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
 public class WalletLedgerPersistenceAdapter implements WalletLedgerPersistencePort {
 
     private final WalletLedgerRepository walletLedgerRepository;
+    private final WalletBalanceCheckpointRepository checkpointRepository;
+    private final LedgerIdempotencyFilter idempotencyFilter;
+    private final WalletReadCache walletReadCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletPersistencePort walletRepository;
+    private final WalletLockPort walletLock;
+    private final TransactionTemplate tx;
+    private final ObjectProvider<WalletGroupCommitEngine> groupCommit; // payments.group-commit.enabled 일 때만
+
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 64;
+
+    // 일반 INSERT: 멱등키 중복만 '이미 있음'으로 보고, 잘림/NULL 같은 데이터 오류는 그대로 터뜨린다
+    private static final String INSERT_LEDGER_SQL = "INSERT INTO wallet_ledger " +
+            "(id, wallet_id, type, amount, reason, ref_type, ref_id, idempotency_key, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW(6), NOW(6))";
 
     @Override
     public WalletLedger saveLedger(WalletLedger ledger) {
-        return walletLedgerRepository.save(ledger);
+        WalletLedger saved = walletLedgerRepository.save(ledger);
+        idempotencyFilter.markSeen(ledger.getIdempotencyKey());
+        walletReadCache.invalidateAfterCommit(ledger.getWalletId());
+        return saved;
+    }
+
+    @Override
+    public boolean appendIfAbsent(WalletLedger ledger) {
+        String key = ledger.getIdempotencyKey();
+        // 컬럼 길이를 넘는 키는 잘려서 다른 키와 겹칠 수 있으니 받지 않는다
+        if (key == null || key.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            throw new IllegalArgumentException("LEDGER_IDEMPOTENCY_KEY_INVALID: " + key);
+        }
+        if (idempotencyFilter.knownSeen(key)) {
+            return false;
+        }
+        if (ledger.getId() == null) {
+            ledger.setId(TsidGenerator.next());
+        }
+        // JDBC 로 바로 쓰므로 영속성 컨텍스트에 쌓인 변경을 먼저 내보낸다
+        walletLedgerRepository.flush();
+        boolean inserted;
+        try {
+            // 같은 트랜잭션 커넥션을 쓴다. MySQL 은 중복키 오류에 문장만 되돌리고 트랜잭션은 유지한다
+            // (JPA 쿼리로 실행하면 Hibernate 가 트랜잭션을 rollback-only 로 만들어 버린다)
+            inserted = jdbcTemplate.update(INSERT_LEDGER_SQL,
+                    ledger.getId(),
+                    ledger.getWalletId(),
+                    ledger.getType().name(),
+                    ledger.getAmount(),
+                    ledger.getReason(),
+                    ledger.getRefType(),
+                    ledger.getRefId(),
+                    key) == 1;
+        } catch (DuplicateKeyException e) {
+            inserted = false;
+        }
+        // 넣었든 충돌했든 커밋되면 있는 키 (필터가 afterCommit 에 기록)
+        idempotencyFilter.markSeen(key);
+        if (inserted) {
+            walletReadCache.invalidateAfterCommit(ledger.getWalletId());
+        }
+        return inserted;
+    }
+
+    @Override
+    public List<WalletMutationResult> post(List<WalletMutation> legs) {
+        WalletGroupCommitEngine engine = groupCommit.getIfAvailable();
+        if (engine != null) {
+            return engine.apply(legs);
+        }
+        // 엔진이 꺼져 있으면 요청 하나를 지갑 락 + 짧은 트랜잭션 하나로 (같은 규칙, 한 줄씩 INSERT)
+        if (legs == null || legs.isEmpty()) {
+            throw new IllegalArgumentException("legs must not be empty");
+        }
+        Long[] userIds = legs.stream().map(WalletMutation::userId).distinct().toArray(Long[]::new);
+        WalletPostingWriter writer = new WalletPostingWriter(walletRepository, this);
+        return walletLock.callWithLock(
+                () -> tx.execute(s -> writer.apply(List.of(List.copyOf(legs)), true, s)).get(0), userIds);
     }
 
     @Override
@@ -23,8 +115,57 @@ public class WalletLedgerPersistenceAdapter implements WalletLedgerPersistencePo
         return walletLedgerRepository.findByIdempotencyKey(idempotencyKey);
     }
 
+    @Override
+    public boolean existsByIdempotencyKey(String idempotencyKey) {
+        // "없음" 은 반드시 DB 로 확인한다 (다른 노드가 쓴 키, 정산 재시도 경로 분기가 이 답에 달려 있음)
+        if (idempotencyFilter.knownSeen(idempotencyKey)) {
+            return true;
+        }
+        boolean exists = walletLedgerRepository.existsByIdempotencyKey(idempotencyKey);
+        idempotencyFilter.recordProbe(idempotencyKey, exists);
+        return exists;
+    }
+
+    @Override
+    public Set<String> findExistingIdempotencyKeys(Collection<String> keys) {
+        if (keys.isEmpty()) return Set.of();
+        Set<String> existing = new HashSet<>(walletLedgerRepository.findExistingIdempotencyKeys(keys));
+        existing.forEach(idempotencyFilter::markSeen);
+        return existing;
+    }
+
     @Override
     public Long sumByWalletId(Long walletId) {
-        return walletLedgerRepository.sumByWalletId(walletId);
+        // 체크포인트가 있으면 그 이후 원장만 더한다 (없으면 처음부터)
+        var checkpoint = checkpointRepository.findById(walletId);
+        long base = checkpoint.map(WalletBalanceCheckpoint::getBalanceAtCheckpoint).orElse(0L);
+        long afterId = checkpoint.map(WalletBalanceCheckpoint::getLastLedgerId).orElse(0L);
+        return base + walletLedgerRepository.sumByWalletIdAfter(walletId, afterId);
+    }
+
+    @Override
+    public Long sumByWalletIdBetween(Long walletId, Long afterId, Long upToId) {
+        return walletLedgerRepository.sumByWalletIdBetween(walletId, afterId, upToId);
+    }
+
+    @Override
+    public Long findMaxIdBefore(Long walletId, Long boundId) {
+        return walletLedgerRepository.findMaxIdBefore(walletId, boundId);
+    }
+
+    @Override
+    public List<Long> findWalletIdsWithLedgerBetween(Long sinceId, Long boundId) {
+        return walletLedgerRepository.findWalletIdsWithLedgerBetween(sinceId, boundId);
+    }
+
+    @Override
+    public List<LedgerEntryView> findEntriesBefore(Long walletId, LocalDateTime from, LedgerCursor cursor, int limit) {
+        return walletLedgerRepository.findEntriesBefore(walletId, from, cursor.createdAt(), cursor.id(),
+                PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public Stream<LedgerEntryView> streamEntries(Long walletId, LocalDateTime from, LocalDateTime to) {
+        return walletLedgerRepository.streamEntries(walletId, from, to);
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,77 @@
 package com.tbc.payments.adapter.out.persistence;
 
+import com.tbc.payments.domain.wallet.LedgerEntryView;
 import com.tbc.payments.domain.wallet.WalletLedger;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WalletLedgerRepository extends JpaRepository<WalletLedger, Long> {
     // 멱등키 기반 중복 체크용
     Optional<WalletLedger> findByIdempotencyKey(String idempotencyKey);
 
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    @Query("select l.idempotencyKey from WalletLedger l where l.idempotencyKey in :keys")
+    List<String> findExistingIdempotencyKeys(@Param("keys") Collection<String> keys);
+
+    // 멱등키 필터 워밍용 (id 가 시간순이라 최근 원장부터)
+    @Query("select l.idempotencyKey from WalletLedger l order by l.id desc")
+    List<String> findRecentIdempotencyKeys(Pageable pageable);
+
     @Query("SELECT COALESCE(SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END), 0) " +
             "FROM WalletLedger l WHERE l.walletId = :walletId")
     Long sumByWalletId(@Param("walletId") Long walletId);
+
+    // 체크포인트 이후 원장만 합산 (idx_wallet_id_id 사용)
+    @Query("SELECT COALESCE(SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END), 0) " +
+            "FROM WalletLedger l WHERE l.walletId = :walletId AND l.id > :afterId")
+    Long sumByWalletIdAfter(@Param("walletId") Long walletId, @Param("afterId") Long afterId);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN l.type = 'CREDIT' THEN l.amount ELSE -l.amount END), 0) " +
+            "FROM WalletLedger l WHERE l.walletId = :walletId AND l.id > :afterId AND l.id <= :upToId")
+    Long sumByWalletIdBetween(@Param("walletId") Long walletId,
+                              @Param("afterId") Long afterId,
+                              @Param("upToId") Long upToId);
+
+    @Query("SELECT MAX(l.id) FROM WalletLedger l WHERE l.walletId = :walletId AND l.id < :boundId")
+    Long findMaxIdBefore(@Param("walletId") Long walletId, @Param("boundId") Long boundId);
+
+    // (sinceId, boundId) 구간에 원장이 생긴 지갑들
+    @Query("SELECT DISTINCT l.walletId FROM WalletLedger l WHERE l.id > :sinceId AND l.id < :boundId")
+    List<Long> findWalletIdsWithLedgerBetween(@Param("sinceId") Long sinceId, @Param("boundId") Long boundId);
+
+    // 거래 내역 키셋 페이지 (최신순). (created_at, id) 커서보다 앞선 행만 → OFFSET 없이 idx_wallet_id_created_at 범위 스캔
+    @Query("select new com.tbc.payments.domain.wallet.LedgerEntryView(l.id, l.type, l.amount, l.reason, l.refType, l.refId, l.createdAt) " +
+            "from WalletLedger l " +
+            "where l.walletId = :walletId " +
+            "  and l.createdAt >= :from " +
+            "  and l.createdAt <= :cursorCreatedAt " +
+            "  and (l.createdAt < :cursorCreatedAt or l.id < :cursorId) " +
+            "order by l.createdAt desc, l.id desc")
+    List<LedgerEntryView> findEntriesBefore(@Param("walletId") Long walletId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    // 내보내기: 서버 커서로 fetch size 만큼씩 받아 흘려보냄 (전체를 메모리에 올리지 않음, useCursorFetch 필요)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.tbc.payments.domain.wallet.LedgerEntryView(l.id, l.type, l.amount, l.reason, l.refType, l.refId, l.createdAt) " +
+            "from WalletLedger l " +
+            "where l.walletId = :walletId and l.createdAt >= :from and l.createdAt < :to " +
+            "order by l.createdAt, l.id")
+    Stream<LedgerEntryView> streamEntries(@Param("walletId") Long walletId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
 }
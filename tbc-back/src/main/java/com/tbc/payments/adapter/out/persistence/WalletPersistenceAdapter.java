@@ -1,10 +1,18 @@
 package com.tbc.payments.adapter.out.persistence;
 
+import com.tbc.common.id.TsidGenerator;
+import com.tbc.payments.application.port.out.WalletLockPort;
 import com.tbc.payments.application.port.out.WalletPersistencePort;
 import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletBalanceView;
+import com.tbc.payments.domain.wallet.WalletReconcileRow;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +21,8 @@ import java.util.Optional;
 public class WalletPersistenceAdapter implements WalletPersistencePort {
 
     private final WalletRepository walletRepository;
+    private final WalletLockPort walletLockPort;
+    private final WalletReadCache walletReadCache;
 
     @Override
     public Optional<Wallet> findByUserId(Long userId) {
@@ -21,16 +31,85 @@ public class WalletPersistenceAdapter implements WalletPersistencePort {
 
     @Override
     public Optional<Wallet> findByUserIdForUpdate(Long userId) {
+        // DB 행 락 전에 프로세스 내 락부터 (경합은 메모리에서 대기)
+        walletLockPort.lockUntilTransactionEnd(userId);
         return walletRepository.findByUserIdForUpdate(userId);
     }
 
+    @Override
+    public List<Wallet> findAllByUserIdsForUpdate(Collection<Long> userIds) {
+        return walletRepository.findAllByUserIdInForUpdate(userIds);
+    }
+
+    @Override
+    public Optional<WalletSnapshot> findSnapshotByUserId(Long userId) {
+        return walletReadCache.get(userId,
+                () -> walletRepository.findBalanceViewByUserId(userId)
+                        .map(v -> new WalletSnapshot(v.walletId(), v.userId(), v.balance(), 0L)),
+                walletRepository::findBalanceById);
+    }
+
     @Override
     public Wallet saveWallet(Wallet wallet) {
-        return walletRepository.save(wallet);
+        Wallet saved = walletRepository.save(wallet);
+        walletReadCache.invalidateAfterCommit(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public Optional<Long> insertIfAbsent(Long userId) {
+        long id = TsidGenerator.next();
+        return walletRepository.insertIgnore(id, userId) == 1 ? Optional.of(id) : Optional.empty();
     }
 
     @Override
     public List<Wallet> findAll() {
         return walletRepository.findAll();
     }
+
+    @Override
+    public List<WalletBalanceView> findBalancesByUserIds(Collection<Long> userIds) {
+        return walletRepository.findBalancesByUserIdIn(userIds);
+    }
+
+    @Override
+    public List<WalletReconcileRow> scanReconcileRows(Long afterWalletId, int limit) {
+        return walletRepository.scanReconcileRows(afterWalletId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean fixBalance(Long walletId, long stored, long expected) {
+        boolean fixed = walletRepository.fixBalance(walletId, stored, expected) == 1;
+        if (fixed) walletReadCache.invalidateAfterCommit(walletId);
+        return fixed;
+    }
+
+    @Override
+    public boolean debitIfEnough(Long walletId, long amount) {
+        boolean debited = walletRepository.debitIfEnough(walletId, amount) == 1;
+        if (debited) walletReadCache.invalidateAfterCommit(walletId);
+        return debited;
+    }
+
+    @Override
+    public void credit(Long walletId, long amount) {
+        if (walletRepository.credit(walletId, amount) != 1) {
+            throw new IllegalStateException("WALLET_NOT_FOUND");
+        }
+        walletReadCache.invalidateAfterCommit(walletId);
+    }
+
+    @Override
+    public void debit(Long walletId, long amount) {
+        if (walletRepository.debit(walletId, amount) != 1) {
+            throw new IllegalStateException("WALLET_NOT_FOUND");
+        }
+        walletReadCache.invalidateAfterCommit(walletId);
+    }
+
+    @Override
+    public Optional<Long> findBalanceByUserId(Long userId) {
+        return walletRepository.findBalanceByUserId(userId);
+    }
 }
\ No newline at end of file
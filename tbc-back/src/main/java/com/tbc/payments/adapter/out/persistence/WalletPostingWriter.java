@@ -0,0 +1,161 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.LedgerType;
+import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletLedger;
+import com.tbc.payments.domain.wallet.WalletMutation;
+import com.tbc.payments.domain.wallet.WalletMutationResult;
+import com.tbc.payments.domain.wallet.WalletMutationResult.Status;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 열린 트랜잭션 안에서 요청(원장 여러 줄, all-or-nothing)들을 순서대로 반영한다.
+ * 멱등키 확인 IN 1번 + 지갑 FOR UPDATE 1번 + 원장 INSERT + 바뀐 지갑 UPDATE 1번씩.
+ * 그룹 커밋 writer 와 group-commit 이 꺼졌을 때의 직접 경로가 같은 규칙을 쓴다.
+ */
+final class WalletPostingWriter {
+
+    private final WalletPersistencePort walletRepo;
+    private final WalletLedgerPersistencePort ledgerRepo;
+
+    WalletPostingWriter(WalletPersistencePort walletRepo, WalletLedgerPersistencePort ledgerRepo) {
+        this.walletRepo = walletRepo;
+        this.ledgerRepo = ledgerRepo;
+    }
+
+    /**
+     * rowByRow=false: 원장을 모아서 배치 INSERT. 다른 경로가 같은 키를 먼저 넣었으면 트랜잭션 전체가 실패한다.
+     * rowByRow=true: 원장을 한 줄씩 appendIfAbsent. 동시에 들어온 같은 키는 DUPLICATE 로 돌려준다 (요청 하나짜리 트랜잭션 전용).
+     */
+    List<List<WalletMutationResult>> apply(List<List<WalletMutation>> postings, boolean rowByRow, TransactionStatus status) {
+        if (rowByRow && postings.size() != 1) {
+            throw new IllegalArgumentException("ROW_BY_ROW_NEEDS_SINGLE_POSTING");
+        }
+        List<WalletMutation> all = postings.stream().flatMap(List::stream).toList();
+
+        // 1) 이미 있는 멱등키 (IN 한 번)
+        Set<String> seenKeys = new HashSet<>(ledgerRepo.findExistingIdempotencyKeys(
+                all.stream().map(WalletMutation::idempotencyKey).collect(Collectors.toSet())));
+        Set<String> existing = Set.copyOf(seenKeys);
+
+        // 2) 관련 지갑 잠금 (id 순서, 한 번)
+        Map<Long, Wallet> wallets = walletRepo.findAllByUserIdsForUpdate(
+                        all.stream().map(WalletMutation::userId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Wallet::getUserId, Function.identity()));
+        Map<Long, Long> running = new HashMap<>();
+        wallets.forEach((userId, w) -> running.put(userId, w.getBalance()));
+
+        // 3) 메모리에서 순서대로 적용 (요청 단위 all-or-nothing)
+        List<List<WalletMutationResult>> results = new ArrayList<>(postings.size());
+        List<WalletLedger> ledgers = new ArrayList<>();
+        Set<Long> debited = new HashSet<>();
+        for (List<WalletMutation> legs : postings) {
+            Status failure = check(legs, wallets, running, seenKeys);
+            if (failure != null) {
+                results.add(failed(legs, failure, wallets, running, seenKeys));
+                continue;
+            }
+
+            List<WalletMutationResult> legResults = new ArrayList<>(legs.size());
+            for (WalletMutation m : legs) {
+                Wallet w = wallets.get(m.userId());
+                if (!seenKeys.add(m.idempotencyKey())) {
+                    legResults.add(new WalletMutationResult(Status.DUPLICATE, w.getId(), running.get(m.userId())));
+                    continue;
+                }
+                WalletLedger ledger = ledger(w, m);
+                if (rowByRow) {
+                    if (!ledgerRepo.appendIfAbsent(ledger)) {
+                        // 확인 이후 다른 경로가 같은 키를 커밋함 → 이미 반영된 것
+                        legResults.add(new WalletMutationResult(Status.DUPLICATE, w.getId(), running.get(m.userId())));
+                        continue;
+                    }
+                } else {
+                    ledgers.add(ledger);
+                }
+                long after = running.get(m.userId()) + m.delta();
+                running.put(m.userId(), after);
+                if (m.type() == LedgerType.DEBIT) debited.add(m.userId());
+                legResults.add(new WalletMutationResult(Status.APPLIED, w.getId(), after));
+            }
+            results.add(legResults);
+        }
+
+        // 같은 요청 안의 CREDIT 이 뒤늦게 중복으로 빠져 DEBIT 지갑이 음수가 되면 요청 전체를 되돌린다
+        if (rowByRow && debited.stream().anyMatch(userId -> running.get(userId) < 0)) {
+            status.setRollbackOnly();
+            wallets.forEach((userId, w) -> running.put(userId, w.getBalance()));
+            return List.of(failed(postings.get(0), Status.INSUFFICIENT, wallets, running, existing));
+        }
+
+        // 4) 원장 INSERT (JDBC 배치) + 바뀐 지갑만 UPDATE 1번씩
+        ledgers.forEach(ledgerRepo::saveLedger);
+        wallets.forEach((userId, w) -> {
+            long after = running.get(userId);
+            if (after != w.getBalance()) {
+                w.setBalance(after);
+                walletRepo.saveWallet(w);
+            }
+        });
+        return results;
+    }
+
+    static int appliedEntries(List<List<WalletMutationResult>> results) {
+        return (int) results.stream().flatMap(List::stream).filter(r -> r.status() == Status.APPLIED).count();
+    }
+
+    private static Status check(List<WalletMutation> legs, Map<Long, Wallet> wallets,
+                                Map<Long, Long> running, Set<String> seenKeys) {
+        Map<Long, Long> pending = new HashMap<>();
+        Set<String> postingKeys = new HashSet<>();
+        for (WalletMutation m : legs) {
+            if (wallets.get(m.userId()) == null) {
+                return Status.WALLET_NOT_FOUND;
+            }
+            if (seenKeys.contains(m.idempotencyKey()) || !postingKeys.add(m.idempotencyKey())) continue;
+            long after = pending.getOrDefault(m.userId(), running.get(m.userId())) + m.delta();
+            if (m.type() == LedgerType.DEBIT && after < 0) {
+                return Status.INSUFFICIENT;
+            }
+            pending.put(m.userId(), after);
+        }
+        return null;
+    }
+
+    private static List<WalletMutationResult> failed(List<WalletMutation> legs, Status failure, Map<Long, Wallet> wallets,
+                                                     Map<Long, Long> running, Set<String> seenKeys) {
+        List<WalletMutationResult> legResults = new ArrayList<>(legs.size());
+        for (WalletMutation m : legs) {
+            Wallet w = wallets.get(m.userId());
+            boolean culprit = (failure == Status.WALLET_NOT_FOUND && w == null)
+                    || (failure == Status.INSUFFICIENT && m.type() == LedgerType.DEBIT
+                    && !seenKeys.contains(m.idempotencyKey()));
+            legResults.add(new WalletMutationResult(culprit ? failure : Status.SKIPPED,
+                    w != null ? w.getId() : null, w != null ? running.get(m.userId()) : null));
+        }
+        return legResults;
+    }
+
+    private static WalletLedger ledger(Wallet w, WalletMutation m) {
+        return WalletLedger.builder()
+                .walletId(w.getId())
+                .type(m.type())
+                .amount(m.amount())
+                .reason(m.reason())
+                .refType(m.refType())
+                .refId(m.refId())
+                .idempotencyKey(m.idempotencyKey())
+                .build();
+    }
+}
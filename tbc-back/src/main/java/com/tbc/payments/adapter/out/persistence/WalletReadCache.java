@@ -0,0 +1,157 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import com.tbc.payments.domain.wallet.WalletSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * userId → (walletId, balance, version) 읽기 캐시.
+ * 원장/잔액 쓰기는 커밋 직후(afterCommit) 해당 지갑 항목의 버전을 올리고 잔액을 비운다.
+ * 읽기 중에 무효화가 끼어들면 버전이 달라지므로 오래된 값을 다시 넣지 않는다.
+ */
+@Component
+public class WalletReadCache {
+
+    private record Entry(Long walletId, Long balance, long version, long loadedAtNanos) {}
+
+    private final WalletCacheProperties props;
+    private final long ttlNanos;
+    private final long maxStalenessNanos;
+
+    private final LinkedHashMap<Long, Entry> byUserId;        // access-order LRU
+    private final Map<Long, Long> userIdByWalletId = new HashMap<>();
+    private long absentInvalidations; // 캐시에 없는 지갑의 무효화 횟수 (진행 중인 로드가 옛 값을 넣지 않게)
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter balanceHits;
+    private final Counter invalidations;
+
+    public WalletReadCache(WalletCacheProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.ttlNanos = props.getTtl().toNanos();
+        this.maxStalenessNanos = props.getMaxStaleness().toNanos();
+
+        int maxSize = Math.max(1, props.getMaxSize());
+        this.byUserId = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= maxSize) return false;
+                userIdByWalletId.remove(eldest.getValue().walletId());
+                return true;
+            }
+        };
+
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.balanceHits = counter(meterRegistry, "balance_hit");
+        this.invalidations = Counter.builder("payments.wallet.cache.invalidations")
+                .description("커밋 후 무효화된 지갑 캐시 항목 수")
+                .register(meterRegistry);
+        Gauge.builder("payments.wallet.cache.size", this, WalletReadCache::size)
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("payments.wallet.cache.requests")
+                .description("지갑 읽기 캐시 조회 결과")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * 캐시 조회, 없거나 만료됐으면 loader 로 읽어서 채운다.
+     * STRICT 모드이거나 잔액이 무효화/지연 한도를 넘겼으면 balanceLoader 로 잔액만 다시 읽는다.
+     */
+    public Optional<WalletSnapshot> get(Long userId,
+                                        Supplier<Optional<WalletSnapshot>> loader,
+                                        LongFunction<Optional<Long>> balanceLoader) {
+        if (!props.isEnabled()) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry e;
+        long absentSeen;
+        synchronized (this) {
+            e = byUserId.get(userId);
+            absentSeen = absentInvalidations;
+        }
+
+        if (e != null && now - e.loadedAtNanos() <= ttlNanos) {
+            hits.increment();
+            if (props.getConsistency() == WalletCacheProperties.Consistency.BOUNDED
+                    && e.balance() != null
+                    && now - e.loadedAtNanos() <= maxStalenessNanos) {
+                balanceHits.increment();
+                return Optional.of(new WalletSnapshot(e.walletId(), userId, e.balance(), e.version()));
+            }
+            // walletId 는 불변이라 그대로 쓰고 잔액만 PK 조회
+            Optional<Long> balance = balanceLoader.apply(e.walletId());
+            if (balance.isEmpty()) {
+                return loader.get();
+            }
+            put(userId, e.walletId(), balance.get(), e.version(), absentSeen, now);
+            return Optional.of(new WalletSnapshot(e.walletId(), userId, balance.get(), e.version()));
+        }
+
+        misses.increment();
+        long expectedVersion = e != null ? e.version() : -1L;
+        Optional<WalletSnapshot> loaded = loader.get();
+        loaded.ifPresent(s -> put(userId, s.walletId(), s.balance(), expectedVersion, absentSeen, now));
+        return loaded.map(s -> new WalletSnapshot(s.walletId(), s.userId(), s.balance(), Math.max(0L, expectedVersion)));
+    }
+
+    /** 읽기 시작 이후 무효화가 없었을 때만 저장 (있었다면 walletId 만 남기고 잔액은 비운다) */
+    private synchronized void put(Long userId, Long walletId, Long balance, long expectedVersion, long absentSeen, long loadedAt) {
+        Entry current = byUserId.get(userId);
+        long currentVersion = current != null ? current.version() : -1L;
+        boolean raced = currentVersion != expectedVersion
+                || (current == null && absentInvalidations != absentSeen);
+        long version = Math.max(0L, currentVersion);
+        byUserId.put(userId, new Entry(walletId, raced ? null : balance, version, loadedAt));
+        userIdByWalletId.put(walletId, userId);
+    }
+
+    /** 현재 트랜잭션이 커밋되면 무효화 (트랜잭션 밖이면 즉시) */
+    public void invalidateAfterCommit(Long walletId) {
+        if (!props.isEnabled() || walletId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(walletId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(walletId);
+            }
+        });
+    }
+
+    synchronized void invalidate(Long walletId) {
+        invalidations.increment();
+        Long userId = userIdByWalletId.get(walletId);
+        Entry e = userId != null ? byUserId.get(userId) : null;
+        if (e == null) {
+            absentInvalidations++;
+            return;
+        }
+        // walletId 매핑은 유지하고 잔액만 비움 (버전 증가 → 진행 중인 로드 결과는 버려짐)
+        byUserId.put(userId, new Entry(e.walletId(), null, e.version() + 1, e.loadedAtNanos()));
+    }
+
+    synchronized int size() {
+        return byUserId.size();
+    }
+}
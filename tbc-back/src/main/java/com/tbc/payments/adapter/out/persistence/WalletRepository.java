@@ -1,16 +1,83 @@
 package com.tbc.payments.adapter.out.persistence;
 
 import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletBalanceView;
+import com.tbc.payments.domain.wallet.WalletReconcileRow;
+import org.springframework.data.domain.Pageable;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     Optional<Wallet> findByUserId(Long userId);
 
+    // 지갑 생성 경합을 예외 없이: user_id UNIQUE 에 걸리면 0
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO wallets (id, user_id, balance, created_at, updated_at) " +
+            "VALUES (:id, :userId, 0, NOW(6), NOW(6))", nativeQuery = true)
+    int insertIgnore(@Param("id") Long id, @Param("userId") Long userId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE) // 비관적 락 (추천)
     @Query("select w from Wallet w where w.userId = :userId")
     Optional<Wallet> findByUserIdForUpdate(Long userId);
+
+    // 여러 지갑을 id 순서로 한 번에 잠금 (그룹 커밋 배치용)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.userId in :userIds order by w.id")
+    List<Wallet> findAllByUserIdInForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    // 락 없이 잔액만 조회 (엔티티 hydrate 없음)
+    @Query("select new com.tbc.payments.domain.wallet.WalletBalanceView(w.id, w.userId, w.balance) " +
+            "from Wallet w where w.userId in :userIds")
+    List<WalletBalanceView> findBalancesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // 정합성 점검: 지갑 id 키셋 페이지 단위로 (체크포인트 + 이후 원장) 합계를 한 번의 GROUP BY 로 계산
+    @Query("select new com.tbc.payments.domain.wallet.WalletReconcileRow(w.id, w.userId, w.balance, " +
+            "  coalesce(c.balanceAtCheckpoint, 0) + coalesce(sum(case when l.type = 'CREDIT' then l.amount else -l.amount end), 0)) " +
+            "from Wallet w " +
+            "left join WalletBalanceCheckpoint c on c.walletId = w.id " +
+            "left join WalletLedger l on l.walletId = w.id and l.id > coalesce(c.lastLedgerId, 0) " +
+            "where w.id > :afterId " +
+            "group by w.id, w.userId, w.balance, c.balanceAtCheckpoint " +
+            "order by w.id")
+    List<WalletReconcileRow> scanReconcileRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 잔액이 충분할 때만 차감 (조건부 UPDATE 한 번, 선행 SELECT ... FOR UPDATE 없음)
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance - :amount, w.updatedAt = CURRENT_TIMESTAMP " +
+            "where w.id = :walletId and w.balance >= :amount")
+    int debitIfEnough(@Param("walletId") Long walletId, @Param("amount") Long amount);
+
+    // 충전은 잔액 부족이 없으므로 조건 없이 더한다
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance + :amount, w.updatedAt = CURRENT_TIMESTAMP " +
+            "where w.id = :walletId")
+    int credit(@Param("walletId") Long walletId, @Param("amount") Long amount);
+
+    // PG 쪽에서 이미 취소된 결제 회수: 잔액이 모자라도 차감한다 (기존 FOR UPDATE 경로와 같은 의미)
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance - :amount, w.updatedAt = CURRENT_TIMESTAMP " +
+            "where w.id = :walletId")
+    int debit(@Param("walletId") Long walletId, @Param("amount") Long amount);
+
+    @Query("select new com.tbc.payments.domain.wallet.WalletBalanceView(w.id, w.userId, w.balance) " +
+            "from Wallet w where w.userId = :userId")
+    Optional<WalletBalanceView> findBalanceViewByUserId(@Param("userId") Long userId);
+
+    @Query("select w.balance from Wallet w where w.id = :walletId")
+    Optional<Long> findBalanceById(@Param("walletId") Long walletId);
+
+    @Query("select w.balance from Wallet w where w.userId = :userId")
+    Optional<Long> findBalanceByUserId(@Param("userId") Long userId);
+
+    // 점검 이후 잔액이 바뀌었으면 덮어쓰지 않는다 (CAS)
+    @Modifying
+    @Query("update Wallet w set w.balance = :expected, w.updatedAt = CURRENT_TIMESTAMP " +
+            "where w.id = :walletId and w.balance = :stored")
+    int fixBalance(@Param("walletId") Long walletId, @Param("stored") Long stored, @Param("expected") Long expected);
 }
@@ -4,8 +4,11 @@ import com.tbc.payments.application.port.out.WebhookEventPersistencePort;
 import com.tbc.payments.domain.webhook.WebhookEvent;
 import com.tbc.payments.domain.webhook.WebhookStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +37,58 @@ public class WebhookEventPersistenceAdapter implements WebhookEventPersistencePo
     public WebhookEvent save(WebhookEvent event) {
         return webhookEventRepository.save(event);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<String> lockClaimable(LocalDateTime receivedBefore, LocalDateTime now, int limit) {
+        return webhookEventRepository.lockClaimable(receivedBefore, now, limit);
+    }
+
+    @Override
+    public void claimAll(Collection<String> eventIds, String owner, LocalDateTime leaseUntil) {
+        if (eventIds.isEmpty()) return;
+        webhookEventRepository.claimAll(eventIds, owner, leaseUntil);
+    }
+
+    @Override
+    public boolean claim(String eventId, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        // PENDING(첫 처리) 또는 FAILED(재시도 선점분)
+        return webhookEventRepository.claim(eventId, List.of(WebhookStatus.PENDING, WebhookStatus.FAILED),
+                owner, now, leaseUntil) == 1;
+    }
+
+    @Override
+    public boolean markFailed(String eventId, int attemptCount, WebhookStatus status, String error,
+                              LocalDateTime nextAttemptAt, String owner, LocalDateTime now) {
+        return webhookEventRepository.markFailed(eventId, attemptCount,
+                List.of(WebhookStatus.PENDING, WebhookStatus.FAILED), status, error, nextAttemptAt, owner, now) == 1;
+    }
+
+    @Override
+    public boolean existsUnfinishedBefore(WebhookEvent event) {
+        if (event.getOrderId() == null) return false;
+        // DEAD 는 관리자 재큐잉 전까지 멈춘 것이라 뒤 이벤트를 막지 않는다
+        return webhookEventRepository.existsUnfinishedBefore(event.getOrderId(),
+                List.of(WebhookStatus.PENDING, WebhookStatus.FAILED), event.getReceivedAt(), event.getId());
+    }
+
+    @Override
+    public List<String> lockDueRetries(LocalDateTime now, int limit) {
+        return webhookEventRepository.lockDueRetries(now, limit);
+    }
+
+    @Override
+    public List<WebhookEvent> findDead(int limit) {
+        return webhookEventRepository.findByStatusOrderByUpdatedAtDesc(WebhookStatus.DEAD, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public int requeueDead(Collection<String> eventIds, int extraAttempts, LocalDateTime now) {
+        if (eventIds.isEmpty()) return 0;
+        return webhookEventRepository.requeueDead(eventIds, extraAttempts, now, WebhookStatus.DEAD, WebhookStatus.FAILED);
+    }
+
+    @Override
+    public int requeueDeadByType(String eventType, int extraAttempts, LocalDateTime now) {
+        return webhookEventRepository.requeueDeadByType(eventType, extraAttempts, now, WebhookStatus.DEAD, WebhookStatus.FAILED);
+    }
+}
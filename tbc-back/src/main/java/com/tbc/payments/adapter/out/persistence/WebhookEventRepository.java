@@ -2,8 +2,14 @@ package com.tbc.payments.adapter.out.persistence;
 
 import com.tbc.payments.domain.webhook.WebhookEvent;
 import com.tbc.payments.domain.webhook.WebhookStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +21,86 @@ public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long
 
     // 실패건만 모으기
     List<WebhookEvent> findByStatus(WebhookStatus status);
+
+    // 선점 가능한 PENDING (lease 없음/만료) 을 잠그고 event_id 만. 다른 인스턴스가 잡은 행은 건너뜀
+    @Query(value = "SELECT event_id FROM webhook_events " +
+            "WHERE status = 'PENDING' AND received_at < :receivedBefore " +
+            "  AND (lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY received_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<String> lockClaimable(@Param("receivedBefore") LocalDateTime receivedBefore,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
+
+    @Modifying
+    @Query("update WebhookEvent e set e.claimedBy = :owner, e.leaseUntil = :leaseUntil where e.eventId in :eventIds")
+    int claimAll(@Param("eventIds") Collection<String> eventIds,
+                 @Param("owner") String owner,
+                 @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 한 건 선점/연장: 내가 잡았거나 아무도 안 잡았거나 lease 가 끝났을 때만
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WebhookEvent e set e.claimedBy = :owner, e.leaseUntil = :leaseUntil " +
+            "where e.eventId = :eventId and e.status in :statuses " +
+            "  and (e.claimedBy = :owner or e.leaseUntil is null or e.leaseUntil < :now)")
+    int claim(@Param("eventId") String eventId,
+              @Param("statuses") Collection<WebhookStatus> statuses,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 재시도 시각이 된 FAILED (idx_webhook_status_next_attempt_at 범위). next_attempt_at 이 없는 옛 행은 바로 대상
+    @Query(value = "SELECT event_id FROM webhook_events " +
+            "WHERE status = 'FAILED' AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "  AND (lease_until IS NULL OR lease_until < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<String> lockDueRetries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 실패 기록: 읽은 시도 횟수 그대로이고 아직 안 끝났고 (내 선점 / 선점 없음 / lease 만료) 일 때만. 다른 워커의 SUCCESS 를 덮지 않는다
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WebhookEvent e set e.status = :status, e.attemptCount = e.attemptCount + 1, e.lastError = :error, " +
+            "  e.nextAttemptAt = :nextAttemptAt, e.leaseUntil = null, e.updatedAt = :now " +
+            "where e.eventId = :eventId and e.attemptCount = :attemptCount and e.status in :statuses " +
+            "  and (e.claimedBy = :owner or e.leaseUntil is null or e.leaseUntil < :now)")
+    int markFailed(@Param("eventId") String eventId,
+                   @Param("attemptCount") int attemptCount,
+                   @Param("statuses") Collection<WebhookStatus> statuses,
+                   @Param("status") WebhookStatus status,
+                   @Param("error") String error,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now);
+
+    // 같은 주문에서 (received_at, id) 가 앞서고 아직 안 끝난 이벤트가 있는지 (idx_webhook_order_received_at)
+    @Query("select case when count(e) > 0 then true else false end from WebhookEvent e " +
+            "where e.orderId = :orderId and e.status in :statuses " +
+            "  and (e.receivedAt < :receivedAt or (e.receivedAt = :receivedAt and e.id < :id))")
+    boolean existsUnfinishedBefore(@Param("orderId") String orderId,
+                                   @Param("statuses") Collection<WebhookStatus> statuses,
+                                   @Param("receivedAt") LocalDateTime receivedAt,
+                                   @Param("id") Long id);
+
+    List<WebhookEvent> findByStatusOrderByUpdatedAtDesc(WebhookStatus status, Pageable pageable);
+
+    // DEAD → FAILED (즉시 재시도), 시도 횟수 한도는 현재 시도 수 + extraAttempts
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :failed, e.nextAttemptAt = :now, " +
+            "e.maxAttempts = e.attemptCount + :extraAttempts, e.updatedAt = :now " +
+            "where e.status = :dead and e.eventId in :eventIds")
+    int requeueDead(@Param("eventIds") Collection<String> eventIds,
+                    @Param("extraAttempts") int extraAttempts,
+                    @Param("now") LocalDateTime now,
+                    @Param("dead") WebhookStatus dead,
+                    @Param("failed") WebhookStatus failed);
+
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :failed, e.nextAttemptAt = :now, " +
+            "e.maxAttempts = e.attemptCount + :extraAttempts, e.updatedAt = :now " +
+            "where e.status = :dead and e.eventType = :eventType")
+    int requeueDeadByType(@Param("eventType") String eventType,
+                          @Param("extraAttempts") int extraAttempts,
+                          @Param("now") LocalDateTime now,
+                          @Param("dead") WebhookStatus dead,
+                          @Param("failed") WebhookStatus failed);
 }
@@ -0,0 +1,51 @@
+package com.tbc.payments.application.exception;
+
+/**
+ * Toss API 호출 실패. status 는 HTTP 상태 코드 (응답을 못 받았으면 0).
+ */
+public class TossClientException extends RuntimeException {
+
+    private final int status;
+    private final boolean notAttempted;
+
+    public TossClientException(String message, int status) {
+        super(message);
+        this.status = status;
+        this.notAttempted = false;
+    }
+
+    public TossClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+        this.notAttempted = false;
+    }
+
+    private TossClientException(String message) {
+        super(message);
+        this.status = 0;
+        this.notAttempted = true;
+    }
+
+    /** 서킷 OPEN / 벌크헤드 포화 등으로 PG 에 요청을 보내지도 않음 */
+    public static TossClientException notAttempted(String message) {
+        return new TossClientException(message);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isNotAttempted() {
+        return notAttempted;
+    }
+
+    /** PG 가 요청을 확정적으로 거절했는지 (4xx, 단 408/429 제외). 아니면 결과를 모르는 상태 */
+    public boolean isRejected() {
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    /** PG 장애로 볼 실패인지 (응답 없음, 5xx, 408, 429). 서킷 브레이커/재시도 판단용 */
+    public boolean isPgFailure() {
+        return !notAttempted && !isRejected();
+    }
+}
@@ -0,0 +1,5 @@
+package com.tbc.payments.application.exception;
+
+public class WalletLockTimeoutException extends RuntimeException {
+    public WalletLockTimeoutException(String message) { super(message); }
+}
@@ -0,0 +1,12 @@
+package com.tbc.payments.application.port.in;
+
+import com.tbc.payments.adapter.in.web.dto.BulkRefundRequest;
+import com.tbc.payments.adapter.in.web.dto.BulkRefundResponse;
+
+public interface BulkRefundUseCase {
+    /** 작업을 만들고 백그라운드로 시작 (즉시 RUNNING 상태 반환) */
+    BulkRefundResponse start(BulkRefundRequest req);
+    BulkRefundResponse get(Long jobId);
+    /** 재시도 가능한 실패 항목을 되살려 다시 실행 */
+    BulkRefundResponse resume(Long jobId);
+}
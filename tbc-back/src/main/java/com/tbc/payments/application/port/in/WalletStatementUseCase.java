@@ -0,0 +1,15 @@
+package com.tbc.payments.application.port.in;
+
+import com.tbc.payments.adapter.in.web.dto.WalletStatementResponse;
+import com.tbc.payments.domain.wallet.LedgerEntryView;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface WalletStatementUseCase {
+    /** 거래 내역 한 페이지 (최신순). cursor 가 없으면 첫 페이지, from/to 는 null 이면 제한 없음 */
+    WalletStatementResponse page(Long userId, LocalDateTime from, LocalDateTime to, String cursor, Integer size);
+
+    /** [from, to) 원장을 시간순으로 한 건씩 sink 에 넘김 (읽기 트랜잭션 하나, 메모리에 모으지 않음) */
+    void export(Long userId, LocalDateTime from, LocalDateTime to, Consumer<LedgerEntryView> sink);
+}
@@ -1,7 +1,13 @@
 package com.tbc.payments.application.port.in;
 
-import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 
 public interface WalletUseCase {
-    Wallet getOrCreate(Long userId);
+    WalletSnapshot getOrCreate(Long userId);
+
+    /**
+     * 락 없이 CREDIT: 원장 INSERT(멱등키 UNIQUE) 후 balance = balance + amount.
+     * @return 이번 호출로 적립했으면 true, 이미 처리된 멱등키면 false
+     */
+    boolean credit(Long userId, long amount, String reason, String refType, String refId, String idempotencyKey);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.tbc.payments.application.port.out;
+
+import com.tbc.payments.domain.refund.BulkRefundItem;
+import com.tbc.payments.domain.refund.BulkRefundItemStatus;
+import com.tbc.payments.domain.refund.BulkRefundJob;
+import com.tbc.payments.domain.refund.BulkRefundJobStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BulkRefundPersistencePort {
+    BulkRefundJob saveJob(BulkRefundJob job);
+    Optional<BulkRefundJob> findJob(Long jobId);
+    List<BulkRefundJob> findJobsByStatus(BulkRefundJobStatus status);
+    List<BulkRefundItem> saveItems(List<BulkRefundItem> items);
+    /** 작업의 전체 항목 (id 순) */
+    List<BulkRefundItem> findItems(Long jobId);
+    List<BulkRefundItem> findItems(Long jobId, BulkRefundItemStatus status);
+    /** 재시도 가능한 FAILED 항목을 PENDING 으로 되돌림 */
+    int requeueRetryable(Long jobId);
+}
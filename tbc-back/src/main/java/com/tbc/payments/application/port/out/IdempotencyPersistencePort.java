@@ -0,0 +1,21 @@
+package com.tbc.payments.application.port.out;
+
+import com.tbc.payments.domain.idempotency.IdempotencyKey;
+import com.tbc.payments.domain.idempotency.IdempotentResponse;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyPersistencePort {
+    /** 처음 보는 키면 IN_PROGRESS 로 선점하고 true (SELECT 선행 없음) */
+    boolean claim(String keyHash, String fingerprint, LocalDateTime leaseUntil);
+    Optional<IdempotencyKey> findByKeyHash(String keyHash);
+    /** 선점한 키에 응답 저장 (IN_PROGRESS → COMPLETED) */
+    boolean complete(String keyHash, IdempotentResponse response, LocalDateTime expiresAt);
+    /** 선점 해제 (응답을 남기지 않음 → 재시도가 다시 실행) */
+    void release(String keyHash);
+    /** 만료된 키 하나 삭제 (lease 가 끝난 선점 회수) */
+    void deleteExpired(String keyHash, LocalDateTime now);
+    /** 만료 행 최대 limit 건 삭제 */
+    int purgeExpired(LocalDateTime now, int limit);
+}
@@ -1,10 +1,37 @@
 package com.tbc.payments.application.port.out;
 
 import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentCursorRow;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.payment.PaymentStateTransition;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentPersistencePort {
     Optional<Payment> findByOrderId(String orderId);
     Payment savePayment(Payment payment);
+    /** INIT 주문을 SELECT 없이 INSERT. 같은 orderId 가 이미 있으면 false (그 밖의 제약 위반은 예외) */
+    boolean insertInitIfAbsent(String orderId, Long userId, Long amount);
+    Optional<PaymentState> findStateByOrderId(String orderId);
+    /** 최신 커밋 상태 (공유 잠금 읽기) */
+    Optional<PaymentState> findLatestStateByOrderId(String orderId);
+    /** 조건부 상태 전이 (현재 상태가 expected 일 때만, version +1). paymentKey 가 null 이면 유지 */
+    boolean compareAndSetState(String orderId, PaymentState expected, PaymentState to, String paymentKey);
+    /** 여러 행 조건부 전이 (state = from 인 행만). 갱신된 행 수 */
+    int compareAndSetStates(Collection<Long> ids, PaymentState from, PaymentState to, String failureCode);
+    void appendTransition(PaymentStateTransition transition);
+    void appendTransitions(List<PaymentStateTransition> transitions);
+    /** cutoff 이전에 생성된 INIT 을 (createdAt, id) 커서 다음부터 limit 개 행 잠금과 함께 (다른 인스턴스가 잡은 행은 건너뜀) */
+    List<PaymentCursorRow> lockInitCreatedBefore(LocalDateTime cutoff, LocalDateTime afterCreatedAt, Long afterId, int limit);
+    /** 상태 전이 이력 (오래된 순) */
+    List<PaymentStateTransition> findTransitions(String orderId);
+    /** 승인 시 참가비를 차감한 모임 기록 (처음 한 번만) */
+    void tagMeetup(String orderId, Long meetupId);
+    List<Payment> findByMeetupId(Long meetupId, Collection<PaymentState> states);
+    List<Payment> findByOrderIds(Collection<String> orderIds);
+    /** before 이전부터 state 에 머물러 있는 결제 (오래된 순) */
+    List<Payment> findStale(PaymentState state, LocalDateTime before, int limit);
 }
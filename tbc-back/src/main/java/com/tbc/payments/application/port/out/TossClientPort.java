@@ -7,4 +7,6 @@ import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
 public interface TossClientPort {
     TossPaymentRes confirm(TossConfirmReq req);
     TossPaymentRes cancel(String paymentKey, TossCancelReq req);
+    /** 결제 단건 조회 (CONFIRMING 복구용) */
+    TossPaymentRes getPayment(String paymentKey);
 }
@@ -0,0 +1,15 @@
+package com.tbc.payments.application.port.out;
+
+import com.tbc.payments.domain.wallet.WalletBalanceCheckpoint;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletBalanceCheckpointPort {
+    Optional<WalletBalanceCheckpoint> findByWalletId(Long walletId);
+    Optional<WalletBalanceCheckpoint> findByWalletIdForUpdate(Long walletId);
+    /** 체크포인트가 있는 지갑 id 키셋 페이지 */
+    List<Long> findWalletIdsAfter(Long afterWalletId, int limit);
+    WalletBalanceCheckpoint saveCheckpoint(WalletBalanceCheckpoint checkpoint);
+    Long findMinLastLedgerId();
+}
@@ -1,11 +1,40 @@
 package com.tbc.payments.application.port.out;
 
+import com.tbc.payments.domain.wallet.LedgerCursor;
+import com.tbc.payments.domain.wallet.LedgerEntryView;
 import com.tbc.payments.domain.wallet.WalletLedger;
+import com.tbc.payments.domain.wallet.WalletMutation;
+import com.tbc.payments.domain.wallet.WalletMutationResult;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface WalletLedgerPersistencePort {
     WalletLedger saveLedger(WalletLedger ledger);
+    /** 멱등키가 처음이면 즉시 INSERT 하고 true, 이미 있으면 false (SELECT 선행 없음) */
+    boolean appendIfAbsent(WalletLedger ledger);
+    /**
+     * 원장 여러 줄 + 잔액 변경을 한 요청(all-or-nothing)으로 반영하고 줄마다 결과를 돌려준다.
+     * 멱등키가 이미 있는 줄은 DUPLICATE(성공 취급, 잔액 그대로). 트랜잭션 밖에서 불러야 한다.
+     * payments.group-commit.enabled 면 지갑 샤드별 writer 가 여러 요청을 한 트랜잭션으로 묶는다.
+     */
+    List<WalletMutationResult> post(List<WalletMutation> legs);
     Optional<WalletLedger> findByIdempotencyKey(String idempotencyKey);
+    /** 멱등키 존재 여부 (커밋이 확인된 키는 메모리에서, "없음" 은 항상 DB 로 확인) */
+    boolean existsByIdempotencyKey(String idempotencyKey);
+    /** 주어진 멱등키 중 이미 있는 것만 (IN 조회 한 번) */
+    Set<String> findExistingIdempotencyKeys(Collection<String> keys);
+    /** 지갑 원장 합계 (체크포인트 + 이후 원장) */
     Long sumByWalletId(Long walletId);
+    Long sumByWalletIdBetween(Long walletId, Long afterId, Long upToId);
+    Long findMaxIdBefore(Long walletId, Long boundId);
+    List<Long> findWalletIdsWithLedgerBetween(Long sinceId, Long boundId);
+    /** 커서보다 앞선 원장 최대 limit 건 (최신순, 키셋) */
+    List<LedgerEntryView> findEntriesBefore(Long walletId, LocalDateTime from, LedgerCursor cursor, int limit);
+    /** [from, to) 원장을 시간순으로 흘려보냄. 트랜잭션 안에서 소비하고 닫아야 한다 */
+    Stream<LedgerEntryView> streamEntries(Long walletId, LocalDateTime from, LocalDateTime to);
 }
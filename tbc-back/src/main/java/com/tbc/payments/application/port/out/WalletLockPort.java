@@ -0,0 +1,18 @@
+package com.tbc.payments.application.port.out;
+
+import java.util.function.Supplier;
+
+public interface WalletLockPort {
+    /**
+     * 트랜잭션을 열기 전에 지갑 락을 잡고 body 를 실행한 뒤 해제한다.
+     * body 안에서 트랜잭션을 연다. 대기는 커넥션 없이 메모리에서 하고, 안쪽 FOR UPDATE 는 이미 잡은 락을 재진입한다.
+     * 여러 지갑을 넘기면 데드락이 나지 않도록 정해진 순서로 잡는다.
+     */
+    <T> T callWithLock(Supplier<T> body, Long... userIds);
+
+    /**
+     * 사용자 지갑에 대한 프로세스 내 락을 잡고, 현재 트랜잭션이 끝나면(커밋/롤백) 해제한다.
+     * callWithLock 안이면 재진입이라 기다리지 않는다. 그 밖에서 부르면 커넥션을 쥔 채 기다리므로 드문 경로에서만 쓴다.
+     */
+    void lockUntilTransactionEnd(Long... userIds);
+}
@@ -1,13 +1,34 @@
 package com.tbc.payments.application.port.out;
 
 import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletBalanceView;
+import com.tbc.payments.domain.wallet.WalletReconcileRow;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface WalletPersistencePort {
     Optional<Wallet> findByUserId(Long userId);
     Optional<Wallet> findByUserIdForUpdate(Long userId);
+    /** 여러 지갑을 id 순으로 잠금 (프로세스 내 락 없이 DB 행 락만) */
+    List<Wallet> findAllByUserIdsForUpdate(Collection<Long> userIds);
+    /** 읽기 전용 조회 (읽기 캐시 경유, 엔티티 아님) */
+    Optional<WalletSnapshot> findSnapshotByUserId(Long userId);
     Wallet saveWallet(Wallet wallet);
+    /** 잔액 0 지갑 생성 (SELECT 선행 없음). 이미 있으면 empty, 만들었으면 walletId */
+    Optional<Long> insertIfAbsent(Long userId);
     List<Wallet> findAll();
+    List<WalletBalanceView> findBalancesByUserIds(Collection<Long> userIds);
+    List<WalletReconcileRow> scanReconcileRows(Long afterWalletId, int limit);
+    boolean fixBalance(Long walletId, long stored, long expected);
+    /** 잔액이 충분할 때만 원자적으로 차감 (1 row 갱신 시 true) */
+    boolean debitIfEnough(Long walletId, long amount);
+    /** 원자적으로 잔액 증가 (선행 락 없음) */
+    void credit(Long walletId, long amount);
+    /** 원자적으로 잔액 감소 (잔액 검사/선행 락 없음, PG 취소 회수용) */
+    void debit(Long walletId, long amount);
+    /** 엔티티를 올리지 않고 현재 잔액만 조회 (벌크 UPDATE 이후 값 확인용) */
+    Optional<Long> findBalanceByUserId(Long userId);
 }
\ No newline at end of file
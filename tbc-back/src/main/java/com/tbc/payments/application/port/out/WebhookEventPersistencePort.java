@@ -3,6 +3,8 @@ package com.tbc.payments.application.port.out;
 import com.tbc.payments.domain.webhook.WebhookEvent;
 import com.tbc.payments.domain.webhook.WebhookStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +13,23 @@ public interface WebhookEventPersistencePort {
     List<WebhookEvent> findTop100ByStatusOrderByReceivedAtAsc(WebhookStatus status);
     List<WebhookEvent> findByStatus(WebhookStatus status);
     WebhookEvent save(WebhookEvent event);
-}
\ No newline at end of file
+    /** 선점 가능한 PENDING 을 FOR UPDATE SKIP LOCKED 로 잠금 (트랜잭션 안에서 claimAll 과 함께) */
+    List<String> lockClaimable(LocalDateTime receivedBefore, LocalDateTime now, int limit);
+    void claimAll(Collection<String> eventIds, String owner, LocalDateTime leaseUntil);
+    /** PENDING/FAILED 이고 (내 선점 / 미선점 / lease 만료) 일 때만 owner 로 선점·연장 */
+    boolean claim(String eventId, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+    /**
+     * 조건부 실패 기록: 시도 횟수가 attemptCount 그대로이고 PENDING/FAILED 이며 (내 선점 / 선점 없음 / lease 만료) 일 때만
+     * status·시도 +1·오류·재시도 시각을 쓰고 선점을 푼다. 그 사이 다른 워커가 SUCCESS 로 끝냈으면 false.
+     */
+    boolean markFailed(String eventId, int attemptCount, WebhookStatus status, String error,
+                       LocalDateTime nextAttemptAt, String owner, LocalDateTime now);
+    /** 같은 주문에서 이 이벤트보다 먼저 받은 PENDING/FAILED 가 있는지 (orderId 가 없으면 false) */
+    boolean existsUnfinishedBefore(WebhookEvent event);
+    /** 재시도 시각이 된 FAILED 를 FOR UPDATE SKIP LOCKED 로 잠금 (claimAll 과 함께) */
+    List<String> lockDueRetries(LocalDateTime now, int limit);
+    List<WebhookEvent> findDead(int limit);
+    /** DEAD → FAILED (즉시 재시도 대상), 시도 한도 = 현재 시도 수 + extraAttempts */
+    int requeueDead(Collection<String> eventIds, int extraAttempts, LocalDateTime now);
+    int requeueDeadByType(String eventType, int extraAttempts, LocalDateTime now);
+}
@@ -0,0 +1,385 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.BulkRefundRequest;
+import com.tbc.payments.adapter.in.web.dto.BulkRefundResponse;
+import com.tbc.payments.adapter.out.client.dto.TossCancelReq;
+import com.tbc.payments.application.exception.TossClientException;
+import com.tbc.payments.application.port.in.BulkRefundUseCase;
+import com.tbc.payments.application.port.out.*;
+import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.refund.BulkRefundItem;
+import com.tbc.payments.domain.refund.BulkRefundItemStatus;
+import com.tbc.payments.domain.refund.BulkRefundJob;
+import com.tbc.payments.domain.refund.BulkRefundJobStatus;
+import com.tbc.payments.domain.wallet.LedgerType;
+import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletLedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 모임 취소 등 일괄 환불.
+ * 1) 작업/항목(주문별 PENDING) 저장 → 2) 윈도우 단위로 PG 취소를 가상 스레드에서 동시 호출 (세마포어로 동시성 제한, 트랜잭션 없음)
+ * → 3) 윈도우 결과를 한 트랜잭션으로 반영 (상태 전이 + 원장 + 지갑 + 항목 상태).
+ * 2)와 3) 사이에 죽으면 항목은 PENDING 으로 남고, 재개 시 같은 Idempotency-Key 로 다시 취소 (PG 가 같은 결과를 주거나 ALREADY_CANCELED).
+ */
+@Slf4j
+@Service
+public class BulkRefundService implements BulkRefundUseCase {
+
+    private static final List<PaymentState> REFUNDABLE = List.of(PaymentState.PAID);
+
+    private final BulkRefundPersistencePort jobRepo;
+    private final PaymentPersistencePort paymentRepo;
+    private final WalletPersistencePort walletRepo;
+    private final WalletLedgerPersistencePort ledgerRepo;
+    private final TossClientPort tossClientPort;
+    private final PaymentStateMachine stateMachine;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+    private final int concurrency;
+    private final int windowSize;
+
+    /** 이 노드에서 실행 중인 작업 (같은 작업 중복 실행 방지) */
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public BulkRefundService(BulkRefundPersistencePort jobRepo,
+                             PaymentPersistencePort paymentRepo,
+                             WalletPersistencePort walletRepo,
+                             WalletLedgerPersistencePort ledgerRepo,
+                             TossClientPort tossClientPort,
+                             PaymentStateMachine stateMachine,
+                             TransactionTemplate tx,
+                             MeterRegistry meterRegistry,
+                             @Value("${payments.bulk-refund.concurrency:10}") int concurrency,
+                             @Value("${payments.bulk-refund.window-size:200}") int windowSize) {
+        this.jobRepo = jobRepo;
+        this.paymentRepo = paymentRepo;
+        this.walletRepo = walletRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.tossClientPort = tossClientPort;
+        this.stateMachine = stateMachine;
+        this.tx = tx;
+        this.meterRegistry = meterRegistry;
+        this.concurrency = Math.max(1, concurrency);
+        this.windowSize = Math.max(1, windowSize);
+    }
+
+    private record Outcome(BulkRefundItem item, Payment payment, boolean canceled,
+                           boolean retryable, String code, String message) {
+        static Outcome ok(BulkRefundItem item, Payment payment) {
+            return new Outcome(item, payment, true, false, null, null);
+        }
+
+        static Outcome fail(BulkRefundItem item, Payment payment, boolean retryable, String code, String message) {
+            return new Outcome(item, payment, false, retryable, code, message);
+        }
+    }
+
+    @Override
+    public BulkRefundResponse start(BulkRefundRequest req) {
+        if (req.meetupId() == null && (req.orderIds() == null || req.orderIds().isEmpty())) {
+            throw new IllegalArgumentException("BULK_REFUND_TARGET_MISSING");
+        }
+        BulkRefundJob job = tx.execute(s -> createJob(req));
+        log.info("[BULK-REFUND] job={} meetupId={} total={}", job.getId(), job.getMeetupId(), job.getTotal());
+        launch(job.getId());
+        return get(job.getId());
+    }
+
+    @Override
+    public BulkRefundResponse get(Long jobId) {
+        BulkRefundJob job = jobRepo.findJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("BULK_REFUND_JOB_NOT_FOUND"));
+        List<BulkRefundResponse.Item> items = jobRepo.findItems(jobId).stream()
+                .map(i -> new BulkRefundResponse.Item(i.getOrderId(), i.getStatus().name(), i.getAmount(),
+                        i.getAttempts(), i.isRetryable(), i.getFailureCode(), i.getFailureMsg()))
+                .toList();
+        int pending = (int) items.stream().filter(i -> i.status().equals(BulkRefundItemStatus.PENDING.name())).count();
+        return new BulkRefundResponse(job.getId(), job.getMeetupId(), job.getStatus().name(),
+                job.getTotal(), job.getSucceeded(), job.getFailed(), pending, items);
+    }
+
+    @Override
+    public BulkRefundResponse resume(Long jobId) {
+        tx.executeWithoutResult(s -> {
+            int requeued = jobRepo.requeueRetryable(jobId);
+            BulkRefundJob job = jobRepo.findJob(jobId)
+                    .orElseThrow(() -> new IllegalArgumentException("BULK_REFUND_JOB_NOT_FOUND"));
+            job.setFailed(job.getFailed() - requeued);
+            job.setStatus(BulkRefundJobStatus.RUNNING);
+            jobRepo.saveJob(job);
+            log.info("[BULK-REFUND] job={} resume requeued={}", jobId, requeued);
+        });
+        launch(jobId);
+        return get(jobId);
+    }
+
+    /**
+     * 재기동 시 RUNNING 으로 남은 작업 이어서 처리.
+     * 여러 노드가 같은 작업을 동시에 이어가도 PG Idempotency-Key / 원장 멱등키 / 조건부 전이로 중복 환불은 없다 (호출만 낭비).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (BulkRefundJob job : jobRepo.findJobsByStatus(BulkRefundJobStatus.RUNNING)) {
+            log.info("[BULK-REFUND] resuming job={} after restart", job.getId());
+            launch(job.getId());
+        }
+    }
+
+    private BulkRefundJob createJob(BulkRefundRequest req) {
+        List<Payment> payments;
+        Set<String> missing = new LinkedHashSet<>();
+        if (req.meetupId() != null) {
+            payments = paymentRepo.findByMeetupId(req.meetupId(), REFUNDABLE);
+        } else {
+            Set<String> orderIds = new LinkedHashSet<>(req.orderIds());
+            payments = paymentRepo.findByOrderIds(orderIds);
+            missing.addAll(orderIds);
+            payments.forEach(p -> missing.remove(p.getOrderId()));
+        }
+
+        BulkRefundJob job = jobRepo.saveJob(BulkRefundJob.builder()
+                .meetupId(req.meetupId())
+                .reason(req.reason() != null ? req.reason() : "MEETUP_CANCELED")
+                .status(BulkRefundJobStatus.RUNNING)
+                .build());
+
+        List<BulkRefundItem> items = new ArrayList<>();
+        for (Payment p : payments) {
+            boolean refundable = REFUNDABLE.contains(p.getState());
+            items.add(BulkRefundItem.builder()
+                    .jobId(job.getId())
+                    .orderId(p.getOrderId())
+                    .amount(p.getAmount())
+                    .status(refundable ? BulkRefundItemStatus.PENDING : BulkRefundItemStatus.FAILED)
+                    .failureCode(refundable ? null : "NOT_REFUNDABLE_STATE")
+                    .failureMsg(refundable ? null : p.getState().name())
+                    .build());
+        }
+        for (String orderId : missing) {
+            items.add(BulkRefundItem.builder()
+                    .jobId(job.getId())
+                    .orderId(orderId)
+                    .amount(0L)
+                    .status(BulkRefundItemStatus.FAILED)
+                    .failureCode("ORDER_NOT_FOUND")
+                    .build());
+        }
+        jobRepo.saveItems(items);
+
+        job.setTotal(items.size());
+        job.setFailed((int) items.stream().filter(i -> i.getStatus() == BulkRefundItemStatus.FAILED).count());
+        return jobRepo.saveJob(job);
+    }
+
+    private void launch(Long jobId) {
+        if (!running.add(jobId)) {
+            return;
+        }
+        Thread.ofVirtual().name("bulk-refund-" + jobId).start(() -> {
+            try {
+                run(jobId);
+            } catch (Exception e) {
+                log.error("[BULK-REFUND] job={} stopped, resumable", jobId, e);
+            } finally {
+                running.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        BulkRefundJob job = jobRepo.findJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("BULK_REFUND_JOB_NOT_FOUND"));
+        List<BulkRefundItem> pending = jobRepo.findItems(jobId, BulkRefundItemStatus.PENDING);
+
+        for (int from = 0; from < pending.size(); from += windowSize) {
+            List<BulkRefundItem> window = pending.subList(from, Math.min(from + windowSize, pending.size()));
+            List<Outcome> outcomes = cancelAll(window, job.getReason());
+            apply(jobId, job.getMeetupId(), outcomes);
+        }
+
+        tx.executeWithoutResult(s -> {
+            BulkRefundJob j = jobRepo.findJob(jobId).orElseThrow();
+            if (jobRepo.findItems(jobId, BulkRefundItemStatus.PENDING).isEmpty()) {
+                j.setStatus(j.getFailed() > 0 ? BulkRefundJobStatus.COMPLETED_WITH_FAILURES : BulkRefundJobStatus.COMPLETED);
+                jobRepo.saveJob(j);
+            }
+            log.info("[BULK-REFUND] job={} status={} succeeded={} failed={}",
+                    jobId, j.getStatus(), j.getSucceeded(), j.getFailed());
+        });
+    }
+
+    /** PG 취소를 가상 스레드로 동시 호출 (동시 호출 수는 concurrency 로 제한, Toss 벌크헤드보다 작게) */
+    private List<Outcome> cancelAll(List<BulkRefundItem> window, String reason) {
+        Map<String, Payment> payments = paymentRepo.findByOrderIds(
+                        window.stream().map(BulkRefundItem::getOrderId).toList()).stream()
+                .collect(Collectors.toMap(Payment::getOrderId, Function.identity()));
+
+        Semaphore permits = new Semaphore(concurrency);
+        List<Future<Outcome>> futures = new ArrayList<>(window.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BulkRefundItem item : window) {
+                Payment payment = payments.get(item.getOrderId());
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return cancelOne(item, payment, reason);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(window.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                outcomes.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("BULK_REFUND_INTERRUPTED");
+            } catch (ExecutionException e) {
+                BulkRefundItem item = window.get(i);
+                outcomes.add(Outcome.fail(item, payments.get(item.getOrderId()), true, "UNEXPECTED", String.valueOf(e.getCause())));
+            }
+        }
+        return outcomes;
+    }
+
+    private Outcome cancelOne(BulkRefundItem item, Payment payment, String reason) {
+        if (payment == null) {
+            return Outcome.fail(item, null, false, "ORDER_NOT_FOUND", null);
+        }
+        if (payment.getPaymentKey() == null) {
+            return Outcome.fail(item, payment, false, "PAYMENT_KEY_MISSING", null);
+        }
+        try {
+            tossClientPort.cancel(payment.getPaymentKey(), new TossCancelReq(item.getAmount(), reason));
+            return Outcome.ok(item, payment);
+        } catch (TossClientException e) {
+            // 이미 PG 에서 취소됨 (이전 실행이 취소 후 반영 전에 중단) → 성공으로 본다
+            if (e.getMessage() != null && e.getMessage().contains("ALREADY_CANCELED_PAYMENT")) {
+                meterRegistry.counter("payments.bulk_refund.items", "outcome", "already_canceled").increment();
+                return Outcome.ok(item, payment);
+            }
+            if (e.isRejected()) {
+                return Outcome.fail(item, payment, false, "PG_REJECTED", e.getMessage());
+            }
+            return Outcome.fail(item, payment, true, e.isNotAttempted() ? "PG_BUSY" : "PG_UNAVAILABLE", e.getMessage());
+        }
+    }
+
+    /** 윈도우 결과를 한 트랜잭션으로. 실패하면 항목별 트랜잭션으로 나눠 문제 항목만 실패 처리 */
+    private void apply(Long jobId, Long meetupId, List<Outcome> outcomes) {
+        try {
+            tx.executeWithoutResult(s -> applyBatch(jobId, meetupId, outcomes));
+        } catch (RuntimeException batchError) {
+            log.warn("[BULK-REFUND] job={} batch of {} failed, applying one by one: {}",
+                    jobId, outcomes.size(), batchError.getMessage());
+            for (Outcome o : outcomes) {
+                try {
+                    tx.executeWithoutResult(s -> applyBatch(jobId, meetupId, List.of(o)));
+                } catch (RuntimeException e) {
+                    Outcome failed = Outcome.fail(o.item(), o.payment(), false, "LEDGER_APPLY_FAILED", e.getMessage());
+                    tx.executeWithoutResult(s -> applyBatch(jobId, meetupId, List.of(failed)));
+                }
+            }
+        }
+    }
+
+    private void applyBatch(Long jobId, Long meetupId, List<Outcome> outcomes) {
+        BulkRefundJob job = jobRepo.findJob(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("BULK_REFUND_JOB_NOT_FOUND"));
+
+        // 지갑 행 잠금은 id 순으로 한 번에 (교착 방지)
+        Set<Long> userIds = outcomes.stream()
+                .filter(Outcome::canceled)
+                .map(o -> o.payment().getUserId())
+                .collect(Collectors.toSet());
+        Map<Long, Wallet> wallets = userIds.isEmpty() ? Map.of()
+                : walletRepo.findAllByUserIdsForUpdate(userIds).stream()
+                .collect(Collectors.toMap(Wallet::getUserId, Function.identity()));
+
+        Map<Long, Wallet> touched = new LinkedHashMap<>();
+        List<BulkRefundItem> items = new ArrayList<>(outcomes.size());
+        for (Outcome o : outcomes) {
+            BulkRefundItem item = o.item();
+            item.setAttempts(item.getAttempts() + 1);
+            if (o.canceled()) {
+                Wallet wallet = wallets.get(o.payment().getUserId());
+                if (wallet == null) {
+                    throw new IllegalStateException("WALLET_NOT_FOUND");
+                }
+                applyRefund(jobId, meetupId, o.payment(), wallet);
+                touched.put(wallet.getId(), wallet);
+                item.setStatus(BulkRefundItemStatus.DONE);
+                item.setFailureCode(null);
+                item.setFailureMsg(null);
+                job.setSucceeded(job.getSucceeded() + 1);
+            } else {
+                item.setStatus(BulkRefundItemStatus.FAILED);
+                item.setRetryable(o.retryable());
+                item.setFailureCode(o.code());
+                item.setFailureMsg(o.message() != null && o.message().length() > 255 ? o.message().substring(0, 255) : o.message());
+                job.setFailed(job.getFailed() + 1);
+            }
+            meterRegistry.counter("payments.bulk_refund.items", "outcome", item.getStatus().name().toLowerCase()).increment();
+            items.add(item);
+        }
+
+        touched.values().forEach(walletRepo::saveWallet);
+        jobRepo.saveItems(items);
+        jobRepo.saveJob(job);
+    }
+
+    /**
+     * PAID → REFUNDED 조건부 전이에 이긴 쪽만 충전액 DEBIT (웹훅 CANCELED 가 먼저 처리했으면 건너뜀).
+     * 모임 취소면 참가비 차감(JOIN)을 되돌리는 CREDIT 도 남긴다 (전이 승패와 무관, 멱등키로 한 번만).
+     */
+    private void applyRefund(Long jobId, Long meetupId, Payment payment, Wallet wallet) {
+        if (meetupId != null) {
+            ledgerRepo.findByIdempotencyKey("JOIN:" + meetupId + ":" + payment.getUserId()).ifPresent(join -> {
+                boolean inserted = ledgerRepo.appendIfAbsent(WalletLedger.builder()
+                        .walletId(wallet.getId())
+                        .type(LedgerType.CREDIT)
+                        .amount(join.getAmount())
+                        .reason("MEETUP_JOIN_REFUND")
+                        .refType("MEETUP")
+                        .refId(String.valueOf(meetupId))
+                        .idempotencyKey("JOIN_REFUND:" + meetupId + ":" + payment.getUserId())
+                        .build());
+                if (inserted) {
+                    wallet.setBalance(wallet.getBalance() + join.getAmount());
+                }
+            });
+        }
+
+        if (stateMachine.transit(payment.getOrderId(), REFUNDABLE, PaymentState.REFUNDED, null, "BULK_REFUND:" + jobId).isEmpty()) {
+            return;
+        }
+        boolean inserted = ledgerRepo.appendIfAbsent(WalletLedger.builder()
+                .walletId(wallet.getId())
+                .type(LedgerType.DEBIT)
+                .amount(payment.getAmount())
+                .reason("REFUND")
+                .refType("PAYMENT")
+                .refId(payment.getOrderId())
+                .idempotencyKey("BULK_REFUND:" + payment.getOrderId())
+                .build());
+        if (inserted) {
+            wallet.setBalance(wallet.getBalance() - payment.getAmount());
+        }
+    }
+}
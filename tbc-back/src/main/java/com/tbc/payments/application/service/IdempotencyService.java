@@ -0,0 +1,245 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.application.port.out.IdempotencyPersistencePort;
+import com.tbc.payments.domain.idempotency.IdempotencyKey;
+import com.tbc.payments.domain.idempotency.IdempotencyStatus;
+import com.tbc.payments.domain.idempotency.IdempotentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * HTTP Idempotency-Key 저장소.
+ * 1) 최근 완료 응답은 메모리(hot tier)에서 바로 재생
+ * 2) 같은 노드에서 같은 키가 처리 중이면 그 결과를 같이 기다림
+ * 3) DB 에 INSERT IGNORE 로 선점 → 다른 노드가 처리 중이면 완료될 때까지 짧게 재확인
+ * 같은 키에 본문이 다르면 재생하지 않고 거절한다. 5xx 응답은 저장하지 않는다 (재시도가 다시 실행).
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String IN_PROGRESS = "IDEMPOTENCY_REQUEST_IN_PROGRESS";
+    public static final String KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+
+    /** begin 결과: 직접 실행 / 저장된 응답 재생 / 거절 */
+    public sealed interface Outcome permits Acquired, Replay, Rejected {}
+
+    public record Acquired() implements Outcome {}
+
+    public record Replay(IdempotentResponse response) implements Outcome {}
+
+    public record Rejected(String code) implements Outcome {}
+
+    private record Stored(String fingerprint, IdempotentResponse response, LocalDateTime expiresAt) {}
+
+    private final IdempotencyPersistencePort idempotencyRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration wait;
+    private final Duration poll;
+
+    /** 이 노드에서 처리 중인 키 → 완료 응답 (실패로 끝나면 null) */
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    /** 최근 완료 응답 (access-order LRU) */
+    private final Map<String, Stored> hot;
+
+    public IdempotencyService(IdempotencyPersistencePort idempotencyRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${payments.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${payments.idempotency.lease:PT1M}") Duration lease,
+                              @Value("${payments.idempotency.wait:PT10S}") Duration wait,
+                              @Value("${payments.idempotency.poll:PT0.2S}") Duration poll,
+                              @Value("${payments.idempotency.hot-cache-size:10000}") int hotCacheSize) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.wait = wait;
+        this.poll = poll;
+        int maxSize = Math.max(1, hotCacheSize);
+        this.hot = Collections.synchronizedMap(new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * 요청 처리 전 호출. Acquired 를 받았으면 반드시 complete 또는 abandon 으로 끝내야 한다.
+     */
+    public Outcome begin(String keyHash, String fingerprint) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Stored cached = hotGet(keyHash);
+            if (cached != null) {
+                return replay(cached, fingerprint, "replayed_hot");
+            }
+
+            CompletableFuture<Stored> mine = new CompletableFuture<>();
+            CompletableFuture<Stored> leader = inFlight.putIfAbsent(keyHash, mine);
+            if (leader != null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return reject(IN_PROGRESS);
+                }
+                try {
+                    Stored done = leader.get(remaining, TimeUnit.NANOSECONDS);
+                    if (done != null) {
+                        return replay(done, fingerprint, "joined");
+                    }
+                    continue; // 첫 요청이 응답을 남기지 못함 → 다시 선점 시도
+                } catch (TimeoutException e) {
+                    return reject(IN_PROGRESS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return reject(IN_PROGRESS);
+                } catch (ExecutionException e) {
+                    continue;
+                }
+            }
+
+            try {
+                Outcome outcome = claim(keyHash, fingerprint, mine, deadline);
+                if (outcome instanceof Acquired) {
+                    count("acquired");
+                }
+                return outcome;
+            } catch (RuntimeException e) {
+                finish(keyHash, null);
+                throw e;
+            }
+        }
+    }
+
+    /** DB 선점. 로컬 flight(mine) 는 선점 성공 시 그대로 두고, 그 외에는 결과를 넘기고 정리한다 */
+    private Outcome claim(String keyHash, String fingerprint, CompletableFuture<Stored> mine, long deadline) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            if (idempotencyRepository.claim(keyHash, fingerprint, now.plus(lease))) {
+                return new Acquired();
+            }
+            Optional<IdempotencyKey> existing = idempotencyRepository.findByKeyHash(keyHash);
+            if (existing.isEmpty()) {
+                continue; // 그 사이 해제/정리됨
+            }
+            IdempotencyKey record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                // 보관 기간이 끝났거나 lease 가 끝난 선점(노드 장애) → 회수 후 다시 선점
+                idempotencyRepository.deleteExpired(keyHash, now);
+                continue;
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                Stored stored = new Stored(record.getFingerprint(),
+                        new IdempotentResponse(record.getHttpStatus(), record.getContentType(), record.getResponseBody()),
+                        record.getExpiresAt());
+                hot.put(keyHash, stored);
+                finish(keyHash, stored);
+                return replay(stored, fingerprint, "replayed_db");
+            }
+            if (!record.getFingerprint().equals(fingerprint)) {
+                finish(keyHash, null);
+                return reject(KEY_REUSED);
+            }
+            // 다른 노드가 처리 중 → 완료될 때까지 짧게 재확인
+            if (System.nanoTime() - deadline > 0) {
+                finish(keyHash, null);
+                return reject(IN_PROGRESS);
+            }
+            count("db_wait");
+            try {
+                Thread.sleep(poll.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(keyHash, null);
+                return reject(IN_PROGRESS);
+            }
+        }
+    }
+
+    /** 선점한 키의 응답 저장. 5xx 는 일시 장애일 수 있으므로 저장하지 않고 해제 */
+    public void complete(String keyHash, String fingerprint, IdempotentResponse response) {
+        if (response.status() >= 500) {
+            abandon(keyHash);
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        Stored stored = new Stored(fingerprint, response, expiresAt);
+        try {
+            if (!idempotencyRepository.complete(keyHash, response, expiresAt)) {
+                // lease 가 끝나 다른 요청이 회수함 → 그쪽 결과가 기준
+                log.warn("[IDEMPOTENCY] lease lost before completion, keyHash={}", keyHash);
+                finish(keyHash, null);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("[IDEMPOTENCY] failed to store response, releasing keyHash={}: {}", keyHash, e.getMessage());
+            abandon(keyHash);
+            return;
+        }
+        hot.put(keyHash, stored);
+        finish(keyHash, stored);
+    }
+
+    /** 응답을 남기지 않고 선점 해제 (예외/5xx) */
+    public void abandon(String keyHash) {
+        try {
+            idempotencyRepository.release(keyHash);
+        } catch (RuntimeException e) {
+            // 해제 실패 시에도 lease 가 끝나면 회수된다
+            log.warn("[IDEMPOTENCY] release failed keyHash={}: {}", keyHash, e.getMessage());
+        }
+        count("released");
+        finish(keyHash, null);
+    }
+
+    /** 만료 행 정리 (hot tier 는 조회 시 만료 확인) */
+    public int purgeExpired(int limit) {
+        return idempotencyRepository.purgeExpired(LocalDateTime.now(), limit);
+    }
+
+    private Stored hotGet(String keyHash) {
+        Stored s = hot.get(keyHash);
+        if (s != null && s.expiresAt().isBefore(LocalDateTime.now())) {
+            hot.remove(keyHash, s);
+            return null;
+        }
+        return s;
+    }
+
+    private void finish(String keyHash, Stored result) {
+        CompletableFuture<Stored> flight = inFlight.remove(keyHash);
+        if (flight != null) {
+            flight.complete(result);
+        }
+    }
+
+    private Outcome replay(Stored stored, String fingerprint, String result) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return reject(KEY_REUSED);
+        }
+        count(result);
+        return new Replay(stored.response());
+    }
+
+    private Outcome reject(String code) {
+        count(IN_PROGRESS.equals(code) ? "in_progress" : "key_reused");
+        return new Rejected(code);
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("payments.idempotency", "result", result).increment();
+    }
+}
@@ -0,0 +1,84 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.application.port.out.WalletBalanceCheckpointPort;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.domain.wallet.WalletBalanceCheckpoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerCheckpointService {
+
+    private final WalletLedgerPersistencePort ledgerRepo;
+    private final WalletBalanceCheckpointPort checkpointRepo;
+
+    /** (sinceId, boundId) 구간에 원장이 생긴 지갑 목록 */
+    @Transactional(readOnly = true)
+    public List<Long> walletsToRoll(long sinceId, long boundId) {
+        return ledgerRepo.findWalletIdsWithLedgerBetween(sinceId, boundId);
+    }
+
+    /**
+     * 지갑 체크포인트를 boundId 직전 원장까지 앞으로 민다.
+     * 원장만으로 계산하므로(잔액 컬럼 미사용) 여러 인스턴스가 동시에 돌려도 결과가 같다.
+     */
+    @Transactional
+    public boolean rollForward(Long walletId, long boundId) {
+        WalletBalanceCheckpoint cp = checkpointRepo.findByWalletIdForUpdate(walletId)
+                .orElseGet(() -> WalletBalanceCheckpoint.builder()
+                        .walletId(walletId)
+                        .lastLedgerId(0L)
+                        .balanceAtCheckpoint(0L)
+                        .build());
+
+        Long newLast = ledgerRepo.findMaxIdBefore(walletId, boundId);
+        if (newLast == null || newLast <= cp.getLastLedgerId()) {
+            return false;
+        }
+
+        long delta = ledgerRepo.sumByWalletIdBetween(walletId, cp.getLastLedgerId(), newLast);
+        cp.setBalanceAtCheckpoint(cp.getBalanceAtCheckpoint() + delta);
+        cp.setLastLedgerId(newLast);
+        checkpointRepo.saveCheckpoint(cp);
+        log.debug("[CHECKPOINT] walletId={} lastLedgerId={} balance={}", walletId, newLast, cp.getBalanceAtCheckpoint());
+        return true;
+    }
+
+    /** 체크포인트가 있는 지갑을 wallet_id 순으로 (검증 순회용) */
+    @Transactional(readOnly = true)
+    public List<Long> checkpointedWallets(long afterWalletId, int limit) {
+        return checkpointRepo.findWalletIdsAfter(afterWalletId, limit);
+    }
+
+    /**
+     * 체크포인트를 원장 전체 합으로 검증하고, 틀렸으면 다시 계산해 덮어쓴다.
+     * 롤포워드는 TSID 시간순과 safety-lag 에 기대므로, 노드 간 시계 차이나 safety-lag 보다 긴 트랜잭션이
+     * last_ledger_id 아래에 늦게 커밋한 행은 체크포인트에도, 그 이후 합산에도 들어가지 않는다. 그런 행을 여기서 다시 넣는다.
+     *
+     * @return 틀려서 고쳤으면 true
+     */
+    @Transactional
+    public boolean verify(Long walletId) {
+        Optional<WalletBalanceCheckpoint> found = checkpointRepo.findByWalletIdForUpdate(walletId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        WalletBalanceCheckpoint cp = found.get();
+        long full = ledgerRepo.sumByWalletIdBetween(walletId, 0L, cp.getLastLedgerId());
+        if (full == cp.getBalanceAtCheckpoint()) {
+            return false;
+        }
+        log.warn("[CHECKPOINT] repaired walletId={} lastLedgerId={} checkpoint={} ledger={}",
+                walletId, cp.getLastLedgerId(), cp.getBalanceAtCheckpoint(), full);
+        cp.setBalanceAtCheckpoint(full);
+        checkpointRepo.saveCheckpoint(cp);
+        return true;
+    }
+}
@@ -1,12 +1,11 @@
 package com.tbc.payments.application.service;
 
 
-import com.tbc.payments.domain.wallet.Wallet;
-import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
-import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.adapter.in.web.dto.ReconcileReport;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.domain.payment.PaymentStateTransition;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,33 +13,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MonitoringService {
 
-    private final WalletPersistencePort walletRepo;
-    private final WalletLedgerPersistencePort ledgerRepo;
+    private final WalletReconcileEngine reconcileEngine;
+    private final PaymentPersistencePort paymentRepository;
 
     /**
-     * 모든 wallet 의 balance 와 ledger 합계가 일치하는지 검증
+     * 모든 wallet 의 balance 와 ledger 합계가 일치하는지 검증 (불일치만 보고)
      */
-    @Transactional(readOnly = true)
-    public String checkConsistency() {
-        StringBuilder sb = new StringBuilder();
-        List<Wallet> wallets = walletRepo.findAll();
+    public ReconcileReport checkConsistency() {
+        return reconcileEngine.run(false);
+    }
 
-        for (Wallet w : wallets) {
-            Long ledgerSum = ledgerRepo.sumByWalletId(w.getId());
-            if (!w.getBalance().equals(ledgerSum)) {
-                sb.append("❌ Wallet ID=")
-                        .append(w.getId())
-                        .append(" 불일치: balance=")
-                        .append(w.getBalance())
-                        .append(", ledgerSum=")
-                        .append(ledgerSum)
-                        .append("\n");
-            } else {
-                sb.append("✅ Wallet ID=")
-                        .append(w.getId())
-                        .append(" OK\n");
-            }
-        }
-        return sb.toString();
+    /**
+     * 결제 상태 전이 이력 (감사/재생용, 오래된 순)
+     */
+    public List<PaymentStateTransition> paymentTransitions(String orderId) {
+        return paymentRepository.findTransitions(orderId);
     }
-}
\ No newline at end of file
+}
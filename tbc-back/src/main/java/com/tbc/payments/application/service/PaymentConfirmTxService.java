@@ -0,0 +1,134 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.ConfirmRequest;
+import com.tbc.payments.adapter.in.web.dto.ConfirmResponse;
+import com.tbc.payments.application.port.in.WalletUseCase;
+import com.tbc.payments.application.port.out.MeetupPointPort;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 결제 승인 2단계 흐름의 DB 구간 (각각 짧은 트랜잭션).
+ * PG 호출은 이 빈 바깥(트랜잭션 없음)에서 일어나므로 커넥션/행을 외부 왕복 동안 잡지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentConfirmTxService {
+
+    private final PaymentPersistencePort paymentRepository;
+    private final PaymentStateMachine stateMachine;
+    private final WalletPersistencePort walletRepository;
+    private final WalletUseCase walletUseCase;
+    private final MeetupPointPort meetupPointPort;
+
+    /** 1단계 결과: 이미 PAID 면 alreadyPaid 에 응답, 아니면 CONFIRMING 으로 넘어간 상태 */
+    public record Begin(ConfirmResponse alreadyPaid) {
+        public boolean started() {
+            return alreadyPaid == null;
+        }
+    }
+
+    /** 1단계: 주문/금액 확인 후 INIT → CONFIRMING (paymentKey 기록, 복구 시 조회용) */
+    @Transactional
+    public Begin begin(ConfirmRequest req) {
+        Payment payment = paymentRepository.findByOrderId(req.orderId())
+                .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
+
+        if (!payment.getAmount().equals(req.amount())) {
+            throw new IllegalStateException("AMOUNT_MISMATCH");
+        }
+
+        // 멱등: 이미 PAID면 현재 잔액 리턴 (읽기 캐시 경유)
+        if (payment.getState() == PaymentState.PAID) {
+            WalletSnapshot w = walletRepository.findSnapshotByUserId(payment.getUserId())
+                    .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
+            return new Begin(new ConfirmResponse(payment.getOrderId(), payment.getState().name(),
+                    payment.getAmount(), w.balance()));
+        }
+        if (payment.getState() == PaymentState.CONFIRMING) {
+            throw new IllegalStateException("PAYMENT_CONFIRM_IN_PROGRESS");
+        }
+
+        if (stateMachine.transit(req.orderId(), List.of(PaymentState.INIT), PaymentState.CONFIRMING,
+                req.paymentKey(), "CONFIRM_BEGIN").isEmpty()) {
+            throw new IllegalStateException("INVALID_STATE_TRANSITION");
+        }
+        return new Begin(null);
+    }
+
+    /**
+     * 2단계: (INIT|CONFIRMING) → PAID + CREDIT. 웹훅 DONE / 복구 스윕도 같은 경로를 쓴다.
+     * 전이에 성공한 쪽만 적립하므로 승인 응답과 웹훅이 겹쳐도 한 번만 적립된다.
+     */
+    @Transactional
+    public ConfirmResponse complete(String orderId, String paymentKey, Long autoDeductMeetupId) {
+        boolean transited = stateMachine.transit(orderId,
+                List.of(PaymentState.INIT, PaymentState.CONFIRMING), PaymentState.PAID, paymentKey, "PG_DONE").isPresent();
+
+        if (!transited && stateMachine.latestState(orderId).orElse(null) != PaymentState.PAID) {
+            throw new IllegalStateException("INVALID_STATE_TRANSITION");
+        }
+        Payment payment = paymentRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
+
+        if (transited) {
+            log.debug("PAYMENT PAID orderId={}, paymentKey={}", orderId, paymentKey);
+            // CREDIT + 원장 기록 (멱등키 UNIQUE 로 중복 차단, 지갑 행 선점 락 없음)
+            String idemKey = "TOPUP:" + orderId;
+            if (!walletUseCase.credit(payment.getUserId(), payment.getAmount(), "TOPUP", "PAYMENT", orderId, idemKey)) {
+                log.warn("Idempotent ledger hit for orderId={}, key={}", orderId, idemKey);
+            }
+        }
+
+        // confirm 직후 참가비 DEBIT (멱등이라 웹훅이 먼저 PAID 로 만든 경우에도 호출)
+        if (autoDeductMeetupId != null) {
+            paymentRepository.tagMeetup(orderId, autoDeductMeetupId); // 모임 취소 시 일괄 환불 대상
+            meetupPointPort.deductForMeetup(
+                    payment.getUserId(),
+                    autoDeductMeetupId,
+                    payment.getAmount(),
+                    "PAYMENT_CONFIRM_JOIN:" + orderId,
+                    "MEETUP_JOIN_AFTER_PAYMENT" // 사유
+            );
+        }
+
+        return paidResponse(payment);
+    }
+
+    /** PG 가 확정적으로 거절 → CONFIRMING → FAILED */
+    @Transactional
+    public void fail(String orderId, String code, String message) {
+        if (stateMachine.transit(orderId, List.of(PaymentState.CONFIRMING), PaymentState.FAILED, null, code).isEmpty()) {
+            return;
+        }
+        paymentRepository.findByOrderId(orderId).ifPresent(p -> {
+            p.setFailureCode(code);
+            p.setFailureMsg(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+            paymentRepository.savePayment(p);
+        });
+        log.info("PAYMENT FAILED orderId={}, code={}", orderId, code);
+    }
+
+    /** PG 에 요청을 보내지도 못함 (서킷 OPEN 등) → CONFIRMING → INIT 으로 되돌려 재시도 가능하게 */
+    @Transactional
+    public void release(String orderId) {
+        stateMachine.transit(orderId, List.of(PaymentState.CONFIRMING), PaymentState.INIT, null, "PG_NOT_ATTEMPTED");
+    }
+
+    // 원자적 UPDATE 결과는 DB 에만 있으므로 (영속성 컨텍스트의 엔티티는 옛 값) 잔액은 스칼라로 다시 읽는다
+    private ConfirmResponse paidResponse(Payment payment) {
+        Long balance = walletRepository.findBalanceByUserId(payment.getUserId())
+                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
+        return new ConfirmResponse(payment.getOrderId(), PaymentState.PAID.name(), payment.getAmount(), balance);
+    }
+}
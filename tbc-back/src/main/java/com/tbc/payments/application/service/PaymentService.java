@@ -1,22 +1,28 @@
 package com.tbc.payments.application.service;
 
+import com.tbc.common.id.CrockfordBase32;
 import com.tbc.payments.adapter.in.web.dto.ConfirmRequest;
 import com.tbc.payments.adapter.in.web.dto.ConfirmResponse;
 import com.tbc.payments.adapter.in.web.dto.CreatePaymentRequest;
 import com.tbc.payments.adapter.in.web.dto.CreatePaymentResponse;
 import com.tbc.payments.adapter.out.client.dto.TossConfirmReq;
 import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
+import com.tbc.payments.application.exception.TossClientException;
 import com.tbc.payments.application.port.in.PaymentUseCase;
 import com.tbc.payments.application.port.in.WalletUseCase;
 import com.tbc.payments.application.port.out.*;
 import com.tbc.payments.domain.payment.*;
-import com.tbc.payments.domain.wallet.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -24,143 +30,129 @@ public class PaymentService implements PaymentUseCase {
 
     private final TossClientPort tossClientPort;
     private final PaymentPersistencePort paymentRepository;
-    private final WalletPersistencePort walletRepository;
-    private final WalletLedgerPersistencePort ledgerRepository;
     private final WalletUseCase walletUseCase;
-    private final MeetupPointPort meetupPointPort;
+    private final PaymentConfirmTxService confirmTx;
+    private final PaymentStateMachine stateMachine;
+    private final MeterRegistry meterRegistry;
+
+    /** Toss orderId 최대 길이 */
+    private static final int MAX_ORDER_ID_LENGTH = 64;
+
+    /** true 면 요청에 orderId 가 없을 때 서버가 시간순 compact ID(Crockford Base32 11자)를 발급 */
+    @Value("${payments.order-id.server-issued:false}")
+    private boolean serverIssuedOrderId;
 
     /**
-     * 결제 INIT: orderId 예약 + 사용자의 지갑 보장(없으면 생성) + 이미 존재하는 orderId면 그대로 리턴 (멱등 처리)
+     * 결제 INIT: orderId 예약 + 사용자의 지갑 보장(없으면 생성). 이미 존재하는 orderId면 그대로 리턴 (멱등 처리)
+     * INSERT 먼저: 보통은 주문 INSERT 한 번(+ 캐시된 지갑 확인)으로 끝나고, order_id 중복이면 기존 주문을 읽어 돌려준다.
      */
     @Transactional
     public CreatePaymentResponse createInit(CreatePaymentRequest req) {
-        // 기존: 중복 orderId가 있으면 예외 던짐
-        // paymentRepository.findByOrderId(req.orderId()).ifPresent(p -> {
-        //     throw new IllegalStateException("DUPLICATE_ORDER_ID");
-        // });
-
-        // 수정: 이미 존재하는 orderId면 그대로 리턴 (멱등 처리)
-        return paymentRepository.findByOrderId(req.orderId())
-                .map(p -> {
-                    log.debug("INIT already exists orderId={}, userId={}, amount={}",
-                            p.getOrderId(), p.getUserId(), p.getAmount());
-                    return new CreatePaymentResponse(p.getOrderId());
-                })
-                .orElseGet(() -> {
-                    // 지갑 보장 (없으면 balance=0으로 생성)
-                    walletUseCase.getOrCreate(req.userId());
-
-                    Payment p = Payment.builder()
-                            .orderId(req.orderId())
-                            .userId(req.userId())
-                            .amount(req.amount())
-                            .state(PaymentState.INIT)
-                            .build();
-
-                    paymentRepository.savePayment(p);
-                    log.debug("INIT saved orderId={}, userId={}, amount={}",
-                            p.getOrderId(), p.getUserId(), p.getAmount());
-                    return new CreatePaymentResponse(p.getOrderId());
-                });
+        // 컨트롤러의 @Valid 를 거치지 않는 호출도 있어 여기서 한 번 더 (null 금액/잘린 orderId 가 저장되지 않게)
+        if (req.userId() == null) throw new IllegalArgumentException("USER_ID_REQUIRED");
+        if (req.amount() == null || req.amount() <= 0) throw new IllegalArgumentException("INVALID_AMOUNT");
+        String orderId = resolveOrderId(req);
+
+        // 첫 문장이 INSERT 라야 중복(상대 커밋 대기 후 중복키 오류) 뒤의 SELECT 가 상대 행을 본다 (REPEATABLE READ 스냅샷이 그 뒤에 생김)
+        if (!paymentRepository.insertInitIfAbsent(orderId, req.userId(), req.amount())) {
+            Payment existing = paymentRepository.findByOrderId(orderId)
+                    .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND"));
+            if (!existing.getUserId().equals(req.userId()) || !existing.getAmount().equals(req.amount())) {
+                throw new IllegalStateException("DUPLICATE_ORDER_ID");
+            }
+            log.debug("INIT already exists orderId={}, userId={}, amount={}",
+                    existing.getOrderId(), existing.getUserId(), existing.getAmount());
+            return new CreatePaymentResponse(existing.getOrderId());
+        }
+
+        // 지갑 보장 (없으면 balance=0으로 생성, 있으면 읽기 캐시에서 확인)
+        walletUseCase.getOrCreate(req.userId());
+        stateMachine.recordCreated(orderId);
+        log.debug("INIT saved orderId={}, userId={}, amount={}", orderId, req.userId(), req.amount());
+        return new CreatePaymentResponse(orderId);
+    }
+
+    private String resolveOrderId(CreatePaymentRequest req) {
+        if (req.orderId() != null && !req.orderId().isBlank()) {
+            if (req.orderId().length() > MAX_ORDER_ID_LENGTH) {
+                throw new IllegalArgumentException("ORDER_ID_TOO_LONG");
+            }
+            return req.orderId(); // 클라이언트 지정 또는 발급받은 ID 로 재시도
+        }
+        if (!serverIssuedOrderId) {
+            throw new IllegalArgumentException("ORDER_ID_REQUIRED");
+        }
+        return CrockfordBase32.nextId();
     }
 
     // INIT 상태 결제 취소
     @Transactional
     @Override
     public Payment cancelInit(String orderId) {
-        Payment payment = paymentRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND"));
-
-        if (payment.getState() != PaymentState.INIT) {
+        if (paymentRepository.findStateByOrderId(orderId).isEmpty()) {
+            throw new IllegalStateException("ORDER_NOT_FOUND");
+        }
+        // 조건부 전이: 동시에 승인이 시작됐으면(CONFIRMING) 취소하지 않는다
+        if (stateMachine.transit(orderId, List.of(PaymentState.INIT), PaymentState.CANCELED, null, "USER_CANCEL").isEmpty()) {
             throw new IllegalStateException("ONLY_INIT_CAN_BE_CANCELLED");
         }
-
-        payment.setState(PaymentState.CANCELED);
-        return paymentRepository.savePayment(payment);
+        return paymentRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND"));
     }
 
     /**
-     * Toss Confirm + 잔액 CREDIT + 원장 기록 (멱등)
+     * Toss Confirm + 잔액 CREDIT + 원장 기록 (멱등).
+     * 트랜잭션 없이 진행: [짧은 tx] INIT→CONFIRMING → [tx 없음] PG 승인 → [짧은 tx] CONFIRMING→PAID + CREDIT.
+     * PG 응답을 못 받으면 CONFIRMING 으로 남고 ConfirmingPaymentSweeper / 웹훅이 마무리한다.
      */
-    @Transactional
     public ConfirmResponse confirmAndCredit(ConfirmRequest req) {
-        // 1) 서버 원주문 확인 & 금액 대조
-        Payment payment = paymentRepository.findByOrderId(req.orderId())
-                .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
-
-        if (!payment.getAmount().equals(req.amount())) {
-            throw new IllegalStateException("AMOUNT_MISMATCH");
+        // 1) 서버 원주문 확인 & 금액 대조 → CONFIRMING
+        PaymentConfirmTxService.Begin begin = timed("begin", () -> confirmTx.begin(req));
+        if (!begin.started()) {
+            return begin.alreadyPaid();
         }
 
-        // 멱등: 이미 PAID면 현재 잔액 리턴
-        if (payment.getState() == PaymentState.PAID) {
-            Wallet w = walletRepository.findByUserId(payment.getUserId())
-                    .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
-            return new ConfirmResponse(payment.getOrderId(), payment.getState().name(),
-                    payment.getAmount(), w.getBalance());
+        // 2) Toss Confirm 호출 (트랜잭션/커넥션 없음)
+        TossPaymentRes res;
+        try {
+            res = timed("toss", () -> tossClientPort.confirm(new TossConfirmReq(req.paymentKey(), req.orderId(), req.amount())));
+        } catch (TossClientException e) {
+            if (e.isNotAttempted()) {
+                confirmTx.release(req.orderId());
+            } else if (e.isRejected()) {
+                confirmTx.fail(req.orderId(), "TOSS_REJECTED", e.getMessage());
+            }
+            throw e;
         }
 
-        // 2) Toss Confirm 호출
-        TossPaymentRes res = tossClientPort.confirm(new TossConfirmReq(req.paymentKey(), req.orderId(), req.amount()));
-
         if (res == null || res.status() == null) {
             throw new IllegalStateException("INVALID_TOSS_RESPONSE");
         }
         String st = res.status().toUpperCase();
         if (!(st.equals("DONE") || st.equals("SUCCESS"))) {
+            confirmTx.fail(req.orderId(), "NOT_PAID_STATUS", res.status());
             throw new IllegalStateException("PAYMENT_NOT_PAID_STATUS=" + res.status());
         }
 
-        // 3) 상태 전이: INIT -> PAID
-        if (!payment.getState().canTransitTo(PaymentState.PAID)) {
-            throw new IllegalStateException("INVALID_STATE_TRANSITION");
-        }
-        payment.setPaymentKey(res.paymentKey());
-        payment.setState(PaymentState.PAID);
-        paymentRepository.savePayment(payment);
-        log.debug("PAYMENT PAID orderId={}, paymentKey={}", payment.getOrderId(), payment.getPaymentKey());
-
-        // 4) 지갑 잠금 후 CREDIT + 원장 기록 (멱등)
-        Wallet wallet = walletRepository.findByUserIdForUpdate(payment.getUserId())
-                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
-
-        String idemKey = "TOPUP:" + payment.getOrderId();
+        // 3) CONFIRMING -> PAID + CREDIT (+ 참가비 DEBIT)
+        Long autoDeductMeetupId = Boolean.TRUE.equals(req.autoDeduct()) ? req.meetupId() : null;
+        return timed("complete", () -> confirmTx.complete(req.orderId(), res.paymentKey(), autoDeductMeetupId));
+    }
 
+    private <T> T timed(String phase, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            WalletLedger ledger = WalletLedger.builder()
-                    .walletId(wallet.getId())
-                    .type(LedgerType.CREDIT)
-                    .amount(payment.getAmount())
-                    .reason("TOPUP")
-                    .refType("PAYMENT")
-                    .refId(payment.getOrderId())
-                    .idempotencyKey(idemKey)
-                    .build(); // created_at/updated_at은 Auditing이 자동 세팅
-
-            ledgerRepository.saveLedger(ledger);
-
-            wallet.setBalance(wallet.getBalance() + payment.getAmount());
-            // updated_at도 Auditing이 자동 갱신됨 (수동 set 필요X)
-
-        } catch (DataIntegrityViolationException dup) {
-            // 멱등키 UNIQUE 충돌 → 이미 크레딧된 상태로 간주하고 현재 잔액만 반환
-            log.warn("Idempotent ledger hit for orderId={}, key={}", payment.getOrderId(), idemKey);
+            return body.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("payments.confirm.phase")
+                    .description("결제 승인 단계별 소요 시간 (begin/complete 만 DB 커넥션 점유)")
+                    .tag("phase", phase)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
-
-        // confirm 직후 참가비 DEBIT
-        if (Boolean.TRUE.equals(req.autoDeduct()) && req.meetupId() != null) {
-            String externalRef = "PAYMENT_CONFIRM_JOIN:" + payment.getOrderId();
-            meetupPointPort.deductForMeetup(
-                    payment.getUserId(),
-                    req.meetupId(),
-                    payment.getAmount(),
-                    externalRef,
-                    "MEETUP_JOIN_AFTER_PAYMENT" // 사유
-            );
-        }
-
-        walletRepository.saveWallet(wallet);
-        return new ConfirmResponse(payment.getOrderId(), payment.getState().name(),
-                payment.getAmount(), wallet.getBalance());
     }
-}
\ No newline at end of file
+}
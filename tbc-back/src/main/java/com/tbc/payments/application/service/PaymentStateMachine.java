@@ -0,0 +1,128 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.domain.payment.PaymentCursorRow;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.payment.PaymentStateTransition;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 결제 상태 전이의 단일 진입점.
+ * 읽기-수정-저장 대신 "현재 상태가 X 일 때만" 조건부 UPDATE 로 바꾸고 (비관적 락 없음),
+ * 그 사이 다른 요청이 상태를 바꿨으면 최신 상태를 다시 읽어 제한 횟수만큼 재시도한다.
+ * 성공한 전이는 payment_state_transitions 에 같은 트랜잭션으로 남는다.
+ */
+@Slf4j
+@Service
+public class PaymentStateMachine {
+
+    private final PaymentPersistencePort paymentRepository;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+
+    public PaymentStateMachine(PaymentPersistencePort paymentRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${payments.state-transition.max-attempts:3}") int maxAttempts) {
+        this.paymentRepository = paymentRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * from 중 하나이고 canTransitTo(to) 인 상태에서만 to 로 전이.
+     *
+     * @param paymentKey null 이면 기존 값 유지
+     * @return 전이 직전 상태 (전이할 수 없는 상태거나 재시도 끝에 경합에서 졌으면 empty)
+     */
+    @Transactional
+    public Optional<PaymentState> transit(String orderId, Collection<PaymentState> from, PaymentState to,
+                                          String paymentKey, String reason) {
+        PaymentState current = paymentRepository.findStateByOrderId(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
+
+        for (int attempt = 1; ; attempt++) {
+            if (!from.contains(current) || !current.canTransitTo(to)) {
+                count(to, "rejected");
+                return Optional.empty();
+            }
+            if (paymentRepository.compareAndSetState(orderId, current, to, paymentKey)) {
+                paymentRepository.appendTransition(PaymentStateTransition.builder()
+                        .orderId(orderId)
+                        .fromState(current)
+                        .toState(to)
+                        .reason(reason)
+                        .build());
+                count(to, attempt == 1 ? "applied" : "applied_after_retry");
+                return Optional.of(current);
+            }
+            if (attempt >= maxAttempts) {
+                count(to, "conflict");
+                log.warn("[PAYMENT-STATE] {} -> {} lost after {} attempts, orderId={}", current, to, attempt, orderId);
+                return Optional.empty();
+            }
+            // 다른 요청이 먼저 바꿈 → 최신 커밋 상태로 다시 판단
+            current = paymentRepository.findLatestStateByOrderId(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
+        }
+    }
+
+    /**
+     * 여러 결제를 한 번에 from → to (행 잠금으로 이미 잡아 둔 행 대상, 예: 만료 INIT 정리).
+     * 잠근 행이라 경합이 없으므로 재시도 없이 조건부 UPDATE 한 번 + 이력 배치 INSERT.
+     *
+     * @return 전이된 행 수
+     */
+    @Transactional
+    public int transitAll(List<PaymentCursorRow> rows, PaymentState from, PaymentState to,
+                          String failureCode, String reason) {
+        if (rows.isEmpty()) return 0;
+        if (!from.canTransitTo(to)) {
+            throw new IllegalStateException("INVALID_STATE_TRANSITION");
+        }
+        int updated = paymentRepository.compareAndSetStates(
+                rows.stream().map(PaymentCursorRow::id).toList(), from, to, failureCode);
+        if (updated != rows.size()) {
+            // 잠금 없이 호출된 경우: 어느 행이 바뀌었는지 모르므로 이력은 남기지 않는다
+            log.warn("[PAYMENT-STATE] bulk {} -> {} updated {}/{} rows, transition log skipped", from, to, updated, rows.size());
+            count(to, "conflict");
+            return updated;
+        }
+        paymentRepository.appendTransitions(rows.stream()
+                .map(r -> PaymentStateTransition.builder()
+                        .orderId(r.orderId())
+                        .fromState(from)
+                        .toState(to)
+                        .reason(reason)
+                        .build())
+                .toList());
+        meterRegistry.counter("payments.state.transition", "to", to.name(), "result", "applied").increment(updated);
+        return updated;
+    }
+
+    /** 생성(INIT) 이력. 행 INSERT 와 같은 트랜잭션에서 호출 */
+    @Transactional
+    public void recordCreated(String orderId) {
+        paymentRepository.appendTransition(PaymentStateTransition.builder()
+                .orderId(orderId)
+                .toState(PaymentState.INIT)
+                .reason("CREATED")
+                .build());
+    }
+
+    /** 조건부 UPDATE 가 실패했을 때 실제 최신 상태 확인용 (스냅샷 읽기는 옛 값을 줄 수 있음) */
+    public Optional<PaymentState> latestState(String orderId) {
+        return paymentRepository.findLatestStateByOrderId(orderId);
+    }
+
+    private void count(PaymentState to, String result) {
+        meterRegistry.counter("payments.state.transition", "to", to.name(), "result", result).increment();
+    }
+}
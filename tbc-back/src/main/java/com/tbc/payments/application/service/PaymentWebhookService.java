@@ -1,41 +1,74 @@
 package com.tbc.payments.application.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
 import com.tbc.payments.domain.payment.Payment;
 import com.tbc.payments.domain.payment.PaymentState;
 import com.tbc.payments.domain.webhook.WebhookEvent;
+import com.tbc.payments.domain.webhook.WebhookPayload;
+import com.tbc.payments.domain.webhook.WebhookStoredEvent;
 import com.tbc.payments.domain.webhook.WebhookStatus;
 import com.tbc.payments.domain.wallet.LedgerType;
-import com.tbc.payments.domain.wallet.Wallet;
 import com.tbc.payments.domain.wallet.WalletLedger;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.TossClientPort;
 import com.tbc.payments.application.port.out.WebhookEventPersistencePort;
 import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
 import com.tbc.payments.application.port.out.WalletPersistencePort;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentWebhookService {
 
-    private final ObjectMapper objectMapper;
+    private final WebhookPayloadParser payloadParser;
     private final WebhookEventPersistencePort eventRepo;
     private final PaymentPersistencePort paymentRepo;
     private final WalletPersistencePort walletRepo;
     private final WalletLedgerPersistencePort ledgerRepo;
+    private final PaymentConfirmTxService confirmTx;
+    private final PaymentStateMachine stateMachine;
+    private final TossClientPort tossClientPort;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+
+    /** 선점 주체 (pid@host). 인스턴스마다 다르다 */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${payments.webhook.claim.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${payments.webhook.retry.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${payments.webhook.retry.base-delay:PT10S}")
+    private Duration retryBaseDelay;
+
+    @Value("${payments.webhook.retry.max-delay:PT1H}")
+    private Duration retryMaxDelay;
 
     /** 1) 수신 저장 (멱등: eventId로 중복 방지) */
     @Transactional
     public void ingest(String headerEventId, String headerEventType, String payloadJson) {
-        String eventId = safeExtractEventId(payloadJson, headerEventId);
-        String eventType = safeExtractEventType(payloadJson, headerEventType);
+        // 본문은 한 번만 파싱해서 저장/디스패치가 같이 쓴다 (파싱 실패면 헤더 값으로 저장만)
+        WebhookPayload payload = safeParse(payloadJson);
+        String eventId = payload != null ? payload.eventIdOr(headerEventId) : headerEventId;
+        String eventType = payload != null ? payload.eventTypeOr(headerEventType) : headerEventType;
 
         if (eventId == null) throw new IllegalArgumentException("WEBHOOK_EVENT_ID_MISSING");
 
@@ -47,6 +80,7 @@ public class PaymentWebhookService {
         WebhookEvent e = WebhookEvent.builder()
                 .eventId(eventId)
                 .eventType(eventType != null ? eventType : "UNKNOWN")
+                .orderId(orderIdOf(payload))
                 .payload(payloadJson) // ★ JSON 문자열 그대로 저장
                 .receivedAt(LocalDateTime.now())
                 .status(WebhookStatus.PENDING)
@@ -56,137 +90,240 @@ public class PaymentWebhookService {
         eventRepo.save(e);
         log.info("[WH] stored eventId={} type={}", eventId, eventType);
 
-        // 즉시 처리(선호 시), 또는 비동기/스케줄러에 맡겨도 됨
-        try {
-            process(e);
-        } catch (Exception ex) {
-            log.error("[WH] immediate process failed: {}", e.getEventId(), ex);
+        // 처리는 커밋 후 디스패치 큐(WebhookDispatcher)에서. 응답 지연에 지갑 락/원장 쓰기가 들어가지 않는다
+        if (payload == null) {
+            log.warn("[WH] unparseable payload eventId={}, left for retry processor", eventId);
+            return;
         }
+        events.publishEvent(new WebhookStoredEvent(eventId, e.getReceivedAt(), payload));
     }
 
-    private String safeExtractEventId(String raw, String fallback) {
-        try {
-            JsonNode root = objectMapper.readTree(raw);
-            String v = text(root, "eventId");
-            if (v == null) v = text(root, "id");
-            return v != null ? v : fallback;
-        } catch (Exception e) {
-            return fallback;
+    /** 순서 키로 쓸 orderId (Toss 규칙 64자를 넘으면 순서 보장 대상에서 뺀다) */
+    private static String orderIdOf(WebhookPayload payload) {
+        String orderId = payload != null ? payload.orderId() : null;
+        return orderId != null && orderId.length() <= 64 ? orderId : null;
+    }
+
+    /**
+     * 폴링용 선점: 처리 대상 PENDING 을 SKIP LOCKED 로 잡고 이 인스턴스 lease 를 건 뒤 바로 커밋 (짧은 트랜잭션).
+     * 실제 처리는 건별 claimAndProcess 로.
+     */
+    @Transactional
+    public List<String> claimBatch(LocalDateTime receivedBefore, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> eventIds = eventRepo.lockClaimable(receivedBefore, now, limit);
+        eventRepo.claimAll(eventIds, owner, now.plus(lease));
+        return eventIds;
+    }
+
+    /** 재시도용 선점: next_attempt_at 이 지난 FAILED 한 페이지 (claimBatch 와 같은 방식) */
+    @Transactional
+    public List<String> claimDueRetries(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> eventIds = eventRepo.lockDueRetries(now, limit);
+        eventRepo.claimAll(eventIds, owner, now.plus(lease));
+        return eventIds;
+    }
+
+    /**
+     * 한 건 처리. DONE/CANCELED 는 먼저 트랜잭션 밖에서 PG 결제 조회로 확인하고 (verifyWithPg),
+     * 그다음 건별 트랜잭션에서 PENDING(또는 선점한 FAILED) 이고 내 선점이거나 선점이 없거나 만료됐을 때만 반영하고 SUCCESS 로.
+     * 선점 UPDATE 의 행 락이 커밋까지 유지되므로 다른 인스턴스/큐와 동시에 처리되지 않는다.
+     * 같은 주문에서 먼저 받은 이벤트가 PENDING/FAILED 로 남아 있으면 처리하지 않고 미룬다 (lane·폴링·재시도 어느 경로든 주문별 순서 유지).
+     * 실패하면 예외를 그대로 던진다 (호출 측이 롤백 후 markFailed).
+     *
+     * @param payload 수신 시 파싱 결과 (null 이면 저장된 본문을 파싱)
+     * @return 처리했으면 true, 다른 쪽이 처리했거나 처리 중이거나 미뤘으면 false
+     */
+    public boolean claimAndProcess(String eventId, WebhookPayload payload) {
+        WebhookEvent stored = eventRepo.findByEventId(eventId)
+                .orElseThrow(() -> new IllegalStateException("WEBHOOK_EVENT_NOT_FOUND"));
+        if (stored.getStatus() != WebhookStatus.PENDING && stored.getStatus() != WebhookStatus.FAILED) {
+            return false; // 이미 끝난 이벤트면 PG 조회도 하지 않는다
+        }
+        if (eventRepo.existsUnfinishedBefore(stored)) {
+            // 같은 주문의 앞선 이벤트가 끝나기 전: PG 조회 없이 선점만 잡았다 풀어서 미룬다
+            return Boolean.TRUE.equals(tx.execute(s -> {
+                LocalDateTime now = LocalDateTime.now();
+                if (eventRepo.claim(eventId, owner, now, now.plus(lease))) {
+                    defer(eventRepo.findByEventId(eventId)
+                            .orElseThrow(() -> new IllegalStateException("WEBHOOK_EVENT_NOT_FOUND")), now);
+                }
+                return false;
+            }));
         }
+        WebhookPayload body = payload != null ? payload : parseStored(stored);
+        TossPaymentRes verified = verifyWithPg(body);
+
+        return Boolean.TRUE.equals(tx.execute(s -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!eventRepo.claim(eventId, owner, now, now.plus(lease))) {
+                return false;
+            }
+            WebhookEvent e = eventRepo.findByEventId(eventId)
+                    .orElseThrow(() -> new IllegalStateException("WEBHOOK_EVENT_NOT_FOUND"));
+            if (eventRepo.existsUnfinishedBefore(e)) {
+                defer(e, now);
+                return false;
+            }
+            e.setAttemptCount(e.getAttemptCount() + 1);
+            dispatch(body, verified);
+            e.setStatus(WebhookStatus.SUCCESS);
+            e.setProcessedAt(LocalDateTime.now());
+            e.setLastError(null);
+            e.setLeaseUntil(null);
+            e.setNextAttemptAt(null);
+            eventRepo.save(e);
+            return true;
+        }));
     }
 
-    private String safeExtractEventType(String raw, String fallback) {
-        try {
-            JsonNode root = objectMapper.readTree(raw);
-            String v = text(root, "eventType");
-            if (v == null) v = text(root, "type");
-            return v != null ? v : fallback;
-        } catch (Exception e) {
-            return fallback;
+    /**
+     * 같은 주문의 앞선 이벤트(PENDING/FAILED)가 남아 있으면 처리하지 않고 선점만 푼다 (시도 횟수는 그대로).
+     * PENDING 은 폴링이, FAILED 는 base-delay 뒤 재시도 잡이 다시 가져간다. 선점 행 락 안이라 엔티티 저장이 안전하다.
+     */
+    private void defer(WebhookEvent e, LocalDateTime now) {
+        log.info("[WH] eventId={} waits for an earlier event of orderId={}", e.getEventId(), e.getOrderId());
+        e.setLeaseUntil(null);
+        if (e.getStatus() == WebhookStatus.FAILED) {
+            e.setNextAttemptAt(now.plus(retryBaseDelay));
         }
+        eventRepo.save(e);
     }
 
-    private String text(JsonNode n, String field) {
-        JsonNode x = n.get(field);
-        return (x != null && !x.isNull()) ? x.asText() : null;
+    private WebhookPayload parseStored(WebhookEvent e) {
+        try {
+            return payloadParser.parse(e.getPayload());
+        } catch (IOException ex) {
+            // 체크 예외는 롤백 대상이 아니므로 런타임 예외로
+            throw new IllegalStateException("WEBHOOK_PAYLOAD_INVALID", ex);
+        }
     }
 
-    /** 2) 실제 처리 (재시도에서도 동일 호출) */
+    /**
+     * claimAndProcess 실패 기록 (롤백된 트랜잭션과 별도로). 선점도 풀어 준다.
+     * 최대 시도 횟수 전이면 FAILED + 지수 백오프(지터) 후 재시도 시각, 넘었으면 DEAD.
+     */
     @Transactional
-    public void process(WebhookEvent e) throws Exception {
-        e.setAttemptCount(e.getAttemptCount() + 1);
+    public void markFailed(String eventId, String error) {
+        eventRepo.findByEventId(eventId)
+                .filter(e -> e.getStatus() == WebhookStatus.PENDING || e.getStatus() == WebhookStatus.FAILED)
+                .ifPresent(e -> {
+                    // 엔티티 저장은 그 사이 다른 워커가 쓴 SUCCESS 를 덮을 수 있어 읽은 값 기준 조건부 UPDATE 로만 쓴다
+                    LocalDateTime now = LocalDateTime.now();
+                    int attempts = e.getAttemptCount() + 1;
+                    int max = e.getMaxAttempts() != null ? e.getMaxAttempts() : maxAttempts;
+                    boolean dead = attempts >= max;
+                    LocalDateTime nextAttemptAt = dead ? null : now.plus(backoff(attempts, retryBaseDelay, retryMaxDelay));
+                    if (!eventRepo.markFailed(eventId, e.getAttemptCount(),
+                            dead ? WebhookStatus.DEAD : WebhookStatus.FAILED, error, nextAttemptAt, owner, now)) {
+                        log.info("[WH] eventId={} changed by another worker, failure not recorded", eventId);
+                        return;
+                    }
+                    if (dead) {
+                        log.warn("[WH] eventId={} DEAD after {} attempts: {}", eventId, attempts, error);
+                    }
+                });
+    }
+
+    /** base * 2^(attempts-1), max-delay 상한, 절반은 고정 + 절반은 랜덤 (동시에 실패한 이벤트들이 한꺼번에 몰리지 않게) */
+    static Duration backoff(int attempts, Duration base, Duration max) {
+        long baseMs = base.toMillis();
+        long capMs = max.toMillis();
+        long delayMs = Math.min(capMs, baseMs << Math.min(Math.max(attempts - 1, 0), 30));
+        long half = delayMs / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private WebhookPayload safeParse(String raw) {
+        try {
+            return payloadParser.parse(raw);
+        } catch (IOException e) {
+            return null;
+        }
+    }
 
-        // 2-1) DTO 파싱
-        WebhookEventDto dto = objectMapper.readValue(e.getPayload(), WebhookEventDto.class);
-        String type = (dto.eventType != null) ? dto.eventType : "UNKNOWN";
+    private void dispatch(WebhookPayload payload, TossPaymentRes verified) {
+        String type = (payload.eventType() != null) ? payload.eventType() : "UNKNOWN";
 
-        // 2-2) 타입별 분기
+        // 타입별 분기
         if ("PAYMENT_STATUS_CHANGED".equalsIgnoreCase(type)) {
-            handlePaymentStatusChanged(dto);
+            handlePaymentStatusChanged(payload, verified);
         } else {
             log.info("[WH] ignore type={}", type);
         }
     }
 
-    /** 결제 상태 변경 처리 (DONE / CANCELED 등) */
-    private void handlePaymentStatusChanged(WebhookEventDto dto) {
-        if (dto.data == null) throw new IllegalArgumentException("MISSING_DATA");
-        String orderId = dto.data.orderId;
-        String status  = dto.data.status; // DONE, CANCELED, PARTIAL_CANCELED ...
-        String paymentKey = dto.data.paymentKey;
+    /**
+     * DONE/CANCELED 웹훅을 PG 결제 조회로 확인한다. 웹훅 엔드포인트는 인증이 없으므로 본문만 믿고 상태를 바꾸지 않는다.
+     * 조회 결과의 status/orderId 가 본문과, 금액(과 저장된 paymentKey)이 원주문과 모두 같아야 통과.
+     * 다르면 WEBHOOK_NOT_VERIFIED 로 실패시킨다 (백오프 재시도 후 DEAD). 그 밖의 이벤트는 조회하지 않고 null.
+     */
+    private TossPaymentRes verifyWithPg(WebhookPayload payload) {
+        if (!"PAYMENT_STATUS_CHANGED".equalsIgnoreCase(payload.eventType()) || !payload.hasData()) return null;
+        String status = payload.status();
+        if (!"DONE".equalsIgnoreCase(status) && !"CANCELED".equalsIgnoreCase(status)) return null;
+        if (payload.orderId() == null || payload.paymentKey() == null) {
+            throw new IllegalArgumentException("WEBHOOK_PAYMENT_REF_MISSING");
+        }
 
-        Payment payment = paymentRepo.findByOrderId(orderId)
+        Payment payment = paymentRepo.findByOrderId(payload.orderId())
                 .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND in webhook"));
+        TossPaymentRes res = tossClientPort.getPayment(payload.paymentKey());
 
-        if ("DONE".equalsIgnoreCase(status)) {
-            // INIT → PAID 전이 + 잔액 적립(멱등)
-            if (payment.getState() == PaymentState.INIT && payment.getState().canTransitTo(PaymentState.PAID)) {
-                payment.setState(PaymentState.PAID);
-                if (paymentKey != null) payment.setPaymentKey(paymentKey);
-                paymentRepo.savePayment(payment);
+        boolean matches = res != null
+                && status.equalsIgnoreCase(res.status())
+                && payload.orderId().equals(res.orderId())
+                && Objects.equals(payment.getAmount(), res.totalAmount())
+                && (payment.getPaymentKey() == null || payment.getPaymentKey().equals(res.paymentKey()));
+        if (!matches) {
+            log.warn("[WH] not verified orderId={} status={} pg={}", payload.orderId(), status, res);
+            throw new IllegalStateException("WEBHOOK_NOT_VERIFIED");
+        }
+        return res;
+    }
 
-                Wallet wallet = walletRepo.findByUserIdForUpdate(payment.getUserId())
-                        .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
+    /** 결제 상태 변경 처리 (DONE / CANCELED 등). DONE/CANCELED 는 verified(PG 조회 결과)가 있어야 반영한다 */
+    private void handlePaymentStatusChanged(WebhookPayload payload, TossPaymentRes verified) {
+        if (!payload.hasData()) throw new IllegalArgumentException("MISSING_DATA");
+        String orderId = payload.orderId();
+        String status  = payload.status(); // DONE, CANCELED, PARTIAL_CANCELED ...
 
-                String idemKey = "WH:TOPUP:" + payment.getOrderId();
-                if (ledgerRepo.findByIdempotencyKey(idemKey).isEmpty()) {
-                    WalletLedger ledger = WalletLedger.builder()
-                            .walletId(wallet.getId())
-                            .type(LedgerType.CREDIT)
-                            .amount(payment.getAmount())
-                            .reason("TOPUP")
-                            .refType("PAYMENT")
-                            .refId(orderId)
-                            .idempotencyKey(idemKey)
-                            .build();
-                    ledgerRepo.saveLedger(ledger);
-
-                    wallet.setBalance(wallet.getBalance() + payment.getAmount());
-                    walletRepo.saveWallet(wallet);
-                }
+        Payment payment = paymentRepo.findByOrderId(orderId)
+                .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND in webhook"));
+
+        boolean done = "DONE".equalsIgnoreCase(status);
+        if ((done || "CANCELED".equalsIgnoreCase(status)) && verified == null) {
+            throw new IllegalStateException("WEBHOOK_NOT_VERIFIED");
+        }
+
+        if (done) {
+            // (INIT|CONFIRMING) → PAID 전이 + 잔액 적립(멱등). 승인 응답을 못 받은 CONFIRMING 도 여기서 마무리
+            if (payment.getState() == PaymentState.INIT || payment.getState() == PaymentState.CONFIRMING) {
+                confirmTx.complete(orderId, verified.paymentKey(), null);
             }
         } else if ("CANCELED".equalsIgnoreCase(status)) {
-            // PAID → REFUNDED 전이 + 잔액 차감(멱등)
-            if (payment.getState() == PaymentState.PAID && payment.getState().canTransitTo(PaymentState.REFUNDED)) {
-                payment.setState(PaymentState.REFUNDED);
-                paymentRepo.savePayment(payment);
-
-                Wallet wallet = walletRepo.findByUserIdForUpdate(payment.getUserId())
+            // PAID → REFUNDED 조건부 전이 (동시 환불 요청과 덮어쓰지 않음) + 잔액 차감(멱등)
+            // 건별 트랜잭션 안이라 지갑 락/FOR UPDATE 없이 원장 INSERT + 원자적 차감 (충전 적립과 같은 방식)
+            if (stateMachine.transit(orderId, List.of(PaymentState.PAID), PaymentState.REFUNDED, null, "WEBHOOK_CANCELED").isPresent()) {
+                WalletSnapshot wallet = walletRepo.findSnapshotByUserId(payment.getUserId())
                         .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
 
                 String idemKey = "WH:REFUND:" + payment.getOrderId();
-                if (ledgerRepo.findByIdempotencyKey(idemKey).isEmpty()) {
-                    WalletLedger ledger = WalletLedger.builder()
-                            .walletId(wallet.getId())
-                            .type(LedgerType.DEBIT)
-                            .amount(payment.getAmount())
-                            .reason("REFUND")
-                            .refType("PAYMENT")
-                            .refId(orderId)
-                            .idempotencyKey(idemKey)
-                            .build();
-                    ledgerRepo.saveLedger(ledger);
-
-                    wallet.setBalance(wallet.getBalance() - payment.getAmount());
-                    walletRepo.saveWallet(wallet);
+                WalletLedger ledger = WalletLedger.builder()
+                        .walletId(wallet.walletId())
+                        .type(LedgerType.DEBIT)
+                        .amount(payment.getAmount())
+                        .reason("REFUND")
+                        .refType("PAYMENT")
+                        .refId(orderId)
+                        .idempotencyKey(idemKey)
+                        .build();
+                if (ledgerRepo.appendIfAbsent(ledger)) {
+                    walletRepo.debit(wallet.walletId(), payment.getAmount());
                 }
             }
         }
         // PARTIAL_CANCELED 등은 이후 확장
     }
-
-    /** 웹훅 DTO (ObjectMapper용) */
-    @lombok.Data
-    public static class WebhookEventDto {
-        public String eventId;
-        public String eventType;
-        public Data data;
-
-        @lombok.Data
-        public static class Data {
-            public String orderId;
-            public String status;
-            public String paymentKey;
-        }
-    }
-}
\ No newline at end of file
+}
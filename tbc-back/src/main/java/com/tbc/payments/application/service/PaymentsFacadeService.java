@@ -4,24 +4,159 @@ import com.tbc.payments.adapter.in.web.dto.*;
 import com.tbc.payments.application.port.in.PaymentUseCase;
 import com.tbc.payments.application.port.in.PaymentsFacade;
 import com.tbc.payments.application.port.in.RefundUseCase;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
 @Service
-@RequiredArgsConstructor
 public class PaymentsFacadeService implements PaymentsFacade {
 
+    private static final String IN_PROGRESS = "PAYMENT_CONFIRM_IN_PROGRESS";
+
     private final PaymentUseCase paymentUseCase;
     private final RefundUseCase refundUseCase;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration joinTimeout;
+    private final Duration resultTtl;
+    private final int resultCacheSize;
+    private final Duration inProgressWait;
+    private final Duration inProgressPoll;
+
+    /** 이 노드에서 진행 중인 승인 (orderId → 첫 요청) */
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    /** 방금 끝난 승인 결과 (늦게 도착한 중복 요청용) */
+    private final Map<String, Done> recent = new ConcurrentHashMap<>();
+
+    public PaymentsFacadeService(PaymentUseCase paymentUseCase,
+                                 RefundUseCase refundUseCase,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payments.confirm-coalescing.join-timeout:PT15S}") Duration joinTimeout,
+                                 @Value("${payments.confirm-coalescing.result-ttl:PT10S}") Duration resultTtl,
+                                 @Value("${payments.confirm-coalescing.result-cache-size:10000}") int resultCacheSize,
+                                 @Value("${payments.confirm-coalescing.in-progress-wait:PT3S}") Duration inProgressWait,
+                                 @Value("${payments.confirm-coalescing.in-progress-poll:PT0.2S}") Duration inProgressPoll) {
+        this.paymentUseCase = paymentUseCase;
+        this.refundUseCase = refundUseCase;
+        this.meterRegistry = meterRegistry;
+        this.joinTimeout = joinTimeout;
+        this.resultTtl = resultTtl;
+        this.resultCacheSize = resultCacheSize;
+        this.inProgressWait = inProgressWait;
+        this.inProgressPoll = inProgressPoll;
+    }
+
+    private record Flight(ConfirmRequest req, CompletableFuture<ConfirmResponse> result) {}
+
+    private record Done(ConfirmRequest req, ConfirmResponse res, long expiresAtNanos) {}
 
     @Override
     public CreatePaymentResponse create(CreatePaymentRequest req) {
         return paymentUseCase.createInit(req);
     }
 
+    /**
+     * 같은 orderId 승인 중복 호출(더블 클릭, successUrl 재진입) 합치기.
+     * 1) 방금 끝난 결과가 있으면 그대로 (result-ttl)
+     * 2) 이 노드에서 진행 중이면 그 결과를 같이 기다림
+     * 3) 다른 노드가 진행 중(DB 상태 CONFIRMING)이면 PAID 가 될 때까지 잠깐 재확인
+     * 요청 내용(paymentKey/금액/자동차감)이 다르면 합치지 않고 DB 상태 검증에 맡긴다.
+     */
     @Override
     public ConfirmResponse confirm(ConfirmRequest req) {
-        return paymentUseCase.confirmAndCredit(req);
+        String orderId = req.orderId();
+
+        Done done = recent.get(orderId);
+        if (done != null && done.expiresAtNanos() - System.nanoTime() > 0 && sameRequest(done.req(), req)) {
+            count("cached");
+            return done.res();
+        }
+
+        Flight mine = new Flight(req, new CompletableFuture<>());
+        Flight leader = inFlight.putIfAbsent(orderId, mine);
+        if (leader != null) {
+            if (sameRequest(leader.req(), req)) {
+                count("joined");
+                return await(leader);
+            }
+            count("bypass");
+            return confirmWithDbFallback(req);
+        }
+
+        count("leader");
+        try {
+            ConfirmResponse res = confirmWithDbFallback(req);
+            remember(orderId, req, res);
+            mine.result().complete(res);
+            return res;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(orderId, mine);
+        }
+    }
+
+    private ConfirmResponse await(Flight leader) {
+        try {
+            return leader.result().get(joinTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("PAYMENT_CONFIRM_FAILED", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(IN_PROGRESS);
+        }
+    }
+
+    /** 클러스터 안전장치: 다른 노드가 CONFIRMING 으로 잡고 있으면 결과(PAID)가 보일 때까지 짧게 재시도 */
+    private ConfirmResponse confirmWithDbFallback(ConfirmRequest req) {
+        long deadline = System.nanoTime() + inProgressWait.toNanos();
+        while (true) {
+            try {
+                return paymentUseCase.confirmAndCredit(req);
+            } catch (IllegalStateException e) {
+                if (!IN_PROGRESS.equals(e.getMessage()) || System.nanoTime() - deadline > 0) {
+                    throw e;
+                }
+                count("db_wait");
+                try {
+                    Thread.sleep(inProgressPoll.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void remember(String orderId, ConfirmRequest req, ConfirmResponse res) {
+        long now = System.nanoTime();
+        if (recent.size() >= resultCacheSize) {
+            recent.values().removeIf(d -> d.expiresAtNanos() - now <= 0);
+            if (recent.size() >= resultCacheSize) {
+                recent.clear();
+            }
+        }
+        recent.put(orderId, new Done(req, res, now + resultTtl.toNanos()));
+    }
+
+    private static boolean sameRequest(ConfirmRequest a, ConfirmRequest b) {
+        return Objects.equals(a.paymentKey(), b.paymentKey())
+                && Objects.equals(a.amount(), b.amount())
+                && Objects.equals(a.meetupId(), b.meetupId())
+                && Objects.equals(a.autoDeduct(), b.autoDeduct());
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("payments.confirm.coalescing", "result", result).increment();
     }
 
     @Override
@@ -34,4 +169,4 @@ public class PaymentsFacadeService implements PaymentsFacade {
         var p = paymentUseCase.cancelInit(orderId);
         return new CancelPaymentResponse(p.getOrderId(), p.getState().name());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.common.id.TsidGenerator;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.LedgerType;
+import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.WalletBalanceView;
+import com.tbc.payments.domain.wallet.WalletMutation;
+import com.tbc.payments.domain.wallet.WalletMutationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * 플랫폼 지갑 샤딩.
+ * 정산마다 단일 플랫폼 지갑(userId=0) 한 행에 락이 몰리지 않도록 N개의 하위 지갑으로 나눈다.
+ * 샤드 0 은 기존 플랫폼 지갑(userId=0), 샤드 i(>0) 는 userId=-i 지갑을 쓴다.
+ * 외부 입금은 샤드 0 으로만 들어오므로 rebalance 가 주기적으로 형제 샤드를 채운다 (없으면 결국 샤드 0 한 행에 몰림).
+ */
+@Slf4j
+@Service
+public class PlatformWalletService {
+
+    public static final Long PLATFORM_USER_ID = 0L; // 샤드 0 (기존 플랫폼 지갑)
+
+    private final WalletPersistencePort walletRepo;
+    private final WalletLedgerPersistencePort ledgerRepo;
+    private final List<Long> shardUserIds;
+
+    public PlatformWalletService(WalletPersistencePort walletRepo,
+                                 WalletLedgerPersistencePort ledgerRepo,
+                                 @Value("${payments.platform-wallet.shards:8}") int shards) {
+        this.walletRepo = walletRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.shardUserIds = LongStream.range(0, Math.max(1, shards))
+                .map(i -> -i)
+                .boxed()
+                .toList();
+    }
+
+    public List<Long> shardUserIds() {
+        return shardUserIds;
+    }
+
+    public boolean isShard(Long userId) {
+        return userId != null && userId <= 0 && -userId < shardUserIds.size();
+    }
+
+    /** 차감 후보 샤드 순서 (선호 샤드 → 잔액 많은 형제 샤드). 락 없이 읽은 잔액 기준 */
+    public List<Long> debitCandidates(Long meetingId, long amount) {
+        Long preferred = shardUserIds.get(Math.floorMod(Long.hashCode(meetingId), shardUserIds.size()));
+
+        // 락 없이 잔액만 훑어서 후보 순서를 정한다 (최종 판단은 락 이후 재확인)
+        Map<Long, Long> balances = walletRepo.findBalancesByUserIds(shardUserIds).stream()
+                .collect(Collectors.toMap(WalletBalanceView::userId, WalletBalanceView::balance));
+
+        List<Long> candidates = new ArrayList<>();
+        if (balances.getOrDefault(preferred, 0L) >= amount) {
+            candidates.add(preferred);
+        }
+        shardUserIds.stream()
+                .filter(id -> !id.equals(preferred))
+                .filter(id -> balances.getOrDefault(id, 0L) >= amount)
+                .sorted(Comparator.comparingLong((Long id) -> balances.getOrDefault(id, 0L)).reversed())
+                .forEach(candidates::add);
+        return candidates;
+    }
+
+    /** 모든 샤드 잔액 합 (논리 플랫폼 지갑 잔액) */
+    public long aggregateBalance() {
+        return walletRepo.findBalancesByUserIds(shardUserIds).stream()
+                .mapToLong(WalletBalanceView::balance)
+                .sum();
+    }
+
+    /**
+     * 샤드 재분배: 합계/N 을 목표로, 목표의 절반에 못 미치는 샤드를 잔액이 가장 많은 샤드에서 채운다.
+     * 이체 한 건 = 원장 포트 요청 하나 (DEBIT/CREDIT 원장 한 쌍, all-or-nothing, 합계는 그대로).
+     *
+     * @return 이체 건수
+     */
+    public int rebalance(long minTransfer) {
+        if (shardUserIds.size() < 2) {
+            return 0;
+        }
+        Map<Long, Long> balances = walletRepo.findBalancesByUserIds(shardUserIds).stream()
+                .collect(Collectors.toMap(WalletBalanceView::userId, WalletBalanceView::balance));
+        long target = balances.values().stream().mapToLong(Long::longValue).sum() / shardUserIds.size();
+        if (target < minTransfer) {
+            return 0;
+        }
+
+        int transfers = 0;
+        for (Long to : shardUserIds) {
+            long deficit = target - balances.getOrDefault(to, 0L);
+            if (deficit < target / 2 || deficit < minTransfer) {
+                continue;
+            }
+            Long from = shardUserIds.stream()
+                    .max(Comparator.comparingLong((Long id) -> balances.getOrDefault(id, 0L)))
+                    .orElseThrow();
+            long amount = Math.min(deficit, balances.getOrDefault(from, 0L) - target);
+            if (from.equals(to) || amount < minTransfer) {
+                continue;
+            }
+            if (transfer(from, to, amount)) {
+                balances.merge(from, -amount, Long::sum);
+                balances.merge(to, amount, Long::sum);
+                transfers++;
+            }
+        }
+        return transfers;
+    }
+
+    /** 샤드 간 이체. 반영 시점에 잔액이 모자라면(그 사이 정산 차감) 하지 않는다 */
+    private boolean transfer(Long fromUserId, Long toUserId, long amount) {
+        String transferId = String.valueOf(TsidGenerator.next());
+        List<WalletMutationResult> results = ledgerRepo.post(List.of(
+                rebalanceLeg(fromUserId, LedgerType.DEBIT, amount, transferId),
+                rebalanceLeg(toUserId, LedgerType.CREDIT, amount, transferId)));
+        if (results.stream().anyMatch(r -> r.status() == WalletMutationResult.Status.WALLET_NOT_FOUND)) {
+            throw new IllegalStateException("PLATFORM_WALLET_NOT_FOUND");
+        }
+        boolean applied = results.stream().allMatch(WalletMutationResult::succeeded);
+        if (applied) {
+            log.info("[PLATFORM] rebalance {} -> {} amount={}", fromUserId, toUserId, amount);
+        }
+        return applied;
+    }
+
+    private static WalletMutation rebalanceLeg(Long userId, LedgerType type, long amount, String transferId) {
+        return new WalletMutation(userId, type, amount, "PLATFORM_REBALANCE", "PLATFORM", transferId,
+                "PLATFORM_REBALANCE:" + transferId + ":" + type.name());
+    }
+
+    /** 기동 시 없는 샤드 지갑을 0원으로 만들어 둔다 */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void ensureShards() {
+        var existing = walletRepo.findBalancesByUserIds(shardUserIds).stream()
+                .map(WalletBalanceView::userId)
+                .collect(Collectors.toSet());
+        for (Long userId : shardUserIds) {
+            if (!existing.contains(userId)) {
+                walletRepo.saveWallet(Wallet.builder().userId(userId).balance(0L).build());
+                log.info("[PLATFORM] created shard wallet userId={}", userId);
+            }
+        }
+    }
+}
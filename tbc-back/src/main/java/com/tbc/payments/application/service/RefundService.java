@@ -7,16 +7,25 @@ import com.tbc.payments.application.port.in.RefundUseCase;
 import com.tbc.payments.application.port.out.PaymentPersistencePort;
 import com.tbc.payments.application.port.out.TossClientPort;
 import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletLockPort;
 import com.tbc.payments.application.port.out.WalletPersistencePort;
 import com.tbc.payments.domain.payment.Payment;
 import com.tbc.payments.domain.payment.PaymentState;
 import com.tbc.payments.domain.wallet.LedgerType;
-import com.tbc.payments.domain.wallet.Wallet;
 import com.tbc.payments.domain.wallet.WalletLedger;
-import jakarta.transaction.Transactional;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefundService implements RefundUseCase {
@@ -25,54 +34,88 @@ public class RefundService implements RefundUseCase {
     private final PaymentPersistencePort paymentRepository;
     private final WalletPersistencePort walletRepository;
     private final WalletLedgerPersistencePort ledgerRepository;
+    private final PaymentStateMachine stateMachine;
+    private final WalletLockPort walletLock;
+    private final TransactionTemplate tx;
+
+    private static final List<PaymentState> REFUNDABLE = List.of(PaymentState.PAID, PaymentState.PARTIALLY_REFUNDED);
 
-    @Transactional
+    /**
+     * [tx 없음] 주문 확인 → [tx 없음] PG 환불 → [지갑 락 후 짧은 tx] 상태 전이 → DEBIT.
+     * 지갑 락은 트랜잭션을 열기 전에 잡으므로 같은 지갑 대기 중에는 커넥션을 쥐지 않는다.
+     */
+    @Override
     public RefundResponse refund(RefundRequest req) {
         Payment payment = paymentRepository.findByOrderId(req.orderId())
                 .orElseThrow(() -> new IllegalStateException("ORDER_NOT_FOUND"));
 
-        if (payment.getState() != PaymentState.PAID
-                && payment.getState() != PaymentState.PARTIALLY_REFUNDED) {
+        if (!REFUNDABLE.contains(payment.getState())) {
             throw new IllegalStateException("ONLY_PAID_OR_PARTIALLY_REFUNDED_CAN_BE_REFUNDED");
         }
 
-        // 토스 환불 API 호출
+        // 토스 환불 API 호출 (트랜잭션/락 없음)
         tossClientPort.cancel(payment.getPaymentKey(), new TossCancelReq(req.refundAmount(), req.reason()));
 
-        // Wallet 업데이트 (DEBIT 처리)
-        Wallet wallet = walletRepository.findByUserIdForUpdate(payment.getUserId())
-                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
+        return walletLock.callWithLock(() -> tx.execute(s -> applyRefund(payment, req)), payment.getUserId());
+    }
 
-        String idemKey = "REFUND:" + payment.getOrderId() + ":" + req.refundAmount() + ":" + req.reason();
-        if (ledgerRepository.findByIdempotencyKey(idemKey).isEmpty()) {
-            WalletLedger ledger = WalletLedger.builder()
-                    .walletId(wallet.getId())
-                    .type(LedgerType.DEBIT)
-                    .amount(req.refundAmount())
-                    .reason("REFUND_PARTIAL")
-                    .refType("PAYMENT")
-                    .refId(payment.getOrderId())
-                    .idempotencyKey(idemKey)
-                    .build();
-            ledgerRepository.saveLedger(ledger);
+    /**
+     * 조건부 전이를 먼저 하고 이긴 쪽만 원장 + 차감 (웹훅 CANCELED 처리와 같은 순서).
+     * 전이에 지면 동시 웹훅 등 다른 경로가 이미 환불/차감했으므로 차감하지 않고 현재 상태를 돌려준다 (키가 달라 이중 차감 방지).
+     * 잔액이 모자라면 INSUFFICIENT_BALANCE 로 전이까지 롤백한다 (PG 환불은 이미 됐으므로 수동 정리 대상).
+     */
+    private RefundResponse applyRefund(Payment payment, RefundRequest req) {
+        String orderId = payment.getOrderId();
+        WalletSnapshot wallet = walletRepository.findSnapshotByUserId(payment.getUserId())
+                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
 
-            wallet.setBalance(wallet.getBalance() - req.refundAmount());
-            walletRepository.saveWallet(wallet);
+        // 상태 관리: 단일 refundAmount 기준
+        PaymentState target = req.refundAmount() < payment.getAmount()
+                ? PaymentState.PARTIALLY_REFUNDED
+                : PaymentState.REFUNDED;                       // 전체 환불
+        if (stateMachine.transit(orderId, REFUNDABLE, target, null, "REFUND").isEmpty()) {
+            log.warn("[REFUND] state not changed, wallet not debited orderId={}, target={}", orderId, target);
+            return response(orderId, req, stateMachine.latestState(orderId).orElse(payment.getState()), wallet);
         }
 
-        // 상태 관리: 단일 refundAmount 기준
-        if (req.refundAmount() < payment.getAmount()) {
-            payment.setState(PaymentState.PARTIALLY_REFUNDED);
-        } else {
-            payment.setState(PaymentState.REFUNDED);           // 전체 환불
+        WalletLedger ledger = WalletLedger.builder()
+                .walletId(wallet.walletId())
+                .type(LedgerType.DEBIT)
+                .amount(req.refundAmount())
+                .reason("REFUND_PARTIAL")
+                .refType("PAYMENT")
+                .refId(orderId)
+                .idempotencyKey(refundKey(orderId, req.refundAmount(), req.reason()))
+                .build();
+        if (ledgerRepository.appendIfAbsent(ledger)
+                && !walletRepository.debitIfEnough(wallet.walletId(), req.refundAmount())) {
+            log.error("[REFUND] PG canceled but wallet balance is short, rolled back orderId={}, amount={}",
+                    orderId, req.refundAmount());
+            throw new IllegalStateException("INSUFFICIENT_BALANCE");
         }
-        paymentRepository.savePayment(payment);
+        return response(orderId, req, target, wallet);
+    }
 
+    private RefundResponse response(String orderId, RefundRequest req, PaymentState state, WalletSnapshot wallet) {
         return new RefundResponse(
-                payment.getOrderId(),
-                payment.getState().name(),
+                orderId,
+                state.name(),
                 req.refundAmount(),
-                wallet.getBalance()
+                walletRepository.findBalanceByUserId(wallet.userId()).orElse(wallet.balance())
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * 주문+금액+사유가 같은 환불은 한 번만 반영한다.
+     * 사유가 자유 입력이라 그대로 이으면 idempotency_key(64자)를 넘어 잘리므로 해시로 길이를 고정한다 ("REFUND:" + 56자).
+     */
+    static String refundKey(String orderId, Long amount, String reason) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((orderId + "\n" + amount + "\n" + reason).getBytes(StandardCharsets.UTF_8));
+            return "REFUND:" + HexFormat.of().formatHex(digest).substring(0, 56);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA256_UNAVAILABLE", e);
+        }
+    }
+}
@@ -3,77 +3,61 @@ package com.tbc.payments.application.service;
 import com.tbc.payments.adapter.in.web.dto.SettlementRequest;
 import com.tbc.payments.adapter.in.web.dto.SettlementResponse;
 import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
-import com.tbc.payments.application.port.out.WalletPersistencePort;
 import com.tbc.payments.domain.wallet.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SettlementService {
 
-    private final WalletPersistencePort walletRepo;
     private final WalletLedgerPersistencePort ledgerRepo;
+    private final PlatformWalletService platformWallets; // 샤딩된 플랫폼 지갑
 
-    private static final Long PLATFORM_USER_ID = 0L; // 플랫폼 전용 wallet
-
-    @Transactional
+    /**
+     * 플랫폼 샤드 DEBIT + 호스트 CREDIT 을 한 요청(all-or-nothing)으로 원장 포트에 넘긴다.
+     * 포트가 지갑 락 + 짧은 트랜잭션(또는 그룹 커밋 writer)으로 처리하므로 여기서는 트랜잭션을 열지 않는다.
+     * 샤드 후보는 락 없이 읽은 잔액으로 고르고, 실제로 모자라면(INSUFFICIENT) 다음 후보로 넘어간다.
+     */
     public SettlementResponse close(SettlementRequest req) {
-        // 1) 플랫폼 지갑 조회 (for update)
-        Wallet platform = walletRepo.findByUserIdForUpdate(PLATFORM_USER_ID)
-                .orElseThrow(() -> new IllegalStateException("PLATFORM_WALLET_NOT_FOUND"));
-
-        if (platform.getBalance() < req.totalAmount()) {
-            throw new IllegalStateException("PLATFORM_BALANCE_NOT_ENOUGH");
-        }
-
-        // 2) 호스트 지갑 조회 (for update)
-        Wallet host = walletRepo.findByUserIdForUpdate(req.hostId())
-                .orElseThrow(() -> new IllegalStateException("HOST_WALLET_NOT_FOUND"));
-
-        // 3) 원장 기록: 플랫폼 DEBIT, 호스트 CREDIT
         String idemKeyPlatform = "SETTLEMENT:DEBIT:" + req.meetingId();
         String idemKeyHost = "SETTLEMENT:CREDIT:" + req.meetingId();
 
-        if (ledgerRepo.findByIdempotencyKey(idemKeyPlatform).isEmpty()) {
-            WalletLedger debit = WalletLedger.builder()
-                    .walletId(platform.getId())
-                    .type(LedgerType.DEBIT)
-                    .amount(req.totalAmount())
-                    .reason("SETTLEMENT")
-                    .refType("MEETING")
-                    .refId(String.valueOf(req.meetingId()))
-                    .idempotencyKey(idemKeyPlatform)
-                    .build();
-            ledgerRepo.saveLedger(debit);
-
-            platform.setBalance(platform.getBalance() - req.totalAmount());
-            walletRepo.saveWallet(platform);
+        List<Long> candidates = new ArrayList<>(platformWallets.debitCandidates(req.meetingId(), req.totalAmount()));
+        if (candidates.isEmpty()) {
+            // 잔액이 모자라 보여도 재시도(이미 차감됨)일 수 있으니 한 번은 넘겨본다
+            candidates.add(PlatformWalletService.PLATFORM_USER_ID);
         }
 
-        if (ledgerRepo.findByIdempotencyKey(idemKeyHost).isEmpty()) {
-            WalletLedger credit = WalletLedger.builder()
-                    .walletId(host.getId())
-                    .type(LedgerType.CREDIT)
-                    .amount(req.totalAmount())
-                    .reason("SETTLEMENT")
-                    .refType("MEETING")
-                    .refId(String.valueOf(req.meetingId()))
-                    .idempotencyKey(idemKeyHost)
-                    .build();
-            ledgerRepo.saveLedger(credit);
-
-            host.setBalance(host.getBalance() + req.totalAmount());
-            walletRepo.saveWallet(host);
+        for (Long shardUserId : candidates) {
+            List<WalletMutationResult> results = ledgerRepo.post(List.of(
+                    new WalletMutation(shardUserId, LedgerType.DEBIT, req.totalAmount(),
+                            "SETTLEMENT", "MEETING", String.valueOf(req.meetingId()), idemKeyPlatform),
+                    new WalletMutation(req.hostId(), LedgerType.CREDIT, req.totalAmount(),
+                            "SETTLEMENT", "MEETING", String.valueOf(req.meetingId()), idemKeyHost)));
+            WalletMutationResult debit = results.get(0);
+            WalletMutationResult credit = results.get(1);
+
+            if (credit.status() == WalletMutationResult.Status.WALLET_NOT_FOUND) {
+                throw new IllegalStateException("HOST_WALLET_NOT_FOUND");
+            }
+            if (debit.status() == WalletMutationResult.Status.WALLET_NOT_FOUND) {
+                throw new IllegalStateException("PLATFORM_WALLET_NOT_FOUND");
+            }
+            if (debit.status() == WalletMutationResult.Status.INSUFFICIENT) {
+                continue; // 다음 후보 샤드
+            }
+            return new SettlementResponse(
+                    req.meetingId(),
+                    req.hostId(),
+                    req.totalAmount(),
+                    credit.balanceAfter(),
+                    platformWallets.aggregateBalance()
+            );
         }
-
-        return new SettlementResponse(
-                req.meetingId(),
-                req.hostId(),
-                req.totalAmount(),
-                host.getBalance(),
-                platform.getBalance()
-        );
+        throw new IllegalStateException("PLATFORM_BALANCE_NOT_ENOUGH");
     }
-}
\ No newline at end of file
+}
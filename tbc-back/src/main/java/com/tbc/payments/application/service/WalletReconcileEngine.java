@@ -0,0 +1,113 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.ReconcileReport;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.PlatformWalletSummary;
+import com.tbc.payments.domain.wallet.WalletReconcileRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 지갑 잔액 ↔ 원장 정합성 점검 엔진.
+ * 지갑 id 키셋 페이지마다 GROUP BY 조인 한 번으로 (잔액, 원장합계)를 받아오므로
+ * 엔티티를 올리지 않고, 지갑 수만큼 쿼리를 날리지도 않는다. 불일치만 상한까지 모아서 돌려준다.
+ */
+@Slf4j
+@Service
+public class WalletReconcileEngine {
+
+    private final WalletPersistencePort walletRepo;
+    private final WalletLedgerPersistencePort ledgerRepo;
+    private final PlatformWalletService platformWallets;
+    private final LedgerCheckpointService checkpointService;
+    private final int chunkSize;
+    private final int maxReported;
+
+    public WalletReconcileEngine(WalletPersistencePort walletRepo,
+                                 WalletLedgerPersistencePort ledgerRepo,
+                                 PlatformWalletService platformWallets,
+                                 LedgerCheckpointService checkpointService,
+                                 @Value("${payments.reconcile.chunk-size:1000}") int chunkSize,
+                                 @Value("${payments.reconcile.max-reported:100}") int maxReported) {
+        this.walletRepo = walletRepo;
+        this.ledgerRepo = ledgerRepo;
+        this.platformWallets = platformWallets;
+        this.checkpointService = checkpointService;
+        this.chunkSize = chunkSize;
+        this.maxReported = maxReported;
+    }
+
+    public ReconcileReport run(boolean fix) {
+        long scanned = 0;
+        long mismatched = 0;
+        long fixed = 0;
+        List<ReconcileReport.Mismatch> mismatches = new ArrayList<>();
+
+        long platformBalance = 0;
+        long platformLedgerSum = 0;
+
+        long afterId = 0L;
+        while (true) {
+            List<WalletReconcileRow> chunk = walletRepo.scanReconcileRows(afterId, chunkSize);
+            if (chunk.isEmpty()) break;
+
+            for (WalletReconcileRow scannedRow : chunk) {
+                scanned++;
+                WalletReconcileRow row = scannedRow.consistent() ? scannedRow : withVerifiedCheckpoint(scannedRow);
+
+                // 플랫폼 샤드는 하나의 논리 지갑으로 합산해서 판단 (보정은 샤드별 원장 기준)
+                if (platformWallets.isShard(row.userId())) {
+                    platformBalance += row.balance();
+                    platformLedgerSum += row.ledgerSum();
+                    if (fix && !row.consistent() && walletRepo.fixBalance(row.walletId(), row.balance(), row.ledgerSum())) {
+                        fixed++;
+                    }
+                    continue;
+                }
+
+                if (row.consistent()) continue;
+
+                mismatched++;
+                if (mismatches.size() < maxReported) {
+                    mismatches.add(new ReconcileReport.Mismatch(row.walletId(), row.userId(), row.balance(), row.ledgerSum()));
+                }
+                if (fix) {
+                    if (walletRepo.fixBalance(row.walletId(), row.balance(), row.ledgerSum())) {
+                        fixed++;
+                    } else {
+                        // 점검 후 잔액이 바뀜 → 다음 점검에서 다시 판단
+                        log.info("[RECONCILE] skip fix walletId={} (balance changed concurrently)", row.walletId());
+                    }
+                }
+            }
+
+            afterId = chunk.get(chunk.size() - 1).walletId();
+            if (chunk.size() < chunkSize) break;
+        }
+
+        PlatformWalletSummary platform = new PlatformWalletSummary(
+                platformWallets.shardUserIds().size(), platformBalance, platformLedgerSum);
+        boolean truncated = mismatched > mismatches.size();
+        if (!platform.consistent()) {
+            mismatched++;
+        }
+
+        return new ReconcileReport(scanned, mismatched, fixed, truncated, List.copyOf(mismatches), platform);
+    }
+
+    /**
+     * 불일치로 보이면 보정/보고 전에 체크포인트부터 원장 전체 합으로 검증한다.
+     * 체크포인트가 틀렸던 거라면 고친 뒤 다시 합산한 값으로 판단 (틀린 체크포인트로 잔액을 덮어쓰지 않게).
+     */
+    private WalletReconcileRow withVerifiedCheckpoint(WalletReconcileRow row) {
+        if (!checkpointService.verify(row.walletId())) {
+            return row;
+        }
+        return new WalletReconcileRow(row.walletId(), row.userId(), row.balance(), ledgerRepo.sumByWalletId(row.walletId()));
+    }
+}
@@ -1,7 +1,10 @@
 package com.tbc.payments.application.service;
 
-import com.tbc.payments.domain.wallet.Wallet;
+import com.tbc.payments.domain.wallet.LedgerType;
+import com.tbc.payments.domain.wallet.WalletLedger;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
 import com.tbc.payments.application.port.in.WalletUseCase;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
 import com.tbc.payments.application.port.out.WalletPersistencePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -11,14 +14,42 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class WalletService implements WalletUseCase {
     private final WalletPersistencePort walletRepository;
+    private final WalletLedgerPersistencePort ledgerRepository;
 
     /** 사용자 지갑이 없으면 balance=0으로 생성 */
     @Override
     @Transactional
-    public Wallet getOrCreate(Long userId) {
-        return walletRepository.findByUserId(userId)
-                .orElseGet(() -> walletRepository.saveWallet(
-                        Wallet.builder().userId(userId).balance(0L).build()
-                ));
+    public WalletSnapshot getOrCreate(Long userId) {
+        return walletRepository.findSnapshotByUserId(userId)
+                .orElseGet(() -> walletRepository.insertIfAbsent(userId)
+                        .map(walletId -> new WalletSnapshot(walletId, userId, 0L, 0L))
+                        // 동시 생성에 졌음: 스냅샷 읽기로는 상대 커밋이 안 보일 수 있어 잠금 읽기로 확인
+                        .orElseGet(() -> walletRepository.findByUserIdForUpdate(userId)
+                                .map(w -> new WalletSnapshot(w.getId(), w.getUserId(), w.getBalance(), 0L))
+                                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"))));
     }
-}
\ No newline at end of file
+
+    /** 충전 적립: SELECT ... FOR UPDATE 없이 원장 INSERT + 원자적 증가 (같은 사용자의 차감/충전과 앞단 락 경합 없음) */
+    @Override
+    @Transactional
+    public boolean credit(Long userId, long amount, String reason, String refType, String refId, String idempotencyKey) {
+        WalletSnapshot wallet = walletRepository.findSnapshotByUserId(userId)
+                .orElseThrow(() -> new IllegalStateException("WALLET_NOT_FOUND"));
+
+        boolean inserted = ledgerRepository.appendIfAbsent(WalletLedger.builder()
+                .walletId(wallet.walletId())
+                .type(LedgerType.CREDIT)
+                .amount(amount)
+                .reason(reason)
+                .refType(refType)
+                .refId(refId)
+                .idempotencyKey(idempotencyKey)
+                .build());
+        if (!inserted) {
+            return false;
+        }
+
+        walletRepository.credit(wallet.walletId(), amount);
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.WalletStatementResponse;
+import com.tbc.payments.application.port.in.WalletStatementUseCase;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.wallet.LedgerCursor;
+import com.tbc.payments.domain.wallet.LedgerEntryView;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 지갑 거래 내역.
+ * 페이지 조회는 (created_at, id) 키셋으로 OFFSET 없이 이어 읽고, 내보내기는 DB 커서로 흘려보내
+ * 몇 년치 내역이어도 메모리 사용량이 일정하다. 둘 다 엔티티가 아닌 프로젝션만 읽는다.
+ */
+@Service
+public class WalletStatementService implements WalletStatementUseCase {
+
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final WalletPersistencePort walletRepository;
+    private final WalletLedgerPersistencePort ledgerRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public WalletStatementService(WalletPersistencePort walletRepository,
+                                  WalletLedgerPersistencePort ledgerRepository,
+                                  @Value("${payments.statement.default-page-size:50}") int defaultPageSize,
+                                  @Value("${payments.statement.max-page-size:200}") int maxPageSize) {
+        this.walletRepository = walletRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WalletStatementResponse page(Long userId, LocalDateTime from, LocalDateTime to, String cursor, Integer size) {
+        WalletSnapshot wallet = wallet(userId);
+        LocalDateTime lower = from != null ? from : MIN_TIME;
+        checkRange(lower, to);
+        int limit = size == null ? defaultPageSize : Math.clamp(size, 1, maxPageSize);
+
+        LedgerCursor seek = LedgerCursor.decode(cursor);
+        if ((cursor == null || cursor.isBlank()) && to != null) {
+            // (to, MIN) 커서 = created_at < to
+            seek = new LedgerCursor(to, Long.MIN_VALUE);
+        }
+
+        // 한 건 더 읽어 다음 페이지 존재 여부 판단 (COUNT 없음)
+        List<LedgerEntryView> rows = ledgerRepository.findEntriesBefore(wallet.walletId(), lower, seek, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<LedgerEntryView> entries = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? LedgerCursor.after(entries.get(limit - 1)).encode() : null;
+        return new WalletStatementResponse(userId, wallet.walletId(), List.copyOf(entries), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Long userId, LocalDateTime from, LocalDateTime to, Consumer<LedgerEntryView> sink) {
+        WalletSnapshot wallet = wallet(userId);
+        LocalDateTime lower = from != null ? from : MIN_TIME;
+        LocalDateTime upper = to != null ? to : LedgerCursor.START.createdAt();
+        checkRange(lower, upper);
+
+        // 스트림이 열려 있는 동안 커넥션을 잡고 있으므로 반드시 닫는다
+        try (Stream<LedgerEntryView> entries = ledgerRepository.streamEntries(wallet.walletId(), lower, upper)) {
+            entries.forEach(sink);
+        }
+    }
+
+    private WalletSnapshot wallet(Long userId) {
+        return walletRepository.findSnapshotByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("WALLET_NOT_FOUND"));
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("INVALID_DATE_RANGE");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.domain.webhook.WebhookStoredEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 웹훅 비동기 처리 큐.
+ * 수신 행이 커밋된 뒤에만 큐에 넣고(AFTER_COMMIT), data.orderId 해시로 K 개 lane 중 하나에 배정한다.
+ * lane 마다 가상 스레드 하나가 순서대로 처리하고, 서로 다른 lane 은 각자 트랜잭션으로 병렬 처리된다.
+ * 같은 주문의 순서(DONE → CANCELED)는 lane 이 아니라 claimAndProcess 가 지킨다: 먼저 받은 같은 주문 이벤트가
+ * PENDING/FAILED(재시도 대기) 로 남아 있으면 뒤 이벤트는 미뤄지고 폴링/재시도 잡이 나중에 다시 가져간다.
+ * lane 이 가득 차거나 재기동으로 잃어버린 이벤트는 PENDING 으로 남아 WebhookProcessor 폴링이 주워 간다.
+ */
+@Slf4j
+@Service
+public class WebhookDispatcher {
+
+    private final PaymentWebhookService webhookService;
+    private final List<BlockingQueue<WebhookStoredEvent>> lanes;
+    private final List<Thread> workers;
+    private volatile boolean running = true;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter processed;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer processing;
+
+    public WebhookDispatcher(PaymentWebhookService webhookService,
+                             MeterRegistry meterRegistry,
+                             @Value("${payments.webhook.dispatch.lanes:8}") int laneCount,
+                             @Value("${payments.webhook.dispatch.lane-capacity:1000}") int laneCapacity) {
+        this.webhookService = webhookService;
+
+        this.enqueued = counter(meterRegistry, "enqueued");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.processed = counter(meterRegistry, "processed");
+        this.skipped = counter(meterRegistry, "skipped");
+        this.failed = counter(meterRegistry, "failed");
+        this.lag = Timer.builder("payments.webhook.dispatch.lag")
+                .description("수신(receivedAt)부터 처리 시작까지")
+                .register(meterRegistry);
+        this.processing = Timer.builder("payments.webhook.dispatch.processing")
+                .description("웹훅 한 건 처리 시간")
+                .register(meterRegistry);
+
+        int n = Math.max(1, laneCount);
+        List<BlockingQueue<WebhookStoredEvent>> qs = new ArrayList<>(n);
+        List<Thread> ws = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BlockingQueue<WebhookStoredEvent> q = new ArrayBlockingQueue<>(Math.max(1, laneCapacity));
+            qs.add(q);
+            Gauge.builder("payments.webhook.dispatch.queue", q, BlockingQueue::size)
+                    .description("lane 별 처리 대기 중인 웹훅 수")
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+            ws.add(Thread.ofVirtual().name("webhook-lane-" + i).start(() -> drain(q)));
+        }
+        this.lanes = qs;
+        this.workers = ws;
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("payments.webhook.dispatch")
+                .description("웹훅 디스패치 결과")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /** 수신 트랜잭션 커밋 후에만 (롤백된 이벤트는 처리하지 않음). lane 이 가득 차면 버리고 폴링에 맡긴다 */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStored(WebhookStoredEvent event) {
+        int lane = laneOf(event);
+        if (running && lanes.get(lane).offer(event)) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+            log.warn("[WH-DISPATCH] lane {} full, eventId={} left for poller", lane, event.eventId());
+        }
+    }
+
+    /** 같은 주문은 항상 같은 lane (orderId 가 없는 이벤트는 eventId 로 분산) */
+    private int laneOf(WebhookStoredEvent event) {
+        String orderId = event.payload().orderId();
+        String key = orderId != null ? orderId : event.eventId();
+        return Math.floorMod(key.hashCode(), lanes.size());
+    }
+
+    private void drain(BlockingQueue<WebhookStoredEvent> queue) {
+        while (running) {
+            WebhookStoredEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            handle(event);
+        }
+    }
+
+    private void handle(WebhookStoredEvent event) {
+        lag.record(Duration.between(event.receivedAt(), LocalDateTime.now()));
+        Timer.Sample sample = Timer.start();
+        try {
+            if (webhookService.claimAndProcess(event.eventId(), event.payload())) {
+                processed.increment();
+            } else {
+                skipped.increment();
+            }
+        } catch (RuntimeException ex) {
+            failed.increment();
+            log.error("[WH-DISPATCH] process failed eventId={}", event.eventId(), ex);
+            try {
+                webhookService.markFailed(event.eventId(), safeMessage(ex));
+            } catch (RuntimeException markEx) {
+                // 기록도 실패하면 PENDING 으로 남아 폴링이 다시 처리
+                log.warn("[WH-DISPATCH] markFailed failed eventId={}: {}", event.eventId(), markEx.toString());
+            }
+        } finally {
+            sample.stop(processing);
+        }
+    }
+
+    private static String safeMessage(Throwable t) {
+        String m = t.getMessage();
+        return (m == null || m.isBlank()) ? t.getClass().getSimpleName() : (m.length() > 900 ? m.substring(0, 900) : m);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 남은 큐 항목은 PENDING 행으로 남아 있으므로 재기동 후 폴링이 처리
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+}
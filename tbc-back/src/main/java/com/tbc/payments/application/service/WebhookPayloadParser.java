@@ -0,0 +1,79 @@
+package com.tbc.payments.application.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.domain.webhook.WebhookPayload;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 웹훅 본문 단일 패스 토큰 파서.
+ * 트리(JsonNode)나 DTO 를 만들지 않고 필요한 필드만 읽고 나머지 값은 건너뛴다 (PG 재전송 폭주 시 CPU/가비지 절감).
+ */
+@Component
+public class WebhookPayloadParser {
+
+    private final JsonFactory jsonFactory;
+
+    public WebhookPayloadParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /** @throws IOException JSON 이 아니거나 최상위가 객체가 아님 */
+    public WebhookPayload parse(String raw) throws IOException {
+        if (raw == null) throw new IOException("WEBHOOK_PAYLOAD_EMPTY");
+        String eventId = null, id = null, eventType = null, type = null;
+        String orderId = null, status = null, paymentKey = null;
+        boolean hasData = false;
+
+        try (JsonParser p = jsonFactory.createParser(raw)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(p, "WEBHOOK_PAYLOAD_NOT_OBJECT");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "eventId" -> eventId = scalar(p, value);
+                    case "id" -> id = scalar(p, value);
+                    case "eventType" -> eventType = scalar(p, value);
+                    case "type" -> type = scalar(p, value);
+                    case "data" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            hasData = true;
+                            orderId = status = paymentKey = null; // 중복 키면 마지막 값 (트리 파싱과 동일)
+                            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                                String dataField = p.currentName();
+                                JsonToken dataValue = p.nextToken();
+                                switch (dataField) {
+                                    case "orderId" -> orderId = scalar(p, dataValue);
+                                    case "status" -> status = scalar(p, dataValue);
+                                    case "paymentKey" -> paymentKey = scalar(p, dataValue);
+                                    default -> p.skipChildren();
+                                }
+                            }
+                        } else {
+                            hasData = false;
+                            p.skipChildren();
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new WebhookPayload(eventId, id, eventType, type, hasData, orderId, status, paymentKey);
+    }
+
+    /** 문자열/숫자/불리언은 텍스트로, null 이나 객체/배열은 null (객체/배열은 건너뜀) */
+    private static String scalar(JsonParser p, JsonToken value) throws IOException {
+        if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        return value == JsonToken.VALUE_NULL ? null : p.getText();
+    }
+}
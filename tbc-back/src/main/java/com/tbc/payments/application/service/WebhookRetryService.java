@@ -1,43 +1,90 @@
 package com.tbc.payments.application.service;
 
+import com.tbc.payments.adapter.in.web.dto.WebhookRequeueRequest;
 import com.tbc.payments.domain.webhook.WebhookEvent;
-import com.tbc.payments.domain.webhook.WebhookStatus;
 import com.tbc.payments.application.port.out.WebhookEventPersistencePort;
-import com.tbc.payments.application.service.PaymentWebhookService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 실패 웹훅 재시도.
+ * next_attempt_at 이 지난 FAILED 만 페이지 단위로 선점해 건별 트랜잭션으로 다시 처리한다.
+ * 다시 실패하면 markFailed 가 백오프를 늘리고, 최대 시도 횟수를 넘으면 DEAD 로 빠진다.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class WebhookRetryService {
 
     private final WebhookEventPersistencePort eventRepo;
     private final PaymentWebhookService webhookService;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final int requeueAttempts;
 
-    @Transactional
-    public String retryFailedEvents() {
-        var failed = eventRepo.findByStatus(WebhookStatus.FAILED);
+    public WebhookRetryService(WebhookEventPersistencePort eventRepo,
+                               PaymentWebhookService webhookService,
+                               @Value("${payments.webhook.retry.page-size:100}") int pageSize,
+                               @Value("${payments.webhook.retry.max-pages-per-run:10}") int maxPagesPerRun,
+                               @Value("${payments.webhook.retry.requeue-attempts:3}") int requeueAttempts) {
+        this.eventRepo = eventRepo;
+        this.webhookService = webhookService;
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.requeueAttempts = requeueAttempts;
+    }
 
+    /** 재시도 시각이 된 실패 이벤트 처리 (스케줄러/관리자 수동 실행 공용) */
+    public String retryFailedEvents() {
         StringBuilder report = new StringBuilder();
-        for (WebhookEvent e : failed) {
-            try {
-                webhookService.process(e);
-                e.setStatus(WebhookStatus.SUCCESS);
-                e.setProcessedAt(java.time.LocalDateTime.now());
-                e.setLastError(null);
-                report.append("✅ 재처리 성공: ").append(e.getEventId()).append("\n");
-            } catch (Exception ex) {
-                log.error("❌ 재처리 실패 eventId={}", e.getEventId(), ex);
-                e.setLastError(ex.getMessage());
-                // 여전히 FAILED 유지
-                report.append("❌ 재처리 실패: ").append(e.getEventId())
-                        .append(" (").append(ex.getMessage()).append(")\n");
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<String> due = webhookService.claimDueRetries(pageSize);
+            for (String eventId : due) {
+                try {
+                    if (webhookService.claimAndProcess(eventId, null)) {
+                        report.append("✅ 재처리 성공: ").append(eventId).append("\n");
+                    }
+                } catch (Exception ex) {
+                    log.error("❌ 재처리 실패 eventId={}", eventId, ex);
+                    try {
+                        webhookService.markFailed(eventId, safeMessage(ex));
+                    } catch (RuntimeException markEx) {
+                        // 선점 lease 가 끝나면 다시 대상이 된다
+                        log.warn("markFailed failed eventId={}: {}", eventId, markEx.toString());
+                    }
+                    report.append("❌ 재처리 실패: ").append(eventId)
+                            .append(" (").append(ex.getMessage()).append(")\n");
+                }
             }
-            eventRepo.save(e);
+            if (due.size() < pageSize) break;
         }
         return report.toString();
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public List<WebhookEvent> findDead(int limit) {
+        return eventRepo.findDead(Math.clamp(limit, 1, 500));
+    }
+
+    /** DEAD 이벤트를 골라 다시 재시도 대상으로 (eventIds 우선, 없으면 eventType 전체) */
+    @Transactional
+    public int requeueDead(WebhookRequeueRequest req) {
+        LocalDateTime now = LocalDateTime.now();
+        if (req.eventIds() != null && !req.eventIds().isEmpty()) {
+            return eventRepo.requeueDead(req.eventIds(), requeueAttempts, now);
+        }
+        if (req.eventType() != null && !req.eventType().isBlank()) {
+            return eventRepo.requeueDeadByType(req.eventType(), requeueAttempts, now);
+        }
+        throw new IllegalArgumentException("REQUEUE_TARGET_REQUIRED");
+    }
+
+    private static String safeMessage(Throwable t) {
+        String m = t.getMessage();
+        return (m == null || m.isBlank()) ? t.getClass().getSimpleName() : (m.length() > 900 ? m.substring(0, 900) : m);
+    }
+}
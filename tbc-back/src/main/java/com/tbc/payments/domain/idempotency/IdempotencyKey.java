@@ -0,0 +1,70 @@
+package com.tbc.payments.domain.idempotency;
+
+import com.tbc.common.id.TsidId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * HTTP Idempotency-Key 기록.
+ * key_hash = sha256(사용자 + 경로 + 키), fingerprint = sha256(요청 본문) 이라 키/본문 길이와 무관하게 행 크기가 일정하다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key_hash", columnNames = "key_hash"),
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+)
+public class IdempotencyKey {
+
+    @Id
+    @TsidId
+    private Long id;
+
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String keyHash;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status;
+
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "MEDIUMBLOB")
+    private byte[] responseBody;
+
+    // IN_PROGRESS: 선점 lease 만료 시각 (노드가 죽어도 이후 재시도가 다시 선점) / COMPLETED: 보관 만료 시각
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.tbc.payments.domain.idempotency;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS, // 첫 요청이 처리 중 (lease 동안 선점)
+    COMPLETED    // 응답 저장됨 → 같은 키 재요청은 저장된 응답을 그대로 재생
+}
@@ -0,0 +1,8 @@
+package com.tbc.payments.domain.idempotency;
+
+/** 재생용으로 저장한 HTTP 응답 (body 는 직렬화된 바이트 그대로) */
+public record IdempotentResponse(
+        int status,
+        String contentType,
+        byte[] body
+) {}
@@ -1,5 +1,6 @@
 package com.tbc.payments.domain.payment;
 
+import com.tbc.common.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,10 +8,15 @@ import java.time.LocalDateTime;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+        indexes = {
+                @Index(name = "idx_payments_state_updated_at", columnList = "state, updated_at"), // CONFIRMING 복구 스캔용
+                @Index(name = "idx_payments_state_created_at", columnList = "state, created_at"), // 만료 INIT 정리 키셋 스캔용
+                @Index(name = "idx_payments_meetup_id", columnList = "meetup_id")                 // 모임 취소 일괄 환불 대상 조회
+        })
 public class Payment {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @TsidId
     private Long id;
 
     @Column(name="order_id", nullable=false, unique=true)
@@ -24,17 +30,25 @@ public class Payment {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable=false, length=32)
-    private PaymentState state; // INIT/PAID/REFUND_REQUESTED/REFUNDED
+    private PaymentState state; // INIT/CONFIRMING/PAID/REFUND_REQUESTED/REFUNDED
 
     @Column(length=64)
     private String paymentKey;
 
+    @Column(name="meetup_id")
+    private Long meetupId; // 승인과 함께 참가비를 차감한 모임 (자동 차감 시에만)
+
     @Column(length=64)
     private String failureCode;
 
     @Column(length=255)
     private String failureMsg;
 
+    // 상태 전이(조건부 UPDATE)와 엔티티 저장 모두 올린다 → 옛 버전으로 저장하면 OptimisticLock 으로 실패
+    @Version
+    @Column(nullable=false)
+    private long version;
+
     @Column(name="created_at", nullable=false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,10 @@
+package com.tbc.payments.domain.payment;
+
+import java.time.LocalDateTime;
+
+/** 키셋 스캔 1행 (created_at, id 가 다음 페이지 커서) */
+public record PaymentCursorRow(
+        Long id,
+        String orderId,
+        LocalDateTime createdAt
+) {}
@@ -1,11 +1,12 @@
 package com.tbc.payments.domain.payment;
 
 public enum PaymentState {
-    INIT, PAID, FAILED, CANCELED, REFUND_REQUESTED, REFUNDED, PARTIALLY_REFUNDED;
+    INIT, CONFIRMING, PAID, FAILED, CANCELED, REFUND_REQUESTED, REFUNDED, PARTIALLY_REFUNDED;
 
     public boolean canTransitTo(PaymentState next) {
         return switch (this) {
-            case INIT -> next == PAID || next == FAILED || next == CANCELED;
+            case INIT -> next == CONFIRMING || next == PAID || next == FAILED || next == CANCELED;
+            case CONFIRMING -> next == PAID || next == FAILED || next == INIT; // PG 승인 호출 중 (INIT 은 호출 자체를 못 했을 때)
             case PAID -> next == REFUND_REQUESTED || next == REFUNDED || next == PARTIALLY_REFUNDED;
             case REFUND_REQUESTED -> next == REFUNDED;
             case PARTIALLY_REFUNDED -> next == REFUNDED || next == PARTIALLY_REFUNDED;
@@ -0,0 +1,49 @@
+package com.tbc.payments.domain.payment;
+
+import com.tbc.common.id.TsidId;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 결제 상태 전이 이력 (append-only).
+ * 조건부 UPDATE 가 성공한 같은 트랜잭션에서 한 줄씩 쌓이므로, order_id 별로 id(TSID) 순으로 읽으면 상태 변화를 그대로 재생할 수 있다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Immutable
+@Entity
+@Table(name = "payment_state_transitions",
+        indexes = @Index(name = "idx_pst_order_id_id", columnList = "order_id, id"))
+public class PaymentStateTransition {
+
+    @Id
+    @TsidId
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, updatable = false, length = 64)
+    private String orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_state", updatable = false, length = 32)
+    private PaymentState fromState; // 생성 시 null
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_state", nullable = false, updatable = false, length = 32)
+    private PaymentState toState;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String reason; // CONFIRM_BEGIN, PG_DONE, WEBHOOK_CANCELED ...
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tbc.payments.domain.refund;
+
+import com.tbc.common.id.TsidId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "bulk_refund_items",
+        uniqueConstraints = @UniqueConstraint(name = "uk_bulk_refund_items_job_order", columnNames = {"job_id", "order_id"}),
+        indexes = @Index(name = "idx_bulk_refund_items_job_status", columnList = "job_id, status"))
+public class BulkRefundItem {
+
+    @Id
+    @TsidId
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "order_id", nullable = false, length = 64)
+    private String orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private BulkRefundItemStatus status;
+
+    @Column(nullable = false)
+    private Long amount;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private boolean retryable;
+
+    @Column(length = 64)
+    private String failureCode;
+
+    @Column(length = 255)
+    private String failureMsg;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
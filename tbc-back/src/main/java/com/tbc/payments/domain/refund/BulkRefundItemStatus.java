@@ -0,0 +1,7 @@
+package com.tbc.payments.domain.refund;
+
+public enum BulkRefundItemStatus {
+    PENDING,  // 아직 PG 취소 전 (또는 취소 후 원장 반영 전에 중단됨 → 재개 시 같은 Idempotency-Key 로 다시 취소)
+    DONE,     // PG 취소 + 상태 전이 + 원장 반영 완료
+    FAILED    // retryable 이면 resume 으로 PENDING 복귀
+}
@@ -0,0 +1,63 @@
+package com.tbc.payments.domain.refund;
+
+import com.tbc.common.id.TsidId;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 모임 취소 등으로 여러 결제를 한 번에 환불하는 작업.
+ * 진행 상황은 bulk_refund_items 에 주문별로 남고, RUNNING 인 작업은 재기동 시 이어서 처리한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "bulk_refund_jobs",
+        indexes = @Index(name = "idx_bulk_refund_jobs_status", columnList = "status"))
+public class BulkRefundJob {
+
+    @Id
+    @TsidId
+    private Long id;
+
+    @Column(name = "meetup_id")
+    private Long meetupId; // 주문 목록으로 요청했으면 null
+
+    @Column(nullable = false, length = 200)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private BulkRefundJobStatus status;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int succeeded;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
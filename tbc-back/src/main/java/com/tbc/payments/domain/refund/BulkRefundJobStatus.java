@@ -0,0 +1,5 @@
+package com.tbc.payments.domain.refund;
+
+public enum BulkRefundJobStatus {
+    RUNNING, COMPLETED, COMPLETED_WITH_FAILURES
+}
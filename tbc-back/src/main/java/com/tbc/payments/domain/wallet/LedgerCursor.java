@@ -0,0 +1,36 @@
+package com.tbc.payments.domain.wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 거래 내역 키셋 커서: 마지막으로 내려준 행의 (created_at, id).
+ * 다음 페이지는 이 값보다 "앞선" 행부터 (최신순). 클라이언트에는 불투명 문자열로 내려간다.
+ */
+public record LedgerCursor(LocalDateTime createdAt, Long id) {
+
+    /** 첫 페이지용: 어떤 행보다도 뒤 */
+    public static final LedgerCursor START = new LedgerCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    public static LedgerCursor after(LedgerEntryView last) {
+        return new LedgerCursor(last.createdAt(), last.id());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LedgerCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new LedgerCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("INVALID_CURSOR");
+        }
+    }
+}
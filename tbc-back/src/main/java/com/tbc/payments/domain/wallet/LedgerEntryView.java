@@ -0,0 +1,14 @@
+package com.tbc.payments.domain.wallet;
+
+import java.time.LocalDateTime;
+
+/** 거래 내역 조회/내보내기용 원장 프로젝션 (엔티티를 영속성 컨텍스트에 올리지 않음) */
+public record LedgerEntryView(
+        Long id,
+        LedgerType type,
+        Long amount,
+        String reason,
+        String refType,
+        String refId,
+        LocalDateTime createdAt
+) {}
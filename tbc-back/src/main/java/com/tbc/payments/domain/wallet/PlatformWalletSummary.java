@@ -0,0 +1,12 @@
+package com.tbc.payments.domain.wallet;
+
+/** 샤드로 나뉜 플랫폼 지갑을 하나의 논리 지갑으로 본 합산 결과 */
+public record PlatformWalletSummary(
+        int shards,
+        long balance,
+        long ledgerSum
+) {
+    public boolean consistent() {
+        return balance == ledgerSum;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tbc.payments.domain.wallet;
 
+import com.tbc.common.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 public class Wallet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Column(name = "user_id", nullable = false, unique = true)
@@ -0,0 +1,40 @@
+package com.tbc.payments.domain.wallet;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 지갑 원장 합계 체크포인트.
+ * last_ledger_id 까지의 원장 합계를 balance_at_checkpoint 로 보관해 두고,
+ * 검증 시에는 그 이후 원장만 더한다 (원장 전체 재스캔 방지).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "wallet_balance_checkpoint")
+public class WalletBalanceCheckpoint {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Column(name = "last_ledger_id", nullable = false)
+    private Long lastLedgerId;
+
+    @Column(name = "balance_at_checkpoint", nullable = false)
+    private Long balanceAtCheckpoint;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.tbc.payments.domain.wallet;
+
+/** 엔티티를 영속성 컨텍스트에 올리지 않고 잔액만 읽을 때 쓰는 프로젝션 */
+public record WalletBalanceView(
+        Long walletId,
+        Long userId,
+        Long balance
+) {}
@@ -1,5 +1,6 @@
 package com.tbc.payments.domain.wallet;
 
+import com.tbc.common.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,12 +15,15 @@ import java.time.LocalDateTime;
 @Table(
         name = "wallet_ledger",
         uniqueConstraints = @UniqueConstraint(columnNames = "idempotency_key"),
-        indexes = @Index(name = "idx_wallet_id_created_at", columnList = "wallet_id, created_at")
+        indexes = {
+                @Index(name = "idx_wallet_id_created_at", columnList = "wallet_id, created_at"),
+                @Index(name = "idx_wallet_id_id", columnList = "wallet_id, id") // 체크포인트 이후 구간 합산용
+        }
 )
 public class WalletLedger {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Column(name = "wallet_id", nullable = false)
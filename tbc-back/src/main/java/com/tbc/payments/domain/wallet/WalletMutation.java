@@ -0,0 +1,16 @@
+package com.tbc.payments.domain.wallet;
+
+/** 그룹 커밋 엔진에 넘기는 원장 한 줄 (CREDIT/DEBIT + 멱등키) */
+public record WalletMutation(
+        Long userId,
+        LedgerType type,
+        long amount,
+        String reason,
+        String refType,
+        String refId,
+        String idempotencyKey
+) {
+    public long delta() {
+        return type == LedgerType.CREDIT ? amount : -amount;
+    }
+}
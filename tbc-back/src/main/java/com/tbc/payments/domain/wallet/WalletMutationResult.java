@@ -0,0 +1,19 @@
+package com.tbc.payments.domain.wallet;
+
+public record WalletMutationResult(
+        Status status,
+        Long walletId,
+        Long balanceAfter   // APPLIED/DUPLICATE 일 때 해당 지갑 잔액
+) {
+    public enum Status {
+        APPLIED,            // 이번 배치에서 기록됨
+        DUPLICATE,          // 같은 멱등키가 이미 있음 (기존과 동일하게 성공 취급)
+        INSUFFICIENT,       // 잔액 부족 → 같은 요청의 다른 줄도 적용하지 않음
+        WALLET_NOT_FOUND,
+        SKIPPED             // 같은 요청의 다른 줄이 실패해서 적용하지 않음
+    }
+
+    public boolean succeeded() {
+        return status == Status.APPLIED || status == Status.DUPLICATE;
+    }
+}
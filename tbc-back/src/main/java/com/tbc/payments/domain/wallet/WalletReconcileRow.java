@@ -0,0 +1,13 @@
+package com.tbc.payments.domain.wallet;
+
+/** 정합성 점검 1행: 저장된 잔액과 (체크포인트 + 이후 원장) 합계 */
+public record WalletReconcileRow(
+        Long walletId,
+        Long userId,
+        Long balance,
+        Long ledgerSum
+) {
+    public boolean consistent() {
+        return balance.equals(ledgerSum);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tbc.payments.domain.wallet;
+
+/**
+ * 지갑 읽기 캐시가 돌려주는 불변 스냅샷.
+ * version 은 캐시 내부 버전 (원장/잔액 쓰기가 커밋될 때마다 증가).
+ */
+public record WalletSnapshot(
+        Long walletId,
+        Long userId,
+        Long balance,
+        long version
+) {}
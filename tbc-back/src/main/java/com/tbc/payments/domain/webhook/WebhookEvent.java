@@ -1,5 +1,6 @@
 package com.tbc.payments.domain.webhook;
 
+import com.tbc.common.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -16,13 +17,16 @@ import java.time.LocalDateTime;
         uniqueConstraints = @UniqueConstraint(columnNames = "event_id"),
         indexes = {
                 @Index(name = "idx_webhook_status", columnList = "status"),
-                @Index(name = "idx_webhook_received_at", columnList = "received_at")
+                @Index(name = "idx_webhook_received_at", columnList = "received_at"),
+                @Index(name = "idx_webhook_status_received_at", columnList = "status, received_at"), // 처리 대상 선점
+                @Index(name = "idx_webhook_status_next_attempt_at", columnList = "status, next_attempt_at"), // 재시도 예정
+                @Index(name = "idx_webhook_order_received_at", columnList = "order_id, received_at") // 같은 주문 앞선 이벤트 확인
         }
 )
 public class WebhookEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Column(name = "event_id", nullable = false, length = 128)
@@ -31,6 +35,9 @@ public class WebhookEvent {
     @Column(name = "event_type", length = 64)
     private String eventType;
 
+    @Column(name = "order_id", length = 64)
+    private String orderId; // data.orderId (같은 주문 이벤트 순서 유지용, 없으면 null)
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 16)
     private WebhookStatus status; // PENDING / SUCCESS / FAILED
@@ -48,9 +55,21 @@ public class WebhookEvent {
     @Column(name = "attempt_count", nullable = false)
     private int attemptCount; // 재시도 횟수
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // FAILED 재시도 예정 시각 (지수 백오프 + 지터)
+
+    @Column(name = "max_attempts")
+    private Integer maxAttempts; // null 이면 설정값 (payments.webhook.retry.max-attempts). 재큐잉 시 늘어남
+
     @Column(name = "last_error", length = 1000)
     private String lastError; // 마지막 오류 메시지
 
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy; // 처리 중인 인스턴스
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil; // 이 시각이 지나면 다른 인스턴스가 다시 선점 가능
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
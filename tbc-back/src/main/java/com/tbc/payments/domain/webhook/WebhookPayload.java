@@ -0,0 +1,26 @@
+package com.tbc.payments.domain.webhook;
+
+/**
+ * 웹훅 본문에서 처리에 필요한 값만 뽑은 결과 (한 번 파싱해서 수신/처리가 같이 쓴다).
+ * 최상위 eventId/id, eventType/type 과 data.orderId/status/paymentKey 외의 필드는 읽지 않는다.
+ */
+public record WebhookPayload(
+        String eventId,
+        String id,
+        String eventType,
+        String type,
+        boolean hasData,
+        String orderId,
+        String status,
+        String paymentKey
+) {
+    /** eventId → id → fallback(헤더) */
+    public String eventIdOr(String fallback) {
+        return eventId != null ? eventId : id != null ? id : fallback;
+    }
+
+    /** eventType → type → fallback(헤더) */
+    public String eventTypeOr(String fallback) {
+        return eventType != null ? eventType : type != null ? type : fallback;
+    }
+}
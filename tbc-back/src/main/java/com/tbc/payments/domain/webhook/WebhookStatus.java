@@ -3,5 +3,6 @@ package com.tbc.payments.domain.webhook;
 public enum WebhookStatus {
     PENDING,   // 수신 저장만 된 상태 (처리 대기)
     SUCCESS,     // 처리 성공
-    FAILED      // 처리 실패 (재시도 대상)
+    FAILED,     // 처리 실패 (next_attempt_at 에 재시도)
+    DEAD        // 최대 시도 횟수 초과 (관리자 재큐잉 전까지 재시도 안 함)
 }
\ No newline at end of file
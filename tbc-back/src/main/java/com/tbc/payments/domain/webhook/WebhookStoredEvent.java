@@ -0,0 +1,10 @@
+package com.tbc.payments.domain.webhook;
+
+import java.time.LocalDateTime;
+
+/** 웹훅 수신 행이 저장됨 (커밋 후 디스패치 큐로). payload 는 수신 시 파싱 결과를 그대로 넘긴다 */
+public record WebhookStoredEvent(
+        String eventId,
+        LocalDateTime receivedAt,
+        WebhookPayload payload
+) {}
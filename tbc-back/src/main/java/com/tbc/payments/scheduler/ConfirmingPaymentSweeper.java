@@ -0,0 +1,90 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
+import com.tbc.payments.application.exception.TossClientException;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.TossClientPort;
+import com.tbc.payments.application.service.PaymentConfirmTxService;
+import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * CONFIRMING 에 머문 결제 복구.
+ * 승인 호출 중 응답을 못 받았거나 서버가 죽은 경우, 일정 시간이 지나면 Toss 결제 조회로 결과를 확정한다.
+ * (웹훅이 먼저 오면 웹훅이 PAID 로 마무리하므로 여기서는 건너뛰게 된다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmingPaymentSweeper {
+
+    private final PaymentPersistencePort paymentRepository;
+    private final TossClientPort tossClientPort;
+    private final PaymentConfirmTxService confirmTx;
+
+    @Value("${payments.confirm-recovery.stale-after:PT2M}")
+    private Duration staleAfter;
+
+    @Value("${payments.confirm-recovery.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${payments.confirm-recovery.interval:PT1M}")
+    public void sweep() {
+        List<Payment> stuck = paymentRepository.findStale(PaymentState.CONFIRMING,
+                LocalDateTime.now().minus(staleAfter), batchSize);
+        if (stuck.isEmpty()) return;
+
+        int paid = 0, failed = 0;
+        for (Payment p : stuck) {
+            try {
+                switch (resolve(p)) {
+                    case PAID -> paid++;
+                    case FAILED -> failed++;
+                    default -> { }
+                }
+            } catch (Exception e) {
+                log.warn("[CONFIRM-RECOVERY] orderId={} unresolved: {}", p.getOrderId(), e.getMessage());
+            }
+        }
+        log.info("[CONFIRM-RECOVERY] scanned={} paid={} failed={}", stuck.size(), paid, failed);
+    }
+
+    // 트랜잭션 밖에서 PG 조회 후 짧은 트랜잭션으로 확정
+    private PaymentState resolve(Payment p) {
+        TossPaymentRes res;
+        try {
+            res = tossClientPort.getPayment(p.getPaymentKey());
+        } catch (TossClientException e) {
+            if (e.getStatus() == 404) {
+                confirmTx.fail(p.getOrderId(), "NOT_FOUND_AT_PG", e.getMessage());
+                return PaymentState.FAILED;
+            }
+            throw e;
+        }
+
+        String status = res != null && res.status() != null ? res.status().toUpperCase() : "";
+        switch (status) {
+            case "DONE" -> {
+                confirmTx.complete(p.getOrderId(), res.paymentKey(), null);
+                return PaymentState.PAID;
+            }
+            case "ABORTED", "EXPIRED", "CANCELED" -> {
+                confirmTx.fail(p.getOrderId(), "PG_" + status, null);
+                return PaymentState.FAILED;
+            }
+            default -> {
+                // READY / IN_PROGRESS 등 → 다음 주기에 다시
+                return PaymentState.CONFIRMING;
+            }
+        }
+    }
+}
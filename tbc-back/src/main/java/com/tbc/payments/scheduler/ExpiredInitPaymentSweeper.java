@@ -0,0 +1,95 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.service.PaymentStateMachine;
+import com.tbc.payments.domain.payment.PaymentCursorRow;
+import com.tbc.payments.domain.payment.PaymentState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 버려진 결제창(INIT) 정리.
+ * ttl 보다 오래된 INIT 을 (state, created_at) 인덱스로 키셋 페이징하며 청크 단위로 CANCELED(또는 FAILED) 로 넘긴다.
+ * 청크마다 FOR UPDATE SKIP LOCKED 로 잡으므로 여러 인스턴스가 동시에 돌아도 같은 행을 두 번 처리하지 않고,
+ * 그 사이 승인이 시작된 행(CONFIRMING)은 조건에서 빠진다.
+ */
+@Slf4j
+@Component
+public class ExpiredInitPaymentSweeper {
+
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final PaymentPersistencePort paymentRepository;
+    private final PaymentStateMachine stateMachine;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration ttl;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final PaymentState targetState;
+
+    public ExpiredInitPaymentSweeper(PaymentPersistencePort paymentRepository,
+                                     PaymentStateMachine stateMachine,
+                                     TransactionTemplate tx,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${payments.init-expiry.ttl:PT30M}") Duration ttl,
+                                     @Value("${payments.init-expiry.chunk-size:500}") int chunkSize,
+                                     @Value("${payments.init-expiry.max-chunks-per-run:20}") int maxChunksPerRun,
+                                     @Value("${payments.init-expiry.target-state:CANCELED}") PaymentState targetState) {
+        if (!PaymentState.INIT.canTransitTo(targetState)) {
+            throw new IllegalStateException("INVALID_INIT_EXPIRY_TARGET_STATE=" + targetState);
+        }
+        this.paymentRepository = paymentRepository;
+        this.stateMachine = stateMachine;
+        this.tx = tx;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.targetState = targetState;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.init-expiry.interval:PT5M}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        PaymentCursorRow cursor = new PaymentCursorRow(0L, null, CURSOR_START);
+        int swept = 0, chunks = 0;
+        while (chunks < maxChunksPerRun) {
+            PaymentCursorRow from = cursor;
+            // 청크마다 짧은 트랜잭션: 잠금 → 일괄 전이 + 이력 → 커밋 (잠금은 청크 동안만)
+            Chunk chunk = tx.execute(s -> {
+                List<PaymentCursorRow> locked = paymentRepository.lockInitCreatedBefore(
+                        cutoff, from.createdAt(), from.id(), chunkSize);
+                return new Chunk(locked,
+                        stateMachine.transitAll(locked, PaymentState.INIT, targetState, "INIT_EXPIRED", "INIT_EXPIRED"));
+            });
+            if (chunk == null || chunk.rows().isEmpty()) break;
+            // 잠근 행 수가 아니라 실제로 전이된 행 수
+            meterRegistry.counter("payments.init_expiry.swept", "state", targetState.name()).increment(chunk.updated());
+            chunks++;
+            swept += chunk.updated();
+            cursor = chunk.rows().get(chunk.rows().size() - 1);
+        }
+
+        sample.stop(meterRegistry.timer("payments.init_expiry.run"));
+        if (chunks > 0) {
+            log.info("[INIT-EXPIRY] chunks={} swept={} cutoff={} target={}{}", chunks, swept, cutoff, targetState,
+                    chunks == maxChunksPerRun ? " (more remain, next run continues)" : "");
+        }
+    }
+
+    /** 청크 하나: 잠근 행(다음 커서용) + 실제 전이된 행 수 */
+    private record Chunk(List<PaymentCursorRow> rows, int updated) {}
+}
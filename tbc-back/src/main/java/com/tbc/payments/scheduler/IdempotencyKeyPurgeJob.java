@@ -0,0 +1,41 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.application.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보관 기간(ttl)이 지난 Idempotency-Key 정리.
+ * 한 번에 batch-size 행씩 지워 긴 DELETE 로 잠금을 오래 잡지 않는다.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyPurgeJob {
+
+    private final IdempotencyService idempotencyService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public IdempotencyKeyPurgeJob(IdempotencyService idempotencyService,
+                                  @Value("${payments.idempotency.purge-batch-size:1000}") int batchSize,
+                                  @Value("${payments.idempotency.purge-max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.idempotencyService = idempotencyService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.idempotency.purge-interval:PT10M}")
+    public void purge() {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = idempotencyService.purgeExpired(batchSize);
+            purged += deleted;
+            if (deleted < batchSize) break;
+        }
+        if (purged > 0) {
+            log.info("[IDEMPOTENCY-PURGE] deleted={}", purged);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.common.id.TsidGenerator;
+import com.tbc.payments.application.port.out.WalletBalanceCheckpointPort;
+import com.tbc.payments.application.service.LedgerCheckpointService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 원장 체크포인트 롤포워드 + 표본 검증.
+ * 아직 커밋 중일 수 있는 최근 원장은 건너뛰도록 safety-lag 이전 TSID 까지만 반영한다.
+ * 그래도 시계 차이/긴 트랜잭션으로 빠지는 행이 있을 수 있어, 주기마다 일부 지갑의 체크포인트를 원장 전체 합으로 다시 확인한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerCheckpointJob {
+
+    private final LedgerCheckpointService checkpointService;
+    private final WalletBalanceCheckpointPort checkpointRepo;
+
+    @Value("${payments.ledger-checkpoint.safety-lag:PT10M}")
+    private Duration safetyLag;
+
+    @Value("${payments.ledger-checkpoint.verify-batch-size:200}")
+    private int verifyBatchSize;
+
+    private volatile Long watermark; // 지난 실행에서 반영한 상한 (인스턴스 메모리)
+    private volatile long verifyCursor; // 검증 순회 위치 (wallet_id, 끝나면 처음부터)
+
+    @Scheduled(fixedDelayString = "${payments.ledger-checkpoint.interval:PT10M}",
+            initialDelayString = "${payments.ledger-checkpoint.initial-delay:PT1M}")
+    public void rollForward() {
+        long bound = TsidGenerator.lowerBoundAt(System.currentTimeMillis() - safetyLag.toMillis());
+        long since = (watermark != null) ? watermark : initialWatermark();
+
+        int rolled = 0;
+        for (Long walletId : checkpointService.walletsToRoll(since, bound)) {
+            try {
+                if (checkpointService.rollForward(walletId, bound)) rolled++;
+            } catch (Exception e) {
+                // 다른 인스턴스가 먼저 만든 경우 등 → 다음 주기에 다시 시도
+                log.warn("[CHECKPOINT] roll forward failed walletId={}: {}", walletId, e.getMessage());
+                return;
+            }
+        }
+        watermark = bound;
+        log.info("[CHECKPOINT] rolled {} wallets up to id<{}", rolled, bound);
+    }
+
+    /** 매 주기 verify-batch-size 개씩 wallet_id 순으로 돌아가며 검증 → 전체를 한 바퀴씩 계속 확인 */
+    @Scheduled(fixedDelayString = "${payments.ledger-checkpoint.verify-interval:PT30M}",
+            initialDelayString = "${payments.ledger-checkpoint.verify-initial-delay:PT5M}")
+    public void verifySample() {
+        List<Long> walletIds = checkpointService.checkpointedWallets(verifyCursor, verifyBatchSize);
+        int repaired = 0;
+        for (Long walletId : walletIds) {
+            try {
+                if (checkpointService.verify(walletId)) repaired++;
+            } catch (Exception e) {
+                log.warn("[CHECKPOINT] verify failed walletId={}: {}", walletId, e.getMessage());
+            }
+        }
+        verifyCursor = walletIds.size() < verifyBatchSize ? 0L : walletIds.get(walletIds.size() - 1);
+        if (repaired > 0) {
+            log.warn("[CHECKPOINT] verified {} wallets, repaired {}", walletIds.size(), repaired);
+        }
+    }
+
+    private long initialWatermark() {
+        Long min = checkpointRepo.findMinLastLedgerId();
+        return (min != null) ? min : 0L;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.application.service.PlatformWalletService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 플랫폼 샤드 재분배.
+ * 입금이 샤드 0 에만 쌓이므로 주기적으로 형제 샤드를 채워, 정산 차감이 여러 행으로 나뉘게 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlatformWalletRebalanceJob {
+
+    private final PlatformWalletService platformWallets;
+
+    @Value("${payments.platform-wallet.rebalance-min-transfer:10000}")
+    private long minTransfer;
+
+    @Scheduled(fixedDelayString = "${payments.platform-wallet.rebalance-interval:PT1M}",
+            initialDelayString = "${payments.platform-wallet.rebalance-initial-delay:PT30S}")
+    public void rebalance() {
+        try {
+            int transfers = platformWallets.rebalance(minTransfer);
+            if (transfers > 0) {
+                log.info("[PLATFORM] rebalanced shards, transfers={}", transfers);
+            }
+        } catch (Exception e) {
+            // 락 타임아웃 등 → 다음 주기에 다시
+            log.warn("[PLATFORM] rebalance failed: {}", e.getMessage());
+        }
+    }
+}
@@ -16,7 +16,9 @@ public class ReconciliationJob {
     // 매일 새벽 3시 실행 (cron = 초 분 시 일 월 요일)
     @Scheduled(cron = "0 0 3 * * *")
     public void runDailyCheck() {
-        String report = monitoringService.checkConsistency();
-        log.info("=== Daily Wallet Consistency Check ===\n{}", report);
+        var report = monitoringService.checkConsistency();
+        log.info("=== Daily Wallet Consistency Check === {}", report.summary());
+        report.mismatches().forEach(m -> log.warn("❌ walletId={} userId={} balance={} ledgerSum={} (diff={})",
+                m.walletId(), m.userId(), m.stored(), m.expected(), m.diff()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.application.service.WebhookRetryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** next_attempt_at 이 된 FAILED 웹훅 재시도 (인스턴스마다 돌지만 SKIP LOCKED 선점으로 나눠 처리) */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebhookRetryJob {
+
+    private final WebhookRetryService retryService;
+
+    @Scheduled(fixedDelayString = "${payments.webhook.retry.interval:PT5S}")
+    public void retryDue() {
+        String report = retryService.retryFailedEvents();
+        if (!report.isEmpty()) {
+            log.info("[WH-RETRY]\n{}", report);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.tbc.point.adapters.out.persistence;
+
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.point.domain.model.Wallet;
+import com.tbc.point.domain.repository.WalletRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * point 도메인의 WalletRepository 구현. 지갑 테이블은 payments 모듈 소유라 그쪽 포트에 위임한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointWalletPersistenceAdapter implements WalletRepository {
+
+    private final WalletPersistencePort walletPersistencePort;
+
+    @Override
+    public Optional<Wallet> findByUserId(Long userId) {
+        return walletPersistencePort.findSnapshotByUserId(userId)
+                .map(w -> new Wallet(w.walletId(), w.userId(), w.balance()));
+    }
+
+    @Override
+    public boolean atomicDeduct(Long walletId, long amount) {
+        return walletPersistencePort.debitIfEnough(walletId, amount);
+    }
+}
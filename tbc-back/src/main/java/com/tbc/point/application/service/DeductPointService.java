@@ -2,11 +2,11 @@ package com.tbc.point.application.service;
 
 import com.tbc.point.application.exception.InsufficientPointsException;
 import com.tbc.point.application.port.in.DeductPointUseCase;
+import com.tbc.point.domain.model.Wallet;
+import com.tbc.point.domain.repository.WalletRepository;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
 import com.tbc.payments.domain.wallet.LedgerType;
-import com.tbc.payments.domain.wallet.Wallet;
 import com.tbc.payments.domain.wallet.WalletLedger;
-import com.tbc.payments.adapter.out.persistence.WalletLedgerRepository;
-import com.tbc.payments.adapter.out.persistence.WalletRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class DeductPointService implements DeductPointUseCase {
 
     private final WalletRepository walletRepo;
-    private final WalletLedgerRepository ledgerRepo;
+    private final WalletLedgerPersistencePort ledgerRepo;
 
     @Override
     @Transactional
@@ -25,35 +25,28 @@ public class DeductPointService implements DeductPointUseCase {
             throw new IllegalArgumentException("amountPoints must be positive");
         }
 
-        // 1) 사용자 지갑 조회 (for update → 동시성 제어). 없으면 0원 지갑 생성
-        Wallet wallet = walletRepo.findByUserIdForUpdate(userId)
-                .orElseGet(() -> walletRepo.save(Wallet.builder()
-                        .userId(userId)
-                        .balance(0L)
-                        .build()));
+        // 1) 사용자 지갑 조회 (락 없음). 지갑이 없으면 잔액 0 과 같다
+        Wallet wallet = walletRepo.findByUserId(userId)
+                .orElseThrow(() -> new InsufficientPointsException("INSUFFICIENT_POINTS"));
 
-        // 2) 잔액 확인
-        if (wallet.getBalance() < amountPoints) {
-            throw new InsufficientPointsException("INSUFFICIENT_POINTS");
-        }
-
-        // 3) Ledger 기록 (멱등 키 사용)
+        // 2) Ledger 기록 (멱등 키 UNIQUE 가 중복을 거른다) → 이미 처리된 참가면 종료
         String idemKey = "JOIN:" + meetupId + ":" + userId;
-        if (ledgerRepo.findByIdempotencyKey(idemKey).isEmpty()) {
-            WalletLedger ledger = WalletLedger.builder()
-                    .walletId(wallet.getId())
-                    .type(LedgerType.DEBIT)        // 차감
-                    .amount(amountPoints)
-                    .reason("MEETUP_JOIN")         // 참여 사유
-                    .refType("MEETUP")
-                    .refId(String.valueOf(meetupId))
-                    .idempotencyKey(idemKey)
-                    .build();
-            ledgerRepo.save(ledger);
+        boolean inserted = ledgerRepo.appendIfAbsent(WalletLedger.builder()
+                .walletId(wallet.getId())
+                .type(LedgerType.DEBIT)        // 차감
+                .amount(amountPoints)
+                .reason("MEETUP_JOIN")         // 참여 사유
+                .refType("MEETUP")
+                .refId(String.valueOf(meetupId))
+                .idempotencyKey(idemKey)
+                .build());
+        if (!inserted) {
+            return;
+        }
 
-            // 4) Wallet 잔액 차감
-            wallet.setBalance(wallet.getBalance() - amountPoints);
-            walletRepo.save(wallet);
+        // 3) 잔액이 충분할 때만 차감 (조건부 UPDATE). 실패 시 예외 → 원장 INSERT 도 롤백
+        if (!walletRepo.atomicDeduct(wallet.getId(), amountPoints)) {
+            throw new InsufficientPointsException("INSUFFICIENT_POINTS");
         }
     }
 }
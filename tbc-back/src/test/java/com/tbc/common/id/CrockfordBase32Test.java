@@ -0,0 +1,43 @@
+package com.tbc.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrockfordBase32Test {
+
+    @Test
+    void encodesToFixedLength() {
+        assertThat(CrockfordBase32.encode(0)).isEqualTo("00000000000");
+        assertThat(CrockfordBase32.encode(31)).isEqualTo("0000000000Z");
+        assertThat(CrockfordBase32.encode(32)).isEqualTo("00000000010");
+        assertThat(CrockfordBase32.encode((1L << 53) - 1)).hasSize(CrockfordBase32.LENGTH);
+    }
+
+    @Test
+    void lexicographicOrderMatchesNumericOrder() {
+        TsidGenerator gen = new TsidGenerator(7);
+        String prev = CrockfordBase32.encode(gen.nextId());
+        for (int i = 0; i < 10_000; i++) {
+            String next = CrockfordBase32.encode(gen.nextId());
+            assertThat(next).isGreaterThan(prev);
+            prev = next;
+        }
+    }
+
+    @Test
+    void avoidsAmbiguousCharacters() {
+        TsidGenerator gen = new TsidGenerator(9);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(CrockfordBase32.encode(gen.nextId())).doesNotContain("I", "L", "O", "U");
+        }
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThatThrownBy(() -> CrockfordBase32.encode(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NEGATIVE_ID");
+    }
+}
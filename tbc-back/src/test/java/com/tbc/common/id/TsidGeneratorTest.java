@@ -0,0 +1,107 @@
+package com.tbc.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TsidGeneratorTest {
+
+    @Test
+    void idsAreStrictlyIncreasingAndCarryTheNodeId() {
+        TsidGenerator gen = new TsidGenerator(200);
+        long prev = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long id = gen.nextId();
+            assertThat(id).isGreaterThan(prev);
+            assertThat(id & TsidGenerator.MAX_NODE).isEqualTo(200);
+            prev = id;
+        }
+    }
+
+    @Test
+    void idsStayUniqueAcrossThreads() throws Exception {
+        TsidGenerator gen = new TsidGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(gen.nextId());
+                    }
+                });
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(threads * perThread);
+    }
+
+    @Test
+    void differentNodesNeverCollideInTheSameMillisecond() {
+        TsidGenerator a = new TsidGenerator(0);
+        TsidGenerator b = new TsidGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(ids.add(a.nextId())).isTrue();
+            assertThat(ids.add(b.nextId())).isTrue();
+        }
+    }
+
+    @Test
+    void idsFitInJavaScriptSafeIntegers() {
+        long id = new TsidGenerator((int) TsidGenerator.MAX_NODE).nextId();
+        assertThat(id).isPositive().isLessThan(1L << 53);
+    }
+
+    @Test
+    void lowerBoundSeparatesIdsByCreationTime() {
+        TsidGenerator gen = new TsidGenerator(3);
+        long before = System.currentTimeMillis();
+        long id = gen.nextId();
+
+        assertThat(id).isGreaterThanOrEqualTo(TsidGenerator.lowerBoundAt(before));
+        assertThat(id).isLessThan(TsidGenerator.lowerBoundAt(System.currentTimeMillis() + 1_000));
+    }
+
+    @Test
+    void newLayoutSortsAfterIdsFromThePreviousLayout() {
+        // 이전 배치: timestamp << 12 (sequence 7bit | node 5bit)
+        long now = System.currentTimeMillis() - TsidGenerator.EPOCH;
+        long previousLayoutMax = (now << 12) | 0xFFF;
+        assertThat(new TsidGenerator(0).nextId()).isGreaterThan(previousLayoutMax);
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejectedInsteadOfMasked() {
+        assertThat(TsidGenerator.parseNodeId("32")).isEqualTo(32);
+        assertThat(TsidGenerator.parseNodeId(" 255 ")).isEqualTo(255);
+
+        assertThatThrownBy(() -> TsidGenerator.parseNodeId("256"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TSID_NODE_ID_OUT_OF_RANGE");
+        assertThatThrownBy(() -> TsidGenerator.parseNodeId("-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TSID_NODE_ID_OUT_OF_RANGE");
+        assertThatThrownBy(() -> TsidGenerator.parseNodeId("node-a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TSID_NODE_ID_INVALID");
+        assertThatThrownBy(() -> new TsidGenerator(TsidGenerator.MAX_NODE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
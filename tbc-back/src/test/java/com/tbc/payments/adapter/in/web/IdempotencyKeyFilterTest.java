@@ -0,0 +1,81 @@
+package com.tbc.payments.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.application.service.IdempotencyService;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyKeyFilterTest {
+
+    private static final String BODY = "{\"orderId\":\"ORD-1\"}";
+
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(idempotencyService, new ObjectMapper(),
+            true, List.of("/payments"), 1024);
+
+    @Test
+    void controllerCanReadTheBodyAgainAndSeesTheEnd() throws Exception {
+        List<String> seen = new ArrayList<>();
+
+        run(in -> {
+            assertThat(in.isFinished()).isFalse();
+            seen.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertThat(in.isFinished()).isTrue();
+            assertThat(in.read()).isEqualTo(-1);
+        });
+
+        assertThat(seen).containsExactly(BODY);
+    }
+
+    @Test
+    void readListenerIsCalledRightAwayInsteadOfThrowing() throws Exception {
+        List<String> calls = new ArrayList<>();
+
+        run(in -> in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        }));
+
+        assertThat(calls).containsExactly("data:" + BODY, "done");
+    }
+
+    private void run(BodyReader reader) throws Exception {
+        when(idempotencyService.begin(anyString(), anyString())).thenReturn(new IdempotencyService.Acquired());
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/payments");
+        req.setServletPath("/payments");
+        req.addHeader(IdempotencyKeyFilter.HEADER, "key-1");
+        req.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(req, new MockHttpServletResponse(), (request, response) -> reader.read(request.getInputStream()));
+    }
+
+    @FunctionalInterface
+    private interface BodyReader {
+        void read(ServletInputStream in) throws IOException;
+    }
+}
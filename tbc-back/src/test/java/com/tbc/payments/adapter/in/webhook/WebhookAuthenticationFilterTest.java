@@ -0,0 +1,95 @@
+package com.tbc.payments.adapter.in.webhook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookAuthenticationFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingSecretAuthenticatesAsPgWebhook() throws Exception {
+        WebhookAuthenticationFilter filter = new WebhookAuthenticationFilter("s3cret", List.of(), 10);
+
+        run(filter, webhook("s3cret", "203.0.113.9"));
+
+        assertThat(authorities()).containsExactly("ROLE_PG_WEBHOOK");
+    }
+
+    @Test
+    void wrongOrMissingSecretIsNotAuthenticated() throws Exception {
+        WebhookAuthenticationFilter filter = new WebhookAuthenticationFilter("s3cret", List.of(), 10);
+
+        run(filter, webhook("guess", "203.0.113.9"));
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        run(filter, webhook(null, "203.0.113.9"));
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void allowedIpAuthenticatesWithoutSecret() throws Exception {
+        WebhookAuthenticationFilter filter = new WebhookAuthenticationFilter("", List.of("198.51.100.7"), 10);
+
+        run(filter, webhook(null, "198.51.100.7"));
+
+        assertThat(authorities()).containsExactly("ROLE_PG_WEBHOOK");
+    }
+
+    @Test
+    void nothingConfiguredRejectsEverything() throws Exception {
+        WebhookAuthenticationFilter filter = new WebhookAuthenticationFilter("", List.of(""), 10);
+
+        run(filter, webhook("", "127.0.0.1"));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void authenticatedFloodIsLimitedBeforeReachingTheController() throws Exception {
+        WebhookAuthenticationFilter filter = new WebhookAuthenticationFilter("s3cret", List.of(), 2);
+
+        MockHttpServletResponse first = run(filter, webhook("s3cret", "203.0.113.9"));
+        MockHttpServletResponse second = run(filter, webhook("s3cret", "203.0.113.9"));
+        MockHttpServletResponse third = run(filter, webhook("s3cret", "203.0.113.9"));
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+    }
+
+    private static MockHttpServletRequest webhook(String secret, String remoteAddr) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", "/payments/webhook");
+        req.setServletPath("/payments/webhook");
+        req.setRemoteAddr(remoteAddr);
+        if (secret != null) req.addHeader(WebhookAuthenticationFilter.SECRET_HEADER, secret);
+        return req;
+    }
+
+    private static MockHttpServletResponse run(WebhookAuthenticationFilter filter, MockHttpServletRequest req)
+            throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, new MockFilterChain());
+        return res;
+    }
+
+    private static List<String> authorities() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        return auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
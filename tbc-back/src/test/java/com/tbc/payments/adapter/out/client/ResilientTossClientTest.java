@@ -0,0 +1,113 @@
+package com.tbc.payments.adapter.out.client;
+
+import com.tbc.payments.adapter.out.client.dto.TossConfirmReq;
+import com.tbc.payments.application.exception.TossClientException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResilientTossClientTest {
+
+    private static final TossConfirmReq REQ = new TossConfirmReq("pk", "ORD-1", 1000L);
+
+    private final TossClientAdapter delegate = mock(TossClientAdapter.class);
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    /** 윈도우가 다 차야 판단 (windowSize=1 이면 실패 한 번에 OPEN) */
+    private ResilientTossClient client(int windowSize, Duration openDuration, Duration backoff, int maxAttempts) {
+        TossClientProperties props = new TossClientProperties();
+        props.getCircuitBreaker().setWindowSize(windowSize);
+        props.getCircuitBreaker().setMinimumCalls(windowSize);
+        props.getCircuitBreaker().setFailureRateThreshold(100);
+        props.getCircuitBreaker().setOpenDuration(openDuration);
+        props.getCircuitBreaker().setHalfOpenCalls(1);
+        props.getRetry().setMaxAttempts(maxAttempts);
+        props.getRetry().setBackoff(backoff);
+        return new ResilientTossClient(delegate, props, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void circuitOpeningBeforeRetryRethrowsTheFailureThatWasSent() {
+        ResilientTossClient client = client(1, Duration.ofHours(1), Duration.ZERO, 2);
+        TossClientException sent = new TossClientException("TOSS_503", 503);
+        when(delegate.confirm(any())).thenThrow(sent);
+
+        Throwable thrown = catchThrowable(() -> client.confirm(REQ));
+
+        // 첫 실패로 서킷이 열려 재시도는 보내지 못했지만, 첫 요청은 PG 에 갔으므로 결과 미확정으로 보고한다
+        assertThat(thrown).isSameAs(sent);
+        assertThat(sent.isNotAttempted()).isFalse();
+        verify(delegate, times(1)).confirm(any());
+    }
+
+    @Test
+    void openCircuitWithoutAnySentAttemptIsNotAttempted() {
+        ResilientTossClient client = client(1, Duration.ofHours(1), Duration.ZERO, 2);
+        when(delegate.confirm(any())).thenThrow(new TossClientException("TOSS_503", 503));
+        catchThrowable(() -> client.confirm(REQ));
+
+        Throwable thrown = catchThrowable(() -> client.confirm(REQ));
+
+        assertThat(thrown).isInstanceOfSatisfying(TossClientException.class,
+                e -> assertThat(e.isNotAttempted()).isTrue());
+        verify(delegate, times(1)).confirm(any());
+    }
+
+    @Test
+    void interruptedBackoffRethrowsTheFailureThatWasSent() {
+        ResilientTossClient client = client(50, Duration.ofHours(1), Duration.ofSeconds(10), 2);
+        TossClientException sent = new TossClientException("TOSS_TIMEOUT", 0);
+        when(delegate.confirm(any())).thenAnswer(inv -> {
+            Thread.currentThread().interrupt();
+            throw sent;
+        });
+
+        Throwable thrown = catchThrowable(() -> client.confirm(REQ));
+
+        assertThat(thrown).isSameAs(sent);
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        verify(delegate, times(1)).confirm(any());
+    }
+
+    @Test
+    void retriesPgFailureWithinBudget() {
+        ResilientTossClient client = client(50, Duration.ofHours(1), Duration.ZERO, 2);
+        when(delegate.confirm(any()))
+                .thenThrow(new TossClientException("TOSS_503", 503))
+                .thenReturn(null);
+
+        client.confirm(REQ);
+
+        verify(delegate, times(2)).confirm(any());
+    }
+
+    @Test
+    void errorDuringHalfOpenTrialReturnsThePermit() {
+        ResilientTossClient client = client(1, Duration.ZERO, Duration.ZERO, 1);
+        when(delegate.confirm(any()))
+                .thenThrow(new TossClientException("TOSS_503", 503))   // 서킷 OPEN → 곧바로 HALF_OPEN
+                .thenThrow(new StackOverflowError())                   // 시험 호출이 결과 없이 끝남
+                .thenReturn(null);
+        assertThat(catchThrowable(() -> client.confirm(REQ))).isInstanceOf(TossClientException.class);
+        assertThat(catchThrowable(() -> client.confirm(REQ))).isInstanceOf(StackOverflowError.class);
+
+        // 자리를 돌려받지 못했다면 HALF_OPEN 에 갇혀 TOSS_CIRCUIT_OPEN 으로 막힌다
+        client.confirm(REQ);
+
+        verify(delegate, times(3)).confirm(any());
+    }
+}
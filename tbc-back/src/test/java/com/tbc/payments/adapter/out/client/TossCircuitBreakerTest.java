@@ -0,0 +1,114 @@
+package com.tbc.payments.adapter.out.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TossCircuitBreakerTest {
+
+    private static TossCircuitBreaker breaker(int window, int minimumCalls, int threshold,
+                                              Duration openDuration, int halfOpenCalls) {
+        TossClientProperties.CircuitBreaker props = new TossClientProperties.CircuitBreaker();
+        props.setWindowSize(window);
+        props.setMinimumCalls(minimumCalls);
+        props.setFailureRateThreshold(threshold);
+        props.setOpenDuration(openDuration);
+        props.setHalfOpenCalls(halfOpenCalls);
+        return new TossCircuitBreaker(props);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        TossCircuitBreaker cb = breaker(4, 4, 50, Duration.ofHours(1), 1);
+
+        cb.onResult(false);
+        cb.onResult(true);
+        cb.onResult(false);
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.CLOSED);
+
+        cb.onResult(true);
+
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.OPEN);
+        assertThat(cb.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void waitsForMinimumCallsBeforeJudging() {
+        TossCircuitBreaker cb = breaker(10, 5, 50, Duration.ofHours(1), 1);
+
+        for (int i = 0; i < 4; i++) cb.onResult(true);
+
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.CLOSED);
+        assertThat(cb.failureRatePercent()).isEqualTo(100.0);
+    }
+
+    @Test
+    void slidingWindowForgetsOldestResult() {
+        TossCircuitBreaker cb = breaker(4, 4, 100, Duration.ofHours(1), 1);
+
+        cb.onResult(true);
+        cb.onResult(true);
+        cb.onResult(false);
+        cb.onResult(false);
+        assertThat(cb.failureRatePercent()).isEqualTo(50.0);
+
+        cb.onResult(false);
+
+        assertThat(cb.recordedCalls()).isEqualTo(4);
+        assertThat(cb.failureRatePercent()).isEqualTo(25.0);
+    }
+
+    @Test
+    void halfOpenLetsLimitedTrialsThroughAndClosesWhenAllSucceed() {
+        TossCircuitBreaker cb = breaker(1, 1, 100, Duration.ZERO, 2);
+        cb.onResult(true);
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.HALF_OPEN);
+
+        assertThat(cb.tryAcquire()).isTrue();
+        assertThat(cb.tryAcquire()).isTrue();
+        assertThat(cb.tryAcquire()).isFalse();
+
+        cb.onResult(false);
+        cb.onResult(false);
+
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.CLOSED);
+        assertThat(cb.recordedCalls()).isZero();
+    }
+
+    @Test
+    void halfOpenFailureOpensAgain() {
+        TossCircuitBreaker cb = breaker(1, 1, 100, Duration.ofMillis(300), 1);
+        cb.onResult(true);
+        await(Duration.ofMillis(350));
+
+        assertThat(cb.tryAcquire()).isTrue();
+        cb.onResult(true);
+
+        assertThat(cb.state()).isEqualTo(TossCircuitBreaker.State.OPEN);
+        assertThat(cb.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releaseReturnsUnusedHalfOpenPermit() {
+        TossCircuitBreaker cb = breaker(1, 1, 100, Duration.ZERO, 1);
+        cb.onResult(true);
+
+        assertThat(cb.tryAcquire()).isTrue();
+        assertThat(cb.tryAcquire()).isFalse();
+
+        cb.release();
+
+        assertThat(cb.tryAcquire()).isTrue();
+    }
+
+    private static void await(Duration d) {
+        try {
+            Thread.sleep(d.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.tbc.payments.adapter.out.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LedgerIdempotencyFilterTest {
+
+    private final WalletLedgerRepository repository = mock(WalletLedgerRepository.class);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private LedgerIdempotencyFilter filter(int seenCacheSize) {
+        LedgerIdempotencyProperties props = new LedgerIdempotencyProperties();
+        props.setSeenCacheSize(seenCacheSize);
+        props.setWarmKeys(seenCacheSize);
+        return new LedgerIdempotencyFilter(repository, props, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void unknownKeyIsNeverReportedAsSeen() {
+        LedgerIdempotencyFilter filter = filter(10);
+
+        assertThat(filter.knownSeen("K1")).isFalse();
+        filter.recordProbe("K1", false);
+        assertThat(filter.knownSeen("K1")).isFalse();
+    }
+
+    @Test
+    void keyIsRememberedOnlyAfterCommit() {
+        LedgerIdempotencyFilter filter = filter(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        filter.markSeen("K1");
+        assertThat(filter.knownSeen("K1")).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(filter.knownSeen("K1")).isTrue();
+    }
+
+    @Test
+    void rolledBackKeyIsForgotten() {
+        LedgerIdempotencyFilter filter = filter(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // 자기 트랜잭션의 미커밋 INSERT 를 DB 조회가 "있음" 으로 본 경우
+        filter.recordProbe("K1", true);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(filter.knownSeen("K1")).isFalse();
+    }
+
+    @Test
+    void keyOutsideTransactionIsRememberedImmediately() {
+        LedgerIdempotencyFilter filter = filter(10);
+
+        filter.recordProbe("K1", true);
+
+        assertThat(filter.knownSeen("K1")).isTrue();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedKey() {
+        LedgerIdempotencyFilter filter = filter(2);
+        filter.markSeen("K1");
+        filter.markSeen("K2");
+        filter.knownSeen("K1");
+
+        filter.markSeen("K3");
+
+        assertThat(filter.knownSeen("K1")).isTrue();
+        assertThat(filter.knownSeen("K2")).isFalse();
+        assertThat(filter.knownSeen("K3")).isTrue();
+    }
+
+    @Test
+    void disabledFilterAlwaysDefersToDatabase() {
+        LedgerIdempotencyProperties props = new LedgerIdempotencyProperties();
+        props.setEnabled(false);
+        LedgerIdempotencyFilter filter = new LedgerIdempotencyFilter(repository, props, new SimpleMeterRegistry());
+
+        filter.markSeen("K1");
+
+        assertThat(filter.knownSeen("K1")).isFalse();
+    }
+
+    @Test
+    void warmUpKeepsNewestKeysWhenCacheIsFull() {
+        LedgerIdempotencyFilter filter = filter(2);
+        when(repository.findRecentIdempotencyKeys(any(Pageable.class))).thenReturn(List.of("NEW", "MID"));
+
+        filter.warmUp();
+        filter.markSeen("LATEST");
+
+        assertThat(filter.knownSeen("NEW")).isTrue();
+        assertThat(filter.knownSeen("MID")).isFalse();
+        assertThat(filter.knownSeen("LATEST")).isTrue();
+    }
+
+    @Test
+    void hitRateCountsOnlyAnswersWithoutDatabase() {
+        LedgerIdempotencyFilter filter = filter(10);
+        filter.recordProbe("K1", true);
+        filter.recordProbe("K2", false);
+
+        filter.knownSeen("K1");
+        filter.knownSeen("K1");
+
+        assertThat(filter.hitRate()).isEqualTo(0.5);
+    }
+}
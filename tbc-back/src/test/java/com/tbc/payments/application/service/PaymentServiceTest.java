@@ -0,0 +1,72 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.CreatePaymentRequest;
+import com.tbc.payments.application.port.in.WalletUseCase;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.TossClientPort;
+import com.tbc.payments.domain.payment.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTest {
+
+    private final PaymentPersistencePort paymentRepo = mock(PaymentPersistencePort.class);
+    private final WalletUseCase walletUseCase = mock(WalletUseCase.class);
+    private final PaymentStateMachine stateMachine = mock(PaymentStateMachine.class);
+
+    private final PaymentService service = new PaymentService(
+            mock(TossClientPort.class), paymentRepo, walletUseCase,
+            mock(PaymentConfirmTxService.class), stateMachine, new SimpleMeterRegistry());
+
+    @Test
+    void createInitRejectsMissingAmountBeforeInsert() {
+        assertThatThrownBy(() -> service.createInit(new CreatePaymentRequest(1L, "ORDER-000001", null, "topup")))
+                .hasMessage("INVALID_AMOUNT");
+
+        verify(paymentRepo, never()).insertInitIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void createInitRejectsOrderIdLongerThanTheColumnAllows() {
+        String orderId = "O".repeat(65);
+
+        assertThatThrownBy(() -> service.createInit(new CreatePaymentRequest(1L, orderId, 1000L, "topup")))
+                .hasMessage("ORDER_ID_TOO_LONG");
+
+        verify(paymentRepo, never()).insertInitIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void createInitReturnsTheExistingOrderOnDuplicateKey() {
+        when(paymentRepo.insertInitIfAbsent("ORDER-000001", 1L, 1000L)).thenReturn(false);
+        when(paymentRepo.findByOrderId("ORDER-000001")).thenReturn(Optional.of(Payment.builder()
+                .orderId("ORDER-000001").userId(1L).amount(1000L).build()));
+
+        assertThat(service.createInit(new CreatePaymentRequest(1L, "ORDER-000001", 1000L, "topup")).orderId())
+                .isEqualTo("ORDER-000001");
+
+        verify(walletUseCase, never()).getOrCreate(anyLong());
+        verify(stateMachine, never()).recordCreated(any());
+    }
+
+    @Test
+    void createInitRejectsDuplicateOrderIdWithDifferentAmount() {
+        when(paymentRepo.insertInitIfAbsent("ORDER-000001", 1L, 1000L)).thenReturn(false);
+        when(paymentRepo.findByOrderId("ORDER-000001")).thenReturn(Optional.of(Payment.builder()
+                .orderId("ORDER-000001").userId(1L).amount(5000L).build()));
+
+        assertThatThrownBy(() -> service.createInit(new CreatePaymentRequest(1L, "ORDER-000001", 1000L, "topup")))
+                .hasMessage("DUPLICATE_ORDER_ID");
+    }
+}
@@ -0,0 +1,246 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.out.client.dto.TossPaymentRes;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.TossClientPort;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.application.port.out.WebhookEventPersistencePort;
+import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.webhook.WebhookEvent;
+import com.tbc.payments.domain.webhook.WebhookPayload;
+import com.tbc.payments.domain.webhook.WebhookStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentWebhookServiceTest {
+
+    private static final String EVENT_ID = "evt-1";
+    private static final String ORDER_ID = "ORD-1";
+
+    private final WebhookEventPersistencePort eventRepo = mock(WebhookEventPersistencePort.class);
+    private final PaymentPersistencePort paymentRepo = mock(PaymentPersistencePort.class);
+    private final PaymentConfirmTxService confirmTx = mock(PaymentConfirmTxService.class);
+    private final PaymentStateMachine stateMachine = mock(PaymentStateMachine.class);
+    private final TossClientPort tossClient = mock(TossClientPort.class);
+
+    private PaymentWebhookService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentWebhookService(
+                mock(WebhookPayloadParser.class), eventRepo, paymentRepo,
+                mock(WalletPersistencePort.class), mock(WalletLedgerPersistencePort.class),
+                confirmTx, stateMachine, tossClient,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(2));
+
+        when(eventRepo.findByEventId(EVENT_ID)).thenAnswer(inv -> Optional.of(WebhookEvent.builder()
+                .eventId(EVENT_ID).eventType("PAYMENT_STATUS_CHANGED").payload("{}")
+                .status(WebhookStatus.PENDING).attemptCount(0).build()));
+        when(eventRepo.claim(eq(EVENT_ID), anyString(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void doneIsAppliedWithTheKeyThePgReturned() {
+        givenPayment(PaymentState.CONFIRMING, 5000L);
+        when(tossClient.getPayment("pk-1")).thenReturn(new TossPaymentRes("pk-1", ORDER_ID, "DONE", 5000L));
+
+        assertThat(service.claimAndProcess(EVENT_ID, payload("DONE", "pk-1"))).isTrue();
+
+        verify(confirmTx).complete(ORDER_ID, "pk-1", null);
+    }
+
+    @Test
+    void doneIsRejectedWhenThePgDoesNotReportDone() {
+        givenPayment(PaymentState.CONFIRMING, 5000L);
+        when(tossClient.getPayment("pk-1")).thenReturn(new TossPaymentRes("pk-1", ORDER_ID, "IN_PROGRESS", 5000L));
+
+        assertThatThrownBy(() -> service.claimAndProcess(EVENT_ID, payload("DONE", "pk-1")))
+                .hasMessage("WEBHOOK_NOT_VERIFIED");
+
+        verify(eventRepo, never()).claim(anyString(), anyString(), any(), any());
+        verify(confirmTx, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    void doneIsRejectedWhenThePgPaymentBelongsToAnotherOrder() {
+        givenPayment(PaymentState.INIT, 5000L);
+        when(tossClient.getPayment("pk-other")).thenReturn(new TossPaymentRes("pk-other", "ORD-2", "DONE", 5000L));
+
+        assertThatThrownBy(() -> service.claimAndProcess(EVENT_ID, payload("DONE", "pk-other")))
+                .hasMessage("WEBHOOK_NOT_VERIFIED");
+
+        verify(confirmTx, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    void canceledIsRejectedWhenTheAmountDiffers() {
+        givenPayment(PaymentState.PAID, 5000L);
+        when(tossClient.getPayment("pk-1")).thenReturn(new TossPaymentRes("pk-1", ORDER_ID, "CANCELED", 100L));
+
+        assertThatThrownBy(() -> service.claimAndProcess(EVENT_ID, payload("CANCELED", "pk-1")))
+                .hasMessage("WEBHOOK_NOT_VERIFIED");
+
+        verify(stateMachine, never()).transit(anyString(), anyCollection(), any(), any(), anyString());
+    }
+
+    @Test
+    void otherStatusesDoNotCallThePg() {
+        givenPayment(PaymentState.PAID, 5000L);
+
+        assertThat(service.claimAndProcess(EVENT_ID, payload("PARTIAL_CANCELED", "pk-1"))).isTrue();
+
+        verify(tossClient, never()).getPayment(anyString());
+    }
+
+    @Test
+    void laterEventWaitsForAnEarlierUnfinishedEventOfTheSameOrder() {
+        givenPayment(PaymentState.PAID, 5000L);
+        ReflectionTestUtils.setField(service, "retryBaseDelay", Duration.ofSeconds(10));
+        WebhookEvent e = WebhookEvent.builder().eventId(EVENT_ID).orderId(ORDER_ID).payload("{}")
+                .status(WebhookStatus.FAILED).attemptCount(1).leaseUntil(LocalDateTime.now().plusMinutes(2)).build();
+        when(eventRepo.findByEventId(EVENT_ID)).thenReturn(Optional.of(e));
+        when(eventRepo.existsUnfinishedBefore(e)).thenReturn(true);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(service.claimAndProcess(EVENT_ID, payload("CANCELED", "pk-1"))).isFalse();
+
+        verify(tossClient, never()).getPayment(anyString());
+        verify(stateMachine, never()).transit(anyString(), anyCollection(), any(), any(), anyString());
+        assertThat(e.getAttemptCount()).isEqualTo(1);
+        assertThat(e.getLeaseUntil()).isNull();
+        assertThat(e.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(10));
+    }
+
+    @Test
+    void earlierEventLeftUnfinishedAfterVerificationStillDefersTheLaterOne() {
+        // PG 확인 뒤 선점 사이에 앞선 이벤트가 재시도 대기로 바뀐 경우
+        givenPayment(PaymentState.CONFIRMING, 5000L);
+        when(tossClient.getPayment("pk-1")).thenReturn(new TossPaymentRes("pk-1", ORDER_ID, "DONE", 5000L));
+        when(eventRepo.existsUnfinishedBefore(any())).thenReturn(false, true);
+
+        assertThat(service.claimAndProcess(EVENT_ID, payload("DONE", "pk-1"))).isFalse();
+
+        verify(confirmTx, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    void backoffDoublesPerAttemptWithJitterInTheUpperHalf() {
+        Duration base = Duration.ofSeconds(10);
+        for (int attempts = 1; attempts <= 5; attempts++) {
+            long full = base.toMillis() << (attempts - 1);
+            for (int i = 0; i < 200; i++) {
+                assertThat(PaymentWebhookService.backoff(attempts, base, Duration.ofHours(1)).toMillis())
+                        .isBetween(full / 2, full);
+            }
+        }
+    }
+
+    @Test
+    void backoffSpreadsEventsThatFailedTogether() {
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            delays.add(PaymentWebhookService.backoff(3, Duration.ofSeconds(10), Duration.ofHours(1)).toMillis());
+        }
+        assertThat(delays).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void backoffIsCappedAndDoesNotOverflow() {
+        long cap = Duration.ofHours(1).toMillis();
+        for (int attempts : new int[]{10, 31, 64, Integer.MAX_VALUE}) {
+            assertThat(PaymentWebhookService.backoff(attempts, Duration.ofSeconds(10), Duration.ofHours(1)).toMillis())
+                    .isBetween(cap / 2, cap);
+        }
+    }
+
+    @Test
+    void backoffTreatsNonPositiveAttemptsAsTheFirst() {
+        assertThat(PaymentWebhookService.backoff(0, Duration.ofSeconds(10), Duration.ofHours(1)).toMillis())
+                .isBetween(5_000L, 10_000L);
+    }
+
+    @Test
+    void markFailedSchedulesARetryUntilMaxAttemptsThenDead() {
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBaseDelay", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(service, "retryMaxDelay", Duration.ofHours(1));
+        when(eventRepo.markFailed(anyString(), anyInt(), any(), any(), any(), any(), any())).thenReturn(true);
+        givenStored("evt-9", WebhookStatus.PENDING, 1);
+
+        LocalDateTime before = LocalDateTime.now();
+        service.markFailed("evt-9", "boom");
+
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(eventRepo).markFailed(eq("evt-9"), eq(1), eq(WebhookStatus.FAILED), eq("boom"), next.capture(),
+                anyString(), any());
+        assertThat(next.getValue()).isBetween(before.plusSeconds(10), LocalDateTime.now().plusSeconds(20));
+
+        givenStored("evt-9", WebhookStatus.FAILED, 2);
+        service.markFailed("evt-9", "boom");
+
+        verify(eventRepo).markFailed(eq("evt-9"), eq(2), eq(WebhookStatus.DEAD), eq("boom"), isNull(),
+                anyString(), any());
+    }
+
+    @Test
+    void markFailedNeverWritesTheWholeEntity() {
+        // 읽은 뒤 다른 워커가 SUCCESS 로 끝내면 조건부 UPDATE 가 0 건이고, 엔티티 save 로 덮어쓰지 않는다
+        givenStored("evt-9", WebhookStatus.PENDING, 0);
+        when(eventRepo.markFailed(anyString(), anyInt(), any(), any(), any(), any(), any())).thenReturn(false);
+
+        service.markFailed("evt-9", "boom");
+
+        verify(eventRepo, never()).save(any());
+    }
+
+    @Test
+    void markFailedSkipsFinishedEvents() {
+        givenStored("evt-9", WebhookStatus.SUCCESS, 1);
+
+        service.markFailed("evt-9", "boom");
+
+        verify(eventRepo, never()).markFailed(anyString(), anyInt(), any(), any(), any(), any(), any());
+    }
+
+    private void givenStored(String eventId, WebhookStatus status, int attempts) {
+        when(eventRepo.findByEventId(eventId)).thenReturn(Optional.of(WebhookEvent.builder()
+                .eventId(eventId).status(status).attemptCount(attempts).build()));
+    }
+
+    private void givenPayment(PaymentState state, long amount) {
+        when(paymentRepo.findByOrderId(ORDER_ID)).thenReturn(Optional.of(Payment.builder()
+                .orderId(ORDER_ID).userId(1L).amount(amount).state(state).build()));
+    }
+
+    private static WebhookPayload payload(String status, String paymentKey) {
+        return new WebhookPayload(EVENT_ID, null, "PAYMENT_STATUS_CHANGED", null, true, ORDER_ID, status, paymentKey);
+    }
+}
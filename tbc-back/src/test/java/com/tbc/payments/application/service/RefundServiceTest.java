@@ -0,0 +1,103 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.in.web.dto.RefundRequest;
+import com.tbc.payments.adapter.in.web.dto.RefundResponse;
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.port.out.TossClientPort;
+import com.tbc.payments.application.port.out.WalletLedgerPersistencePort;
+import com.tbc.payments.application.port.out.WalletLockPort;
+import com.tbc.payments.application.port.out.WalletPersistencePort;
+import com.tbc.payments.domain.payment.Payment;
+import com.tbc.payments.domain.payment.PaymentState;
+import com.tbc.payments.domain.wallet.WalletSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefundServiceTest {
+
+    private static final String ORDER_ID = "ORD-1";
+    private static final long WALLET_ID = 10L;
+
+    private final PaymentPersistencePort paymentRepo = mock(PaymentPersistencePort.class);
+    private final WalletPersistencePort walletRepo = mock(WalletPersistencePort.class);
+    private final WalletLedgerPersistencePort ledgerRepo = mock(WalletLedgerPersistencePort.class);
+    private final PaymentStateMachine stateMachine = mock(PaymentStateMachine.class);
+    private final WalletLockPort walletLock = mock(WalletLockPort.class);
+
+    private final RefundService service = new RefundService(mock(TossClientPort.class), paymentRepo, walletRepo,
+            ledgerRepo, stateMachine, walletLock, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(paymentRepo.findByOrderId(ORDER_ID)).thenReturn(Optional.of(Payment.builder()
+                .orderId(ORDER_ID).userId(1L).amount(5000L).paymentKey("pk-1").state(PaymentState.PAID).build()));
+        when(walletRepo.findSnapshotByUserId(1L)).thenReturn(Optional.of(new WalletSnapshot(WALLET_ID, 1L, 5000L, 0)));
+        when(walletRepo.findBalanceByUserId(1L)).thenReturn(Optional.of(0L));
+        when(walletLock.callWithLock(any(), any())).thenAnswer(inv -> ((Supplier<Object>) inv.getArgument(0)).get());
+    }
+
+    @Test
+    void debitsOnlyAfterWinningTheTransition() {
+        when(stateMachine.transit(eq(ORDER_ID), anyCollection(), eq(PaymentState.REFUNDED), any(), eq("REFUND")))
+                .thenReturn(Optional.of(PaymentState.PAID));
+        when(ledgerRepo.appendIfAbsent(any())).thenReturn(true);
+        when(walletRepo.debitIfEnough(WALLET_ID, 5000L)).thenReturn(true);
+
+        RefundResponse res = service.refund(new RefundRequest(ORDER_ID, 5000L, "user"));
+
+        assertThat(res.state()).isEqualTo("REFUNDED");
+        verify(walletRepo).debitIfEnough(WALLET_ID, 5000L);
+    }
+
+    @Test
+    void lostTransitionDoesNotDebit() {
+        // 동시 웹훅 CANCELED 가 먼저 PAID → REFUNDED 로 바꾸고 WH:REFUND 키로 차감한 경우
+        when(stateMachine.transit(eq(ORDER_ID), anyCollection(), any(), any(), any())).thenReturn(Optional.empty());
+        when(stateMachine.latestState(ORDER_ID)).thenReturn(Optional.of(PaymentState.REFUNDED));
+
+        RefundResponse res = service.refund(new RefundRequest(ORDER_ID, 5000L, "user"));
+
+        assertThat(res.state()).isEqualTo("REFUNDED");
+        verify(ledgerRepo, never()).appendIfAbsent(any());
+        verify(walletRepo, never()).debitIfEnough(anyLong(), anyLong());
+    }
+
+    @Test
+    void shortBalanceFailsInsteadOfGoingNegative() {
+        when(stateMachine.transit(eq(ORDER_ID), anyCollection(), any(), any(), any()))
+                .thenReturn(Optional.of(PaymentState.PAID));
+        when(ledgerRepo.appendIfAbsent(any())).thenReturn(true);
+        when(walletRepo.debitIfEnough(WALLET_ID, 5000L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.refund(new RefundRequest(ORDER_ID, 5000L, "user")))
+                .hasMessage("INSUFFICIENT_BALANCE");
+    }
+
+    @Test
+    void replayedRefundDoesNotDebitAgain() {
+        when(stateMachine.transit(eq(ORDER_ID), anyCollection(), any(), any(), any()))
+                .thenReturn(Optional.of(PaymentState.PARTIALLY_REFUNDED));
+        when(ledgerRepo.appendIfAbsent(any())).thenReturn(false);
+
+        service.refund(new RefundRequest(ORDER_ID, 1000L, "user"));
+
+        verify(walletRepo, never()).debitIfEnough(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,116 @@
+package com.tbc.payments.application.service;
+
+import com.tbc.payments.adapter.out.lock.StripedWalletLockManager;
+import com.tbc.payments.adapter.out.lock.WalletLockProperties;
+import com.tbc.payments.adapter.out.persistence.LedgerIdempotencyFilter;
+import com.tbc.payments.adapter.out.persistence.LedgerIdempotencyProperties;
+import com.tbc.payments.adapter.out.persistence.WalletCacheProperties;
+import com.tbc.payments.adapter.out.persistence.WalletLedgerPersistenceAdapter;
+import com.tbc.payments.adapter.out.persistence.WalletLedgerRepository;
+import com.tbc.payments.adapter.out.persistence.WalletPersistenceAdapter;
+import com.tbc.payments.adapter.out.persistence.WalletReadCache;
+import com.tbc.payments.adapter.out.persistence.WalletRepository;
+import com.tbc.payments.domain.wallet.Wallet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 지갑에 충전이 동시에 몰려도 잔액 = 원장 합계, 원장은 멱등키당 한 줄인지 확인한다.
+ * 각 스레드가 자기 트랜잭션으로 커밋해야 하므로 테스트 트랜잭션은 쓰지 않는다.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:wallet-credit;MODE=MySQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        WalletService.class,
+        WalletPersistenceAdapter.class,
+        WalletLedgerPersistenceAdapter.class,
+        WalletReadCache.class,
+        WalletCacheProperties.class,
+        LedgerIdempotencyFilter.class,
+        LedgerIdempotencyProperties.class,
+        StripedWalletLockManager.class,
+        WalletLockProperties.class,
+        SimpleMeterRegistry.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletCreditContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int TOPUPS = 200;
+    private static final long AMOUNT = 1_000L;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletLedgerRepository ledgerRepository;
+
+    @Test
+    void concurrentTopUpsToOneWalletKeepBalanceAndLedgerInStep() throws Exception {
+        long userId = 7_000_001L;
+        Wallet wallet = walletRepository.saveAndFlush(Wallet.builder().userId(userId).balance(0L).build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < TOPUPS; i++) {
+                String orderId = "ORD-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return walletService.credit(userId, AMOUNT, "TOPUP", "PAYMENT", orderId, "TOPUP:" + orderId);
+                }));
+            }
+            start.countDown();
+
+            int credited = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(60, TimeUnit.SECONDS)) credited++;
+            }
+            assertThat(credited).isEqualTo(TOPUPS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 같은 주문으로 다시 들어온 충전은 모두 무시된다
+        for (int i = 0; i < TOPUPS; i++) {
+            String orderId = "ORD-" + i;
+            assertThat(walletService.credit(userId, AMOUNT, "TOPUP", "PAYMENT", orderId, "TOPUP:" + orderId)).isFalse();
+        }
+
+        long balance = walletRepository.findById(wallet.getId()).orElseThrow().getBalance();
+        long rows = ledgerRepository.findAll().stream()
+                .filter(l -> l.getWalletId().equals(wallet.getId()))
+                .count();
+        assertThat(balance).isEqualTo(TOPUPS * AMOUNT);
+        assertThat(rows).isEqualTo(TOPUPS);
+        assertThat(ledgerRepository.sumByWalletId(wallet.getId())).isEqualTo(balance);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tbc.payments.application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbc.payments.domain.webhook.WebhookPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookPayloadParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebhookPayloadParser parser = new WebhookPayloadParser(objectMapper);
+
+    @Test
+    void readsOnlyTheNeededFieldsAndSkipsTheRest() throws IOException {
+        WebhookPayload p = parser.parse("""
+                {"createdAt":"2026-10-17T12:00:00","eventId":"evt-1","meta":{"eventId":"nested","list":[1,{"a":2}]},
+                 "eventType":"PAYMENT_STATUS_CHANGED",
+                 "data":{"card":{"status":"nested"},"orderId":"ORD-1","cancels":[{"status":"DONE"}],
+                         "status":"DONE","paymentKey":"pk-1","totalAmount":1000}}""");
+
+        assertThat(p).isEqualTo(new WebhookPayload("evt-1", null, "PAYMENT_STATUS_CHANGED", null,
+                true, "ORD-1", "DONE", "pk-1"));
+    }
+
+    @Test
+    void fallsBackToIdAndTypeThenHeader() throws IOException {
+        WebhookPayload p = parser.parse("""
+                {"id":"evt-2","type":"PAYMENT_STATUS_CHANGED"}""");
+
+        assertThat(p.eventIdOr("header-id")).isEqualTo("evt-2");
+        assertThat(p.eventTypeOr("header-type")).isEqualTo("PAYMENT_STATUS_CHANGED");
+        assertThat(parser.parse("{}").eventIdOr("header-id")).isEqualTo("header-id");
+        assertThat(parser.parse("{}").eventTypeOr("header-type")).isEqualTo("header-type");
+    }
+
+    @Test
+    void scalarsBecomeTextAndNullsOrContainersBecomeNull() throws IOException {
+        WebhookPayload p = parser.parse("""
+                {"eventId":12345,"eventType":null,"id":{"x":1},"type":["a"],
+                 "data":{"orderId":true,"status":null,"paymentKey":[1,2]}}""");
+
+        assertThat(p.eventId()).isEqualTo("12345");
+        assertThat(p.eventType()).isNull();
+        assertThat(p.id()).isNull();
+        assertThat(p.type()).isNull();
+        assertThat(p.orderId()).isEqualTo("true");
+        assertThat(p.status()).isNull();
+        assertThat(p.paymentKey()).isNull();
+    }
+
+    @Test
+    void dataMustBeAnObject() throws IOException {
+        assertThat(parser.parse("{\"eventId\":\"e\"}").hasData()).isFalse();
+        assertThat(parser.parse("{\"data\":null}").hasData()).isFalse();
+        assertThat(parser.parse("{\"data\":\"DONE\"}").hasData()).isFalse();
+        assertThat(parser.parse("{\"data\":[{\"orderId\":\"ORD-1\"}],\"eventId\":\"e\"}"))
+                .extracting(WebhookPayload::hasData, WebhookPayload::orderId, WebhookPayload::eventId)
+                .containsExactly(false, null, "e");
+    }
+
+    @Test
+    void duplicateDataKeepsTheLastObjectLikeTreeParsing() throws IOException {
+        WebhookPayload p = parser.parse("""
+                {"data":{"orderId":"ORD-1","status":"DONE","paymentKey":"pk-1"},"data":{"orderId":"ORD-2"}}""");
+
+        assertThat(p.orderId()).isEqualTo("ORD-2");
+        assertThat(p.status()).isNull();
+        assertThat(p.paymentKey()).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "[]", "\"text\"", "{\"eventId\":", "{\"eventId\":\"e\"", "not json"})
+    void rejectsNonObjectOrBrokenJson(String raw) {
+        assertThatThrownBy(() -> parser.parse(raw)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThatThrownBy(() -> parser.parse(null)).isInstanceOf(IOException.class);
+    }
+
+    /** 이전 구현(readTree)과 같은 값을 뽑는지 */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"eventId\":\"e\",\"eventType\":\"T\",\"data\":{\"orderId\":\"o\",\"status\":\"s\",\"paymentKey\":\"k\"}}",
+            "{\"id\":7,\"type\":\"T\",\"data\":{\"orderId\":\"o\",\"extra\":{\"status\":\"x\"},\"status\":\"s\"}}",
+            "{\"eventId\":null,\"id\":\"i\",\"data\":{},\"more\":[1,2,{\"eventId\":\"no\"}]}",
+            "{\"eventId\":\"first\",\"eventId\":\"second\",\"data\":{\"status\":\"a\",\"status\":\"b\"}}"
+    })
+    void matchesTreeParsing(String raw) throws IOException {
+        JsonNode root = objectMapper.readTree(raw);
+        JsonNode data = root.get("data");
+
+        WebhookPayload p = parser.parse(raw);
+
+        assertThat(p.eventIdOr(null)).isEqualTo(text(root, "eventId") != null ? text(root, "eventId") : text(root, "id"));
+        assertThat(p.eventTypeOr(null)).isEqualTo(text(root, "eventType") != null ? text(root, "eventType") : text(root, "type"));
+        assertThat(p.hasData()).isEqualTo(data != null && data.isObject());
+        assertThat(p.orderId()).isEqualTo(text(data, "orderId"));
+        assertThat(p.status()).isEqualTo(text(data, "status"));
+        assertThat(p.paymentKey()).isEqualTo(text(data, "paymentKey"));
+    }
+
+    private static String text(JsonNode n, String field) {
+        if (n == null) return null;
+        JsonNode x = n.get(field);
+        return (x != null && !x.isNull()) ? x.asText() : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tbc.payments.scheduler;
+
+import com.tbc.payments.application.port.out.PaymentPersistencePort;
+import com.tbc.payments.application.service.PaymentStateMachine;
+import com.tbc.payments.domain.payment.PaymentCursorRow;
+import com.tbc.payments.domain.payment.PaymentState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpiredInitPaymentSweeperTest {
+
+    private final PaymentPersistencePort paymentRepo = mock(PaymentPersistencePort.class);
+    private final PaymentStateMachine stateMachine = mock(PaymentStateMachine.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void countsOnlyTheRowsThatWereActuallyTransitioned() {
+        LocalDateTime t = LocalDateTime.of(2026, 1, 1, 0, 0);
+        List<PaymentCursorRow> locked = List.of(
+                new PaymentCursorRow(1L, "ORD-1", t),
+                new PaymentCursorRow(2L, "ORD-2", t),
+                new PaymentCursorRow(3L, "ORD-3", t));
+        when(paymentRepo.lockInitCreatedBefore(any(), any(), anyLong(), anyInt())).thenReturn(locked, List.of());
+        when(stateMachine.transitAll(anyList(), eq(PaymentState.INIT), eq(PaymentState.CANCELED), anyString(), anyString()))
+                .thenReturn(2);
+
+        new ExpiredInitPaymentSweeper(paymentRepo, stateMachine,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry,
+                Duration.ofMinutes(30), 500, 20, PaymentState.CANCELED).sweep();
+
+        assertThat(meterRegistry.counter("payments.init_expiry.swept", "state", "CANCELED").count()).isEqualTo(2.0);
+    }
+}